@@ -0,0 +1,647 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Post-optimisation des tournées par recherche locale (Thème 2).
+ * Chaque tournée est améliorée seule, sans changer ses points (la charge
+ * reste donc valide), par trois mouvements :
+ * - 2-opt : inversion d'un segment ;
+ * - Or-opt : déplacement d'un segment de 2 ou 3 points, à l'endroit ou
+ * inversé ;
+ * - relocate : déplacement d'un seul point.
+ * Les distances sont asymétriques (sens uniques) : le coût d'un segment
+ * inversé n'est pas celui du segment à l'endroit. Des sommes préfixes des
+ * arcs dans les deux sens donnent ce coût en O(1) ; après un mouvement,
+ * seules les positions déplacées sont réécrites et les sommes sont décalées
+ * par blocs (O(racine de n) au lieu de O(n)). Les matrices de toutes les
+ * tournées sont calculées d'un seul lot.
+ * Seuls les mouvements qui rapprochent un point de l'un de ses K plus
+ * proches voisins sont essayés, et un point dont le voisinage n'a rien
+ * donné n'est réexaminé que si l'un de ses arcs change (« don't look
+ * bits ») : chaque passe reste quasi linéaire.
+ * L'amélioration s'arrête au premier optimum local ou quand le budget
+ * (durée, nombre de mouvements) est épuisé.
+ */
+public class AmeliorationLocale {
+
+    public static final long DUREE_PAR_DEFAUT_MS = 2000;
+    public static final int MOUVEMENTS_PAR_DEFAUT = 100_000;
+
+    // Taille des listes de voisins
+    private static final int K_VOISINS = 8;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Bilan de l'amélioration d'une tournée.
+     */
+    public static class ResultatAmelioration {
+        public int numero;
+        public double distanceAvant;
+        public double distanceApres;
+        public int mouvements;
+
+        public ResultatAmelioration(int numero, double distanceAvant) {
+            this.numero = numero;
+            this.distanceAvant = distanceAvant;
+            this.distanceApres = distanceAvant;
+        }
+
+        public double gain() {
+            return distanceAvant - distanceApres;
+        }
+    }
+
+    /**
+     * Améliore toutes les tournées avec le budget par défaut et affiche le
+     * gain de chacune.
+     */
+    public static List<ResultatAmelioration> ameliorer(Graphe g, List<Tournee> tournees) {
+        return ameliorer(g, tournees, DUREE_PAR_DEFAUT_MS, MOUVEMENTS_PAR_DEFAUT);
+    }
+
+    /**
+     * Améliore toutes les tournées et affiche le gain de chacune.
+     *
+     * @param g             Le graphe.
+     * @param tournees      Les tournées (modifiées sur place).
+     * @param limiteMs      Durée maximale pour l'ensemble des tournées.
+     * @param maxMouvements Nombre maximal de mouvements par tournée.
+     * @return Le bilan de chaque tournée.
+     */
+    public static List<ResultatAmelioration> ameliorer(Graphe g, List<Tournee> tournees, long limiteMs,
+            int maxMouvements) {
+        long echeance = System.nanoTime() + limiteMs * 1_000_000L;
+        List<ResultatAmelioration> resultats = new ArrayList<>();
+        double totalGain = 0.0;
+
+        // Toutes les matrices d'un seul lot (dépôt + points de chaque tournée ;
+        // rien à calculer pour une tournée de moins de deux points)
+        List<List<Sommet>> groupes = new ArrayList<>();
+        for (Tournee t : tournees)
+            groupes.add(t.getPointsVisites().size() < 2 ? List.of() : sommets(t));
+        double[][] matrices = MatriceDistances.matricesParGroupe(g, groupes, 0);
+
+        System.out.println("\n--- Optimisation locale (2-opt, Or-opt, relocate) ---");
+        for (int k = 0; k < tournees.size(); k++) {
+            ResultatAmelioration r = ameliorer(tournees.get(k), groupes.get(k), matrices[k], echeance, maxMouvements);
+            resultats.add(r);
+            totalGain += r.gain();
+            if (r.mouvements > 0)
+                System.out.printf("   Tournée #%d : %.2f km --> %.2f km (gain %.2f km, %d mouvements)%n",
+                        r.numero, r.distanceAvant, r.distanceApres, r.gain(), r.mouvements);
+            else
+                System.out.printf("   Tournée #%d : %.2f km (déjà localement optimale)%n", r.numero, r.distanceAvant);
+        }
+        System.out.printf("   Gain total : %.2f km%n", totalGain);
+        return resultats;
+    }
+
+    /**
+     * Améliore une tournée (sans affichage).
+     *
+     * @param g             Le graphe.
+     * @param t             La tournée (modifiée sur place si elle raccourcit).
+     * @param echeance      Date limite (System.nanoTime()).
+     * @param maxMouvements Nombre maximal de mouvements.
+     * @return Le bilan.
+     */
+    public static ResultatAmelioration ameliorer(Graphe g, Tournee t, long echeance, int maxMouvements) {
+        List<Sommet> tous = sommets(t);
+        double[] d = tous.size() < 3 ? null : MatriceDistances.matriceParallele(g, tous, 0);
+        return ameliorer(t, tous, d, echeance, maxMouvements);
+    }
+
+    // Dépôt puis points de la tournée (indices de la matrice)
+    private static List<Sommet> sommets(Tournee t) {
+        List<Sommet> tous = new ArrayList<>();
+        tous.add(t.getDepot());
+        tous.addAll(t.getPointsVisites());
+        return tous;
+    }
+
+    private static ResultatAmelioration ameliorer(Tournee t, List<Sommet> tous, double[] d, long echeance,
+            int maxMouvements) {
+        ResultatAmelioration res = new ResultatAmelioration(t.getNumero(), t.getDistanceParcourue());
+        int m = tous.size();
+        if (m < 3)
+            return res;
+
+        int[] ordre = new int[m];
+        for (int i = 0; i < m; i++)
+            ordre[i] = i;
+        Recherche r = new Recherche(d, m, ordre);
+        if (r.longueur() >= Double.MAX_VALUE)
+            return res; // tournée incomplète (point inaccessible) : on n'y touche pas
+        double avant = r.longueur();
+
+        res.mouvements = r.optimiser(echeance, maxMouvements);
+        r.recalculer(); // longueur exacte, sans les arrondis des décalages
+        double apres = r.longueur();
+        if (res.mouvements == 0 || apres >= avant - EPSILON) {
+            res.mouvements = 0;
+            return res;
+        }
+
+        List<Sommet> nouvelOrdre = new ArrayList<>();
+        for (int k = 1; k < m; k++)
+            nouvelOrdre.add(tous.get(r.t[k]));
+        // La distance d'origine peut contenir des arrondis : on retranche le gain
+        res.distanceApres = res.distanceAvant - (avant - apres);
+        t.remplacerItineraire(nouvelOrdre, res.distanceApres);
+        return res;
+    }
+
+    /**
+     * Recherche locale sur un circuit t[0..m] avec t[0] = t[m] = dépôt (0).
+     * Un mouvement ne réécrit que la plage de positions qu'il modifie ; les
+     * sommes préfixes de la suite sont décalées par blocs.
+     */
+    static final class Recherche {
+        final double[] d;
+        final int m;
+        final int[] t; // circuit, dépôt aux deux extrémités
+        final int[] pos; // sommet --> position (dépôt : 0)
+        // Sommes des arcs finis d(t[l], t[l+1]) (avant) et d(t[l+1], t[l])
+        // (arriere) pour l < k, et nombre d'arcs impossibles parmi eux
+        private final SommesPrefixes avant, arriere, infAvant, infArriere;
+        final int[][] voisins;
+        boolean echangeSegments = false; // active le 3-opt sans inversion
+        // Tampons réutilisés d'un mouvement à l'autre
+        private final int[] tampon;
+        private final int[] touches = new int[6];
+        private final int[] file;
+        private final boolean[] actif;
+        // Positions modifiées depuis la dernière sauvegarde (vide si debut > fin)
+        private int modifDebut = Integer.MAX_VALUE, modifFin = -1;
+
+        Recherche(double[] d, int m, int[] ordre) {
+            this(d, m, ordre, listesVoisins(d, m));
+        }
+
+        Recherche(double[] d, int m, int[] ordre, int[][] voisins) {
+            this.d = d;
+            this.m = m;
+            this.t = new int[m + 1];
+            System.arraycopy(ordre, 0, t, 0, m);
+            t[m] = ordre[0];
+            this.pos = new int[m];
+            this.avant = new SommesPrefixes(m + 1);
+            this.arriere = new SommesPrefixes(m + 1);
+            this.infAvant = new SommesPrefixes(m + 1);
+            this.infArriere = new SommesPrefixes(m + 1);
+            this.tampon = new int[m + 1];
+            this.file = new int[m];
+            this.actif = new boolean[m];
+            this.voisins = voisins;
+            recalculer();
+        }
+
+        double longueur() {
+            return infAvant.valeur(m) > 0.5 ? Double.MAX_VALUE : avant.valeur(m);
+        }
+
+        private double arc(int a, int b) {
+            return d[a * m + b];
+        }
+
+        /**
+         * Recalcule positions et sommes préfixes sur tout le circuit (sommes
+         * exactes, sans les arrondis accumulés par les décalages).
+         */
+        void recalculer() {
+            for (int k = 0; k < m; k++)
+                pos[t[k]] = k;
+            avant.vider();
+            arriere.vider();
+            infAvant.vider();
+            infArriere.vider();
+            for (int k = 1; k <= m; k++)
+                fixerPrefixe(k);
+        }
+
+        // Somme préfixe k à partir de k - 1 (arc t[k-1] --> t[k] et retour)
+        private void fixerPrefixe(int k) {
+            double f = arc(t[k - 1], t[k]), b = arc(t[k], t[k - 1]);
+            boolean fInf = f >= Double.MAX_VALUE, bInf = b >= Double.MAX_VALUE;
+            avant.fixer(k, avant.valeur(k - 1) + (fInf ? 0.0 : f));
+            infAvant.fixer(k, infAvant.valeur(k - 1) + (fInf ? 1 : 0));
+            arriere.fixer(k, arriere.valeur(k - 1) + (bInf ? 0.0 : b));
+            infArriere.fixer(k, infArriere.valeur(k - 1) + (bInf ? 1 : 0));
+        }
+
+        /**
+         * Mise à jour après un mouvement qui n'a changé que t[lo..hi]
+         * (1 &lt;= lo &lt;= hi &lt;= m-1) : positions et sommes de la plage,
+         * puis décalage de la suite.
+         */
+        private void majPlage(int lo, int hi) {
+            modifDebut = Math.min(modifDebut, lo);
+            modifFin = Math.max(modifFin, hi);
+            for (int k = lo; k <= hi; k++)
+                pos[t[k]] = k;
+            int fin = hi + 1;
+            double a0 = avant.valeur(fin), b0 = arriere.valeur(fin);
+            double ia0 = infAvant.valeur(fin), ib0 = infArriere.valeur(fin);
+            for (int k = lo; k <= fin; k++)
+                fixerPrefixe(k);
+            avant.decaler(fin + 1, avant.valeur(fin) - a0);
+            arriere.decaler(fin + 1, arriere.valeur(fin) - b0);
+            infAvant.decaler(fin + 1, infAvant.valeur(fin) - ia0);
+            infArriere.decaler(fin + 1, infArriere.valeur(fin) - ib0);
+        }
+
+        // Coût de t[i..j] parcouru à l'envers moins à l'endroit
+        private double surcoutInversion(int i, int j) {
+            if (infAvant.valeur(j) - infAvant.valeur(i) > 0.5 || infArriere.valeur(j) - infArriere.valeur(i) > 0.5)
+                return Double.MAX_VALUE;
+            return (arriere.valeur(j) - arriere.valeur(i)) - (avant.valeur(j) - avant.valeur(i));
+        }
+
+        /**
+         * Applique les mouvements améliorants jusqu'à l'optimum local ou
+         * l'épuisement du budget.
+         *
+         * @return Le nombre de mouvements appliqués.
+         */
+        int optimiser(long echeance, int maxMouvements) {
+            int[] tous = new int[m];
+            for (int v = 0; v < m; v++)
+                tous[v] = v;
+            return optimiser(tous, echeance, maxMouvements);
+        }
+
+        /**
+         * Variante qui n'examine au départ que certains sommets (après une
+         * perturbation locale, par exemple).
+         */
+        int optimiser(int[] depart, long echeance, int maxMouvements) {
+            // File circulaire des sommets à examiner (bits « don't look »
+            // inversés) : chaque sommet y figure au plus une fois
+            int tete = 0, nb = 0;
+            for (int v : depart) {
+                if (!actif[v]) {
+                    actif[v] = true;
+                    file[(tete + nb++) % m] = v;
+                }
+            }
+
+            int mouvements = 0;
+            while (nb > 0 && mouvements < maxMouvements) {
+                if ((mouvements & 15) == 0 && System.nanoTime() > echeance)
+                    break;
+                int a = file[tete];
+                tete = (tete + 1) % m;
+                nb--;
+                actif[a] = false;
+                int nbTouches = essayer(a);
+                if (nbTouches == 0)
+                    continue;
+                mouvements++;
+                for (int k = 0; k < nbTouches; k++) {
+                    int v = touches[k];
+                    if (!actif[v]) {
+                        actif[v] = true;
+                        file[(tete + nb++) % m] = v;
+                    }
+                }
+            }
+            // Budget épuisé : les sommets encore en file redeviennent libres
+            for (; nb > 0; nb--, tete = (tete + 1) % m)
+                actif[file[tete]] = false;
+            return mouvements;
+        }
+
+        /**
+         * Cherche le meilleur mouvement qui relie a à l'un de ses voisins et
+         * l'applique.
+         *
+         * @return Le nombre de sommets dont les arcs ont changé (rangés dans
+         *         touches), 0 si aucun mouvement n'améliore.
+         */
+        private int essayer(int a) {
+            double meilleurDelta = -EPSILON;
+            int type = -1, p1 = 0, p2 = 0, p3 = 0;
+            // Le dépôt occupe les positions 0 et m
+            int nbA = a == 0 ? 2 : 1;
+
+            for (int c : voisins[a]) {
+                int nbC = c == 0 ? 2 : 1;
+                // 2-opt : inverser t[i..j] crée les arcs t[i-1] --> t[j] et
+                // t[i] --> t[j+1] ; on cherche à rendre a et c adjacents
+                for (int xa = 0; xa < nbA; xa++) {
+                    int pa = a == 0 ? xa * m : pos[a];
+                    for (int xc = 0; xc < nbC; xc++) {
+                        int pc = c == 0 ? xc * m : pos[c];
+                        int lo = Math.min(pa, pc), hi = Math.max(pa, pc);
+                        for (int variante = 0; variante < 2; variante++) {
+                            int i = variante == 0 ? lo + 1 : lo, j = variante == 0 ? hi : hi - 1;
+                            if (i < 1 || j > m - 1 || i >= j)
+                                continue;
+                            double delta = deltaInversion(i, j);
+                            if (delta < meilleurDelta) {
+                                meilleurDelta = delta;
+                                type = 0;
+                                p1 = i;
+                                p2 = j;
+                            }
+                        }
+                    }
+                }
+
+                // Or-opt / relocate : segment commençant ou finissant en a,
+                // inséré juste après ou juste avant c
+                if (a == 0)
+                    continue;
+                for (int lg = 1; lg <= 3; lg++) {
+                    for (int cote = 0; cote < (lg == 1 ? 1 : 2); cote++) {
+                        int debutSeg = cote == 0 ? pos[a] : pos[a] - lg + 1;
+                        int finSeg = debutSeg + lg - 1;
+                        if (debutSeg < 1 || finSeg > m - 1)
+                            continue;
+                        for (int xc = 0; xc < nbC; xc++) {
+                            int pc = c == 0 ? xc * m : pos[c];
+                            // Insertion entre t[p] et t[p+1]
+                            for (int p = pc; p >= pc - 1; p--) {
+                                if (p < 0 || p > m - 1 || (p >= debutSeg - 1 && p <= finSeg))
+                                    continue;
+                                for (int inverse = 0; inverse < 2; inverse++) {
+                                    if (lg == 1 && inverse == 1)
+                                        continue;
+                                    double delta = deltaDeplacement(debutSeg, finSeg, p, inverse == 1);
+                                    if (delta < meilleurDelta) {
+                                        meilleurDelta = delta;
+                                        type = 1 + inverse;
+                                        p1 = debutSeg;
+                                        p2 = finSeg;
+                                        p3 = p;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (echangeSegments) {
+                // Échange de segments (3-opt sans inversion, à la
+                // Lin-Kernighan) : coupe après t[p], t[q] et t[r] (p < q < r),
+                // puis t[p] --> t[q+1], t[r] --> t[p+1] et t[q] --> t[r+1].
+                // Le premier arc ajouté relie a à un voisin, et doit déjà
+                // faire gagner quelque chose (critère de gain positif).
+                int p = pos[a];
+                for (int c : voisins[a]) {
+                    int q = c == 0 ? m - 1 : pos[c] - 1;
+                    if (q <= p || q >= m - 1)
+                        continue;
+                    double gain1 = arc(t[p], t[p + 1]) - arc(a, c);
+                    if (gain1 <= 0.0)
+                        continue;
+                    for (int source = 0; source < 2; source++) {
+                        int[] liste = source == 0 ? voisins[t[p + 1]] : voisins[t[q]];
+                        for (int e : liste) {
+                            int r = source == 0 ? (e == 0 ? -1 : pos[e]) : (e == 0 ? m - 1 : pos[e] - 1);
+                            if (r <= q || r > m - 1)
+                                continue;
+                            double delta = deltaEchange(p, q, r);
+                            if (delta < meilleurDelta) {
+                                meilleurDelta = delta;
+                                type = 3;
+                                p1 = p;
+                                p2 = q;
+                                p3 = r;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (type < 0)
+                return 0;
+            if (type == 0)
+                return inverser(p1, p2);
+            if (type == 3)
+                return appliquerEchange(p1, p2, p3);
+            return deplacer(p1, p2, p3, type == 2);
+        }
+
+        private double deltaEchange(int p, int q, int r) {
+            double ajout = somme(somme(arc(t[p], t[q + 1]), arc(t[r], t[p + 1])), arc(t[q], t[r + 1]));
+            double retrait = somme(somme(arc(t[p], t[p + 1]), arc(t[q], t[q + 1])), arc(t[r], t[r + 1]));
+            return difference(ajout, retrait);
+        }
+
+        /**
+         * Échange les segments t[p+1..q] et t[q+1..r] (0 &lt;= p &lt; q &lt; r &lt;= m-1).
+         *
+         * @return Les sommets dont les arcs ont changé.
+         */
+        int[] echanger(int p, int q, int r) {
+            return Arrays.copyOf(touches, appliquerEchange(p, q, r));
+        }
+
+        private int appliquerEchange(int p, int q, int r) {
+            noter(t[p], t[p + 1], t[q], t[q + 1], t[r], t[r + 1]);
+            int k = 0;
+            for (int x = q + 1; x <= r; x++)
+                tampon[k++] = t[x];
+            for (int x = p + 1; x <= q; x++)
+                tampon[k++] = t[x];
+            System.arraycopy(tampon, 0, t, p + 1, k);
+            majPlage(p + 1, r);
+            return 6;
+        }
+
+        /**
+         * Copie du circuit, point de départ des sauvegardes suivantes.
+         */
+        int[] sauvegarde() {
+            modifDebut = Integer.MAX_VALUE;
+            modifFin = -1;
+            return t.clone();
+        }
+
+        /**
+         * Met à jour la sauvegarde : seules les positions modifiées depuis la
+         * précédente sont recopiées.
+         */
+        void sauvegarder(int[] sauvegarde) {
+            if (modifDebut <= modifFin)
+                System.arraycopy(t, modifDebut, sauvegarde, modifDebut, modifFin - modifDebut + 1);
+            modifDebut = Integer.MAX_VALUE;
+            modifFin = -1;
+        }
+
+        /**
+         * Revient au circuit de la dernière sauvegarde : seule la plage
+         * modifiée depuis est recopiée et remise à jour.
+         */
+        void restaurer(int[] sauvegarde) {
+            if (modifDebut <= modifFin) {
+                int lo = modifDebut, hi = modifFin;
+                System.arraycopy(sauvegarde, lo, t, lo, hi - lo + 1);
+                majPlage(lo, hi);
+            }
+            modifDebut = Integer.MAX_VALUE;
+            modifFin = -1;
+        }
+
+        private double deltaInversion(int i, int j) {
+            double surcout = surcoutInversion(i, j);
+            double ajout = somme(somme(arc(t[i - 1], t[j]), arc(t[i], t[j + 1])), surcout);
+            double retrait = somme(arc(t[i - 1], t[i]), arc(t[j], t[j + 1]));
+            return difference(ajout, retrait);
+        }
+
+        private double deltaDeplacement(int i, int j, int p, boolean inverse) {
+            int premier = inverse ? t[j] : t[i], dernier = inverse ? t[i] : t[j];
+            double ajout = somme(somme(arc(t[i - 1], t[j + 1]), arc(t[p], premier)), arc(dernier, t[p + 1]));
+            if (inverse)
+                ajout = somme(ajout, surcoutInversion(i, j));
+            double retrait = somme(somme(arc(t[i - 1], t[i]), arc(t[j], t[j + 1])), arc(t[p], t[p + 1]));
+            return difference(ajout, retrait);
+        }
+
+        private void noter(int... sommets) {
+            System.arraycopy(sommets, 0, touches, 0, sommets.length);
+        }
+
+        private int inverser(int i, int j) {
+            touches[0] = t[i - 1];
+            touches[1] = t[i];
+            touches[2] = t[j];
+            touches[3] = t[j + 1];
+            for (int a = i, b = j; a < b; a++, b--) {
+                int x = t[a];
+                t[a] = t[b];
+                t[b] = x;
+            }
+            majPlage(i, j);
+            return 4;
+        }
+
+        /**
+         * Déplace t[i..j] (à l'endroit ou inversé) entre t[p] et t[p+1] ;
+         * seuls les points entre l'ancienne et la nouvelle place glissent.
+         */
+        private int deplacer(int i, int j, int p, boolean inverse) {
+            touches[0] = t[i - 1];
+            touches[1] = t[i];
+            touches[2] = t[j];
+            touches[3] = t[j + 1];
+            touches[4] = t[p];
+            touches[5] = t[p + 1];
+            int lg = j - i + 1;
+            for (int k = 0; k < lg; k++)
+                tampon[k] = t[inverse ? j - k : i + k];
+            if (p > j) {
+                System.arraycopy(t, j + 1, t, i, p - j);
+                System.arraycopy(tampon, 0, t, p - lg + 1, lg);
+                majPlage(i, p);
+            } else {
+                System.arraycopy(t, p + 1, t, p + 1 + lg, i - 1 - p);
+                System.arraycopy(tampon, 0, t, p + 1, lg);
+                majPlage(p + 1, j);
+            }
+            return 6;
+        }
+    }
+
+    /**
+     * Sommes préfixes découpées en blocs d'environ racine(n) cases :
+     * valeur(k) = base[k] + decalage[bloc de k]. Ajouter une constante à
+     * toute la suite à partir d'une case coûte O(racine(n)) au lieu de O(n),
+     * et une lecture reste en O(1).
+     */
+    static final class SommesPrefixes {
+        private final double[] base;
+        private final double[] decalage;
+        private final int bits; // taille des blocs : 2^bits
+
+        SommesPrefixes(int taille) {
+            int b = 4;
+            while (b < 15 && (1L << (2 * b)) < taille)
+                b++;
+            bits = b;
+            base = new double[taille];
+            decalage = new double[(taille >>> b) + 1];
+        }
+
+        double valeur(int k) {
+            return base[k] + decalage[k >>> bits];
+        }
+
+        void fixer(int k, double v) {
+            base[k] = v - decalage[k >>> bits];
+        }
+
+        /**
+         * Ajoute delta aux cases depuis..fin.
+         */
+        void decaler(int depuis, double delta) {
+            if (delta == 0.0 || depuis >= base.length)
+                return;
+            int bloc = depuis >>> bits;
+            int finBloc = Math.min(base.length, (bloc + 1) << bits);
+            for (int k = depuis; k < finBloc; k++)
+                base[k] += delta;
+            for (int x = bloc + 1; x < decalage.length; x++)
+                decalage[x] += delta;
+        }
+
+        void vider() {
+            Arrays.fill(base, 0.0);
+            Arrays.fill(decalage, 0.0);
+        }
+    }
+
+    /**
+     * K plus proches voisins de chaque sommet, au sens de
+     * min(d(a, c), d(c, a)).
+     */
+    static int[][] listesVoisins(double[] d, int m) {
+        return listesVoisins(d, m, K_VOISINS);
+    }
+
+    /**
+     * Variante avec un nombre de voisins donné (sélection par insertion en
+     * O(m * k) par sommet, sans trier toute la ligne).
+     */
+    static int[][] listesVoisins(double[] d, int m, int kVoulu) {
+        int k = Math.min(kVoulu, m - 1);
+        int[][] voisins = new int[m][k];
+        double[] cles = new double[k];
+        for (int a = 0; a < m; a++) {
+            int[] liste = voisins[a];
+            int taille = 0;
+            for (int c = 0; c < m; c++) {
+                if (c == a)
+                    continue;
+                double cle = Math.min(d[a * m + c], d[c * m + a]);
+                if (taille == k && cle >= cles[k - 1])
+                    continue;
+                int i = taille < k ? taille++ : k - 1;
+                while (i > 0 && cles[i - 1] > cle) {
+                    cles[i] = cles[i - 1];
+                    liste[i] = liste[i - 1];
+                    i--;
+                }
+                cles[i] = cle;
+                liste[i] = c;
+            }
+        }
+        return voisins;
+    }
+
+    private static double somme(double a, double b) {
+        return a >= Double.MAX_VALUE || b >= Double.MAX_VALUE ? Double.MAX_VALUE : a + b;
+    }
+
+    // Variation de longueur ; un mouvement qui crée un arc impossible n'améliore jamais
+    private static double difference(double ajout, double retrait) {
+        if (ajout >= Double.MAX_VALUE)
+            return Double.MAX_VALUE;
+        return ajout - retrait;
+    }
+}
@@ -7,148 +7,59 @@ import java.util.*;
 
 public class ApprocheMST {
 
-    private static class AreteMST implements Comparable<AreteMST> {
-        Sommet u, v;
-        double poids;
-
-        AreteMST(Sommet u, Sommet v, double poids) {
-            this.u = u;
-            this.v = v;
-            this.poids = poids;
-        }
+    // Budget de l'heuristique Lin-Kernighan sur le circuit géant (option)
+    public static final long DUREE_CIRCUIT_MS = 1000;
 
-        @Override
-        public int compareTo(AreteMST o) {
-            return Double.compare(this.poids, o.poids);
-        }
+    public static List<Tournee> resoudreAvecMST(Graphe g, Sommet depot,
+            List<Sommet> tousLesPoints, double capaciteCamion) {
+        return resoudreAvecMST(g, depot, tousLesPoints, capaciteCamion, false);
     }
 
-    private static class UnionFind {
-        private final Map<Sommet, Sommet> parent = new HashMap<>();
-
-        Sommet find(Sommet x) {
-            parent.putIfAbsent(x, x);
-            if (!parent.get(x).equals(x)) {
-                parent.put(x, find(parent.get(x)));
-            }
-            return parent.get(x);
-        }
-
-        void union(Sommet x, Sommet y) {
-            parent.put(find(x), find(y));
-        }
+    public static List<Tournee> resoudreAvecMST(Graphe g, Sommet depot,
+            List<Sommet> tousLesPoints, double capaciteCamion, boolean christofides) {
+        return resoudreAvecMST(g, depot, tousLesPoints, capaciteCamion, christofides, false);
     }
 
+    /**
+     * Même planification, avec le choix de construction du circuit géant.
+     *
+     * @param christofides true : arbre + couplage des sommets impairs + circuit
+     *                     eulérien (Christofides) ; false : parcours en
+     *                     profondeur de l'arbre.
+     * @param ameliorerCircuit true : passe Lin-Kernighan sur le circuit géant
+     *                     avant le découpage (DUREE_CIRCUIT_MS, résultat
+     *                     dépendant de la machine) ; false : planification
+     *                     déterministe.
+     */
     public static List<Tournee> resoudreAvecMST(Graphe g, Sommet depot,
-            List<Sommet> tousLesPoints, double capaciteCamion) {
+            List<Sommet> tousLesPoints, double capaciteCamion, boolean christofides,
+            boolean ameliorerCircuit) {
 
         System.out.println("\n" + "=".repeat(80));
-        System.out.println("   THÈME 2 : APPROCHE MST + SHORTCUTTING + CAPACITÉ CAMION");
+        System.out.println(christofides
+                ? "   THÈME 2 : APPROCHE CHRISTOFIDES + SHORTCUTTING + CAPACITÉ CAMION"
+                : "   THÈME 2 : APPROCHE MST + SHORTCUTTING + CAPACITÉ CAMION");
         System.out.printf("   Capacité par camion : %.1f tonnes%n", capaciteCamion);
         System.out.println("=".repeat(80));
 
-        // Filtrer les points à visiter
-        List<Sommet> points = new ArrayList<>();
-        for (Sommet s : tousLesPoints) {
-            if (!s.equals(depot) && s.getQuantiteDechets() > 0.01) {
-                points.add(s);
-            }
-        }
-
-        if (points.isEmpty()) {
+        List<Tournee> tournees = decouper(g, depot, tousLesPoints, capaciteCamion, christofides,
+                ameliorerCircuit, true);
+        if (tournees.isEmpty()) {
             System.out.println("Aucun point de collecte à traiter.");
             Utils.appuyerPourContinuer();
-            return new ArrayList<>();
-        }
-
-        // Kruskal → MST
-        List<AreteMST> aretes = new ArrayList<>();
-        for (int i = 0; i < points.size(); i++) {
-            for (int j = i + 1; j < points.size(); j++) {
-                double d = Dijkstra.calculerDistance(g, points.get(i), points.get(j));
-                if (d < Double.MAX_VALUE / 2) {
-                    aretes.add(new AreteMST(points.get(i), points.get(j), d));
-                }
-            }
-        }
-        Collections.sort(aretes);
-
-        UnionFind uf = new UnionFind();
-        Map<Sommet, List<Sommet>> arbre = new HashMap<>();
-        for (Sommet s : points)
-            arbre.put(s, new ArrayList<>());
-
-        for (AreteMST a : aretes) {
-            if (uf.find(a.u) != uf.find(a.v)) {
-                uf.union(a.u, a.v);
-                arbre.get(a.u).add(a.v);
-                arbre.get(a.v).add(a.u);
-            }
-        }
-
-        // Parcours DFS + Shortcutting
-        List<Sommet> prefixe = new ArrayList<>();
-        Set<Sommet> visite = new HashSet<>();
-        if (!points.isEmpty()) {
-            dfs(points.get(0), arbre, visite, prefixe);
-        }
-
-        List<Sommet> circuit = new ArrayList<>();
-        Set<Sommet> vu = new HashSet<>();
-        for (Sommet s : prefixe) {
-            if (!vu.contains(s)) {
-                circuit.add(s);
-                vu.add(s);
-            }
-        }
-
-        // Découpage en tournées
-        List<Tournee> tournees = new ArrayList<>();
-        int numero = 1;
-        Tournee t = new Tournee(numero++, depot);
-        double charge = 0.0;
-        Sommet departTournée = depot;
-
-        System.out.printf("%n=== TOURNÉE MST N°%d ===%n", numero - 1);
-
-        for (Sommet prochain : circuit) {
-
-            // Calcul de la distance depuis le dernier point visité (ou dépôt si début de
-            // tournée)
-            double dist = Dijkstra.calculerDistance(g, departTournée, prochain);
-
-            // Si on dépasse la capacité → on termine la tournée actuelle
-            if (charge + prochain.getQuantiteDechets() > capaciteCamion + 1e-9) {
-                double retour = Dijkstra.calculerDistance(g, departTournée, depot);
-                t.ajouterRetourDepot(retour);
-                System.out.printf("   Retour dépôt --> %.2f km%n", retour);
-                tournees.add(t);
-
-                // Nouvelle tournée
-                t = new Tournee(numero++, depot);
-                charge = 0.0;
-                departTournée = depot;
-                System.out.printf("%n=== TOURNÉE MST N°%d ===%n", numero - 1);
-
-                // Recalculer la distance depuis le dépôt pour le point actuel
-                dist = Dijkstra.calculerDistance(g, depot, prochain);
-            }
-
-            t.ajouterPoint(prochain, dist);
-            charge += prochain.getQuantiteDechets();
-            departTournée = prochain; // mise à jour pour le prochain point
-
-            System.out.printf("   + %s [%.1f t] --> %.2f km%n",
-                    prochain.getId(), prochain.getQuantiteDechets(), dist);
+            return tournees;
         }
 
-        // Dernier retour au dépôt
-        double dernierRetour = Dijkstra.calculerDistance(g, departTournée, depot);
-        t.ajouterRetourDepot(dernierRetour);
-        System.out.printf("   Retour dépôt --> %.2f km%n", dernierRetour);
-        tournees.add(t);
+        // Post-optimisation de chaque tournée (mêmes points, meilleur ordre)
+        AmeliorationLocale.ameliorer(g, tournees);
 
         // Résumé final
+        int collectes = 0, aCollecter = 0;
+        for (Tournee t : tournees)
+            collectes += t.getPointsVisites().size();
+        for (Sommet s : tousLesPoints)
+            if (!s.equals(depot) && s.getQuantiteDechets() > 0.01)
+                aCollecter++;
         System.out.println("\n" + "=".repeat(80));
         System.out.println("             RÉSULTATS FINAUX - APPROCHE MST");
         System.out.println("=".repeat(80));
@@ -159,20 +70,114 @@ public class ApprocheMST {
         }
         System.out.printf("%nCamions nécessaires       : %d%n", tournees.size());
         System.out.printf("Distance totale parcourue : %.2f km%n", total);
+        System.out.printf("Points collectés          : %d / %d%n", collectes, aCollecter);
         System.out.println("=".repeat(80));
 
         Utils.appuyerPourContinuer();
         return tournees;
     }
 
-    private static void dfs(Sommet c, Map<Sommet, List<Sommet>> a, Set<Sommet> v, List<Sommet> r) {
-        v.add(c);
-        r.add(c);
-        for (Sommet n : a.getOrDefault(c, List.of())) {
-            if (!v.contains(n)) {
-                dfs(n, a, v, r);
-                r.add(c);
+    /**
+     * Tournées de départ pour une autre méthode (ALNS...) : circuit géant par
+     * l'arbre puis découpage optimal, sans affichage, sans pause et sans
+     * post-optimisation.
+     */
+    public static List<Tournee> tourneesInitiales(Graphe g, Sommet depot, List<Sommet> tousLesPoints,
+            double capaciteCamion) {
+        return decouper(g, depot, tousLesPoints, capaciteCamion, false, false, false);
+    }
+
+    /**
+     * Filtre les points, construit le circuit géant et le découpe en
+     * tournées.
+     *
+     * @param bavard true : affiche les points écartés, le circuit et le
+     *               découpage.
+     * @return Les tournées (liste vide s'il n'y a aucun point à collecter).
+     */
+    private static List<Tournee> decouper(Graphe g, Sommet depot, List<Sommet> tousLesPoints,
+            double capaciteCamion, boolean christofides, boolean ameliorerCircuit, boolean bavard) {
+        // Filtrer les points à visiter, joignables depuis et vers le dépôt
+        GrapheCompact gc = g.compacter();
+        int iDepot = gc.indice(depot);
+        double[] versPoint = iDepot < 0 ? null : Dijkstra.distancesDepuis(gc, iDepot, null);
+        double[] versDepot = iDepot < 0 ? null : Dijkstra.distancesVers(gc, iDepot);
+        List<Sommet> points = new ArrayList<>();
+        int ecartes = 0;
+        for (Sommet s : tousLesPoints) {
+            if (s.equals(depot) || s.getQuantiteDechets() <= 0.01)
+                continue;
+            int v = gc.indice(s);
+            if (v < 0 || iDepot < 0 || versPoint[v] >= Double.MAX_VALUE || versDepot[v] >= Double.MAX_VALUE)
+                ecartes++;
+            else
+                points.add(s);
+        }
+        if (bavard && ecartes > 0)
+            System.out.println("Points écartés (inaccessibles depuis ou vers le dépôt) : " + ecartes);
+        if (points.isEmpty())
+            return new ArrayList<>();
+
+        // Distances point à point calculées en parallèle (une ligne par point,
+        // dépôt en tête)
+        int n = points.size();
+        int m = n + 1;
+        List<Sommet> tous = new ArrayList<>();
+        tous.add(depot);
+        tous.addAll(points);
+        double[] matrice = MatriceDistances.matriceParallele(g, tous, 0);
+
+        List<Sommet> circuit = new ArrayList<>();
+        if (christofides) {
+            int[] ordre = Christofides.circuit(matrice, m);
+            double longueur = ordre == null ? Double.MAX_VALUE : Christofides.longueur(matrice, m, ordre);
+            if (longueur < Double.MAX_VALUE) {
+                for (int k = 1; k < m; k++)
+                    circuit.add(tous.get(ordre[k]));
+                if (bavard)
+                    System.out.printf("Circuit géant Christofides : %.2f km%s%n", longueur,
+                            Christofides.estSymetrique(matrice, m) ? ""
+                                    : " (sens uniques : poids symétrisés, meilleur sens gardé)");
+            } else if (bavard) {
+                System.out.println("Christofides impossible (points non joignables dans les deux sens)"
+                        + " --> parcours de l'arbre.");
             }
         }
+        if (circuit.isEmpty())
+            circuitParArbre(tous, matrice, circuit);
+
+        // Circuit en indices de la matrice (dépôt en tête)
+        Map<Sommet, Integer> indice = new HashMap<>();
+        for (int i = 0; i < m; i++)
+            indice.put(tous.get(i), i);
+        int[] ordre = new int[circuit.size() + 1];
+        for (int k = 0; k < circuit.size(); k++)
+            ordre[k + 1] = indice.get(circuit.get(k));
+
+        // Amélioration du circuit géant (dépôt compris) avant le découpage
+        if (ameliorerCircuit && circuit.size() == n)
+            ordre = TSPLinKernighan.ameliorerOrdre(matrice, m, ordre, DUREE_CIRCUIT_MS);
+
+        // Découpage optimal en tournées (même matrice, aucun Dijkstra)
+        List<Tournee> tournees = DecoupageOptimal.tournees(tous, matrice, ordre, capaciteCamion);
+        if (bavard) {
+            double avantAmelioration = 0.0;
+            for (Tournee t : tournees)
+                avantAmelioration += t.getDistanceParcourue();
+            System.out.printf("Découpage optimal du circuit : %d tournée(s), %.2f km%n", tournees.size(),
+                    avantAmelioration);
+        }
+        return tournees;
+    }
+
+    /**
+     * Circuit géant par l'approche MST : arbre couvrant des points (Prim sur
+     * la matrice, dépôt exclu), parcours en profondeur puis raccourcis.
+     */
+    private static void circuitParArbre(List<Sommet> tous, double[] matrice, List<Sommet> circuit) {
+        int m = tous.size();
+        PrimDense.Arbre arbre = PrimDense.calculer(matrice, m, 1, false, 0);
+        for (int v : arbre.parcoursPrefixe())
+            circuit.add(tous.get(v));
     }
 }
\ No newline at end of file
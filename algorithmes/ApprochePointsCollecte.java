@@ -6,6 +6,10 @@ import utils.Utils;
 
 /**
  * Approche Plus Proche Voisin + capacité camion (Thème 2)
+ * Le voisin suivant est trouvé par une seule recherche de Dijkstra bornée
+ * depuis le point courant : le premier point non collecté qui tient dans le
+ * camion, dans l'ordre des distances, l'emporte. La recherche ne s'élargit
+ * que si les points proches sont déjà collectés ou trop lourds.
  */
 public class ApprochePointsCollecte {
 
@@ -31,50 +35,73 @@ public class ApprochePointsCollecte {
             return new ArrayList<>();
         }
 
+        // Points à collecter, indexés sur l'instantané compact ; à distance
+        // égale, le plus petit identifiant l'emporte
+        GrapheCompact gc = g.compacter();
+        int n = gc.nombreSommets();
+        int iDepot = gc.indice(depot);
+        points.sort(Comparator.comparing(Sommet::getId));
+        boolean[] aCollecter = new boolean[n];
+        double[] quantite = new double[n];
+        int[] rang = new int[n];
+        // Seuls les sommets distincts du plan comptent ; doublons et points
+        // absents du graphe sont signalés à part
+        int aCollecterTotal = 0, doublons = 0, inconnus = 0;
+        for (int r = 0; r < points.size(); r++) {
+            int v = gc.indice(points.get(r));
+            if (v < 0) {
+                inconnus++;
+                continue;
+            }
+            if (aCollecter[v]) {
+                doublons++;
+                continue;
+            }
+            aCollecter[v] = true;
+            quantite[v] = points.get(r).getQuantiteDechets();
+            rang[v] = r;
+            aCollecterTotal++;
+        }
+        int nonVisites = aCollecterTotal;
+        // Retours au dépôt : un seul Dijkstra arrière
+        double[] versDepot = iDepot < 0 ? null : Dijkstra.distancesVers(gc, iDepot);
+
         List<Tournee> tournees = new ArrayList<>();
-        Set<Sommet> nonVisites = new TreeSet<>(Comparator.comparing(Sommet::getId)); // ← CORRIGÉ : TreeSet trié par ID
-        nonVisites.addAll(points);
         int numeroTournee = 1;
+        double[] distance = new double[1];
 
-        while (!nonVisites.isEmpty()) {
-            Tournee tournee = new Tournee(numeroTournee++, depot);
+        while (nonVisites > 0 && iDepot >= 0) {
+            Tournee tournee = new Tournee(numeroTournee, depot);
             double charge = 0.0;
-            Sommet courant = depot;
-
-            System.out.printf("%n=== TOURNÉE N°%d ===%n", numeroTournee - 1);
-
-            boolean ajoutPossible = true;
-            while (ajoutPossible && !nonVisites.isEmpty()) {
-                ajoutPossible = false;
-                Sommet meilleur = null;
-                double distMin = Double.MAX_VALUE;
-
-                for (Sommet candidat : nonVisites) {
-                    double dist = Dijkstra.calculerDistance(g, courant, candidat);
-
-                    if (dist < Double.MAX_VALUE &&
-                            charge + candidat.getQuantiteDechets() <= capaciteCamion + 1e-9 &&
-                            dist < distMin) {
-
-                        distMin = dist;
-                        meilleur = candidat;
-                        ajoutPossible = true;
-                    }
-                }
-
-                if (meilleur != null) {
-                    tournee.ajouterPoint(meilleur, distMin);
-                    charge += meilleur.getQuantiteDechets();
-                    nonVisites.remove(meilleur);
-                    courant = meilleur;
-                    System.out.printf("   + %s [%.1f t] --> %.2f km%n",
-                            meilleur.getId(), meilleur.getQuantiteDechets(), distMin);
-                }
+            int courant = iDepot;
+
+            System.out.printf("%n=== TOURNÉE N°%d ===%n", numeroTournee);
+
+            while (nonVisites > 0) {
+                double place = capaciteCamion - charge + 1e-9;
+                int meilleur = Dijkstra.plusProche(gc, courant, v -> aCollecter[v] && quantite[v] <= place,
+                        rang, distance);
+                if (meilleur < 0)
+                    break;
+                Sommet s = gc.sommet(meilleur);
+                tournee.ajouterPoint(s, distance[0]);
+                charge += quantite[meilleur];
+                aCollecter[meilleur] = false;
+                nonVisites--;
+                courant = meilleur;
+                System.out.printf("   + %s [%.1f t] --> %.2f km%n", s.getId(), s.getQuantiteDechets(), distance[0]);
             }
 
-            double retour = Dijkstra.calculerDistance(g, courant, depot);
+            // Aucun point restant n'est accessible ou ne tient dans un camion vide
+            if (courant == iDepot) {
+                System.out.println("   Points restants inaccessibles ou plus lourds qu'un camion.");
+                break;
+            }
+            numeroTournee++;
+
+            double retour = versDepot[courant];
             if (retour >= Double.MAX_VALUE) {
-                System.out.println("   IMPOSSIBLE DE REVENIR AU DÉPÔT DEPUIS " + courant.getId() + " !");
+                System.out.println("   IMPOSSIBLE DE REVENIR AU DÉPÔT DEPUIS " + gc.sommet(courant).getId() + " !");
                 System.out.println("   Le camion est bloqué - tournée incomplète.");
                 retour = 0.0;
             }
@@ -83,6 +110,9 @@ public class ApprochePointsCollecte {
             System.out.printf("   Retour dépôt : %.2f km%n", retour);
         }
 
+        // Post-optimisation de chaque tournée (mêmes points, meilleur ordre)
+        AmeliorationLocale.ameliorer(g, tournees);
+
         // Résumé final
         System.out.println("\n" + "=".repeat(80));
         System.out.println("                   RÉSULTATS FINAUX - THÈME 2");
@@ -94,9 +124,15 @@ public class ApprochePointsCollecte {
         }
         System.out.printf("%nCamions nécessaires       : %d%n", tournees.size());
         System.out.printf("Distance totale parcourue : %.2f km%n", totalKm);
-        System.out.printf("Points collectés          : %d / %d%n", points.size() - nonVisites.size(), points.size());
-        if (!nonVisites.isEmpty()) {
-            System.out.println("Points inaccessibles      : " + nonVisites.size());
+        System.out.printf("Points collectés          : %d / %d%n", aCollecterTotal - nonVisites, aCollecterTotal);
+        if (nonVisites > 0) {
+            System.out.println("Points inaccessibles      : " + nonVisites);
+        }
+        if (doublons > 0) {
+            System.out.println("Points en double ignorés  : " + doublons);
+        }
+        if (inconnus > 0) {
+            System.out.println("Points absents du plan    : " + inconnus);
         }
         System.out.println("=".repeat(80));
 
@@ -0,0 +1,149 @@
+package algorithmes;
+
+import java.util.*;
+
+/**
+ * Construction d'un circuit par la méthode de Christofides, sur une matrice
+ * de distances plate (dépôt en 0) :
+ * 1. arbre couvrant minimal (PrimDense) ;
+ * 2. couplage parfait de poids minimal entre les sommets de degré impair de
+ * l'arbre (CouplageParfait : exact, ou glouton amélioré s'ils sont très
+ * nombreux) ;
+ * 3. circuit eulérien du multigraphe arbre + couplage (Hierholzer) ;
+ * 4. raccourcis : chaque sommet n'est gardé qu'à sa première visite.
+ * Sur un graphe symétrique, avec le couplage exact, le circuit est au plus
+ * 1,5 fois l'optimum. Avec des sens uniques (HO2/HO3), on travaille sur la
+ * moyenne d(i,j)/2 + d(j,i)/2 puis on garde le meilleur sens de parcours :
+ * plus de garantie, mais un circuit toujours valide.
+ */
+public class Christofides {
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Indique si la matrice est symétrique (aucun sens unique pénalisant).
+     */
+    public static boolean estSymetrique(double[] d, int m) {
+        for (int i = 0; i < m; i++)
+            for (int j = i + 1; j < m; j++)
+                if (Math.abs(d[i * m + j] - d[j * m + i]) > EPSILON)
+                    return false;
+        return true;
+    }
+
+    /**
+     * Calcule un ordre de visite par Christofides.
+     *
+     * @param d Matrice plate m x m (orientée).
+     * @param m Nombre de sommets, dépôt en 0.
+     * @return L'ordre de visite (ordre[0] = 0), ou null si un sommet n'est pas
+     *         joignable dans les deux sens.
+     */
+    public static int[] circuit(double[] d, int m) {
+        if (m <= 3) {
+            int[] ordre = new int[m];
+            for (int i = 0; i < m; i++)
+                ordre[i] = i;
+            return meilleurSens(d, m, ordre);
+        }
+
+        // 1. Arbre couvrant minimal sur les poids symétrisés
+        PrimDense.Arbre arbre = PrimDense.calculer(d, m, 0, true, 0);
+        if (arbre.taille < m)
+            return null;
+        int[] parent = arbre.parent;
+
+        // 2. Couplage des sommets de degré impair
+        int[] degre = new int[m];
+        for (int v = 1; v < m; v++) {
+            degre[v]++;
+            degre[parent[v]]++;
+        }
+        int k = 0;
+        for (int v = 0; v < m; v++)
+            if ((degre[v] & 1) == 1)
+                k++;
+        int[] impairs = new int[k];
+        k = 0;
+        for (int v = 0; v < m; v++)
+            if ((degre[v] & 1) == 1)
+                impairs[k++] = v;
+        int[] partenaire;
+        if (k <= CouplageParfait.SEUIL_EXACT) {
+            double[] dImpairs = new double[k * k];
+            for (int i = 0; i < k; i++)
+                for (int j = 0; j < k; j++)
+                    dImpairs[i * k + j] = i == j ? 0.0 : poids(d, m, impairs[i], impairs[j]);
+            partenaire = CouplageParfait.exact(dImpairs, k);
+        } else {
+            // Glouton : candidats lus directement dans la matrice des points
+            partenaire = CouplageParfait.glouton(k,
+                    CouplageParfait.candidats(k, (i, j) -> poids(d, m, impairs[i], impairs[j])));
+        }
+        for (int i = 0; i < k; i++)
+            if (partenaire[i] < 0)
+                return null;
+
+        // 3. Multigraphe eulérien : arêtes de l'arbre + arêtes du couplage
+        int nbAretes = m - 1 + k / 2;
+        int[] a = new int[nbAretes], b = new int[nbAretes];
+        int e = 0;
+        for (int v = 1; v < m; v++) {
+            a[e] = v;
+            b[e++] = parent[v];
+        }
+        for (int i = 0; i < k; i++) {
+            if (i < partenaire[i]) {
+                a[e] = impairs[i];
+                b[e++] = impairs[partenaire[i]];
+            }
+        }
+        int[] euler = CircuitEulerien.circuitIndices(m, a, b, 0);
+        if (euler == null)
+            return null;
+
+        // 4. Raccourcis
+        int[] ordre = new int[m];
+        boolean[] vu = new boolean[m];
+        int p = 0;
+        for (int v : euler) {
+            if (!vu[v]) {
+                vu[v] = true;
+                ordre[p++] = v;
+            }
+        }
+        return meilleurSens(d, m, ordre);
+    }
+
+    /**
+     * Longueur orientée du circuit ordre[0] → ... → ordre[m-1] → ordre[0].
+     */
+    public static double longueur(double[] d, int m, int[] ordre) {
+        double total = 0.0;
+        for (int i = 0; i < m; i++) {
+            double x = d[ordre[i] * m + ordre[(i + 1) % m]];
+            if (x >= Double.MAX_VALUE / 2)
+                return Double.MAX_VALUE;
+            total += x;
+        }
+        return total;
+    }
+
+    private static double poids(double[] d, int m, int i, int j) {
+        double x = d[i * m + j], y = d[j * m + i];
+        if (x >= Double.MAX_VALUE / 2 || y >= Double.MAX_VALUE / 2)
+            return Double.MAX_VALUE;
+        return x / 2 + y / 2;
+    }
+
+    /**
+     * Garde le sens de parcours le plus court (utile avec des sens uniques).
+     */
+    private static int[] meilleurSens(double[] d, int m, int[] ordre) {
+        int[] inverse = new int[m];
+        inverse[0] = ordre[0];
+        for (int i = 1; i < m; i++)
+            inverse[i] = ordre[m - i];
+        return longueur(d, m, inverse) < longueur(d, m, ordre) ? inverse : ordre;
+    }
+}
@@ -4,53 +4,271 @@ import java.util.*;
 import modele.*;
 
 /**
- * Circuit eulérien .
- * Utilisé dans le Postier Chinois après duplication des arêtes.
+ * Circuit eulérien par l'algorithme de Hierholzer en O(E).
+ * Utilisé dans le Postier Chinois après duplication des arêtes, et par
+ * Christofides sur le multigraphe arbre + couplage.
+ * Chaque sommet garde un curseur sur ses arêtes incidentes et les arêtes
+ * empruntées sont marquées dans un bitset ; une pile raccorde les
+ * sous-circuits au circuit principal.
+ * Arêtes double sens (parcourues une fois, dans un sens au choix) et sens
+ * uniques peuvent être mélangés : dans un graphe mixte, les arêtes double
+ * sens sont d'abord orientées pour équilibrer entrées et sorties.
  */
 public class CircuitEulerien {
 
     /**
-     * Trouve un circuit eulérien .
-     * On travaille directement sur une copie des arêtes.
-     * 
+     * Trouve un circuit eulérien.
+     * La liste renvoyée est une vue sur le tableau d'indices : aucun objet
+     * n'est créé par étape du circuit.
+     *
      * @param g      Le graphe (doit être eulérien)
      * @param depart Sommet de départ
-     * @return Circuit eulérien sous forme de liste de sommets
+     * @return Circuit eulérien sous forme de liste de sommets (vide si le
+     *         graphe n'est pas eulérien ou si depart n'y figure pas)
      */
     public static List<Sommet> trouverCircuit(Graphe g, Sommet depart) {
-        List<Arete> aretesRestantes = new ArrayList<>(g.getAretes());
-        List<Sommet> circuit = new ArrayList<>();
+        GrapheCompact gc = g.compacter();
+        int[] circuit = trouverCircuitIndices(gc, depart);
+        return circuit == null ? new ArrayList<>() : enSommets(gc, circuit);
+    }
 
-        Sommet courant = depart;
+    /**
+     * Trouve un circuit eulérien sous forme d'indices de l'instantané compact.
+     *
+     * @param gc     L'instantané du graphe.
+     * @param depart Sommet de départ.
+     * @return Les indices des sommets du circuit (depart aux deux bouts), ou
+     *         null si le graphe n'est pas eulérien.
+     */
+    public static int[] trouverCircuitIndices(GrapheCompact gc, Sommet depart) {
+        int s = gc.indice(depart);
+        if (s < 0)
+            return null;
+        int nbAretes = gc.nombreAretes();
+        int[] a = new int[nbAretes], b = new int[nbAretes];
+        boolean[] orientee = new boolean[nbAretes];
+        for (int e = 0; e < nbAretes; e++) {
+            Arete arete = gc.arete(e);
+            a[e] = gc.indice(arete.getSource());
+            b[e] = gc.indice(arete.getDestination());
+            orientee[e] = !arete.estDoubleSens();
+        }
+        return circuitIndices(gc.nombreSommets(), a, b, orientee, s);
+    }
 
-        while (true) {
-            Arete areteTrouvee = null;
-            for (Iterator<Arete> it = aretesRestantes.iterator(); it.hasNext();) {
-                Arete a = it.next();
+    /**
+     * Circuit eulérien d'un multigraphe non orienté donné par ses arêtes
+     * (a[e], b[e]).
+     *
+     * @param n      Nombre de sommets (indices 0..n-1).
+     * @param a      Première extrémité de chaque arête.
+     * @param b      Seconde extrémité de chaque arête.
+     * @param depart Sommet de départ.
+     * @return La suite des sommets (E + 1 valeurs, depart aux deux bouts), ou
+     *         null si les arêtes ne forment pas un seul circuit.
+     */
+    public static int[] circuitIndices(int n, int[] a, int[] b, int depart) {
+        return circuitIndices(n, a, b, null, depart);
+    }
 
-                boolean departNormal = a.getSource().equals(courant);
-                boolean departDoubleSens = a.estDoubleSens() && a.getDestination().equals(courant);
+    /**
+     * Circuit eulérien d'un multigraphe mixte.
+     *
+     * @param n        Nombre de sommets (indices 0..n-1).
+     * @param a        Origine (ou première extrémité) de chaque arête.
+     * @param b        Destination (ou seconde extrémité) de chaque arête.
+     * @param orientee orientee[e] : arc a[e] → b[e] à sens unique (null :
+     *                 tout est double sens).
+     * @param depart   Sommet de départ.
+     * @return La suite des sommets (E + 1 valeurs, depart aux deux bouts), ou
+     *         null si les arêtes ne forment pas un seul circuit.
+     */
+    public static int[] circuitIndices(int n, int[] a, int[] b, boolean[] orientee, int depart) {
+        int nbAretes = a.length;
+        int nbOrientees = 0;
+        if (orientee != null)
+            for (boolean o : orientee)
+                if (o)
+                    nbOrientees++;
 
-                if (departNormal || departDoubleSens) {
-                    areteTrouvee = a;
-                    it.remove();
-                    break;
-                }
-            }
+        // Graphe mixte : chaque arête double sens reçoit un sens fixe
+        int[] origine = a, cible = b;
+        boolean libre = nbOrientees == 0;
+        if (!libre && nbOrientees < nbAretes) {
+            origine = a.clone();
+            cible = b.clone();
+            if (!orienter(n, origine, cible, orientee))
+                return null;
+        }
+
+        // Arêtes utilisables depuis chaque sommet, rangées de façon contiguë
+        int[] debut = new int[n + 1];
+        for (int e = 0; e < nbAretes; e++) {
+            debut[origine[e] + 1]++;
+            if (libre)
+                debut[cible[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++)
+            debut[v + 1] += debut[v];
+        int[] incidentes = new int[debut[n]];
+        int[] curseur = Arrays.copyOf(debut, n);
+        for (int e = 0; e < nbAretes; e++) {
+            incidentes[curseur[origine[e]]++] = e;
+            if (libre)
+                incidentes[curseur[cible[e]]++] = e;
+        }
+        System.arraycopy(debut, 0, curseur, 0, n);
 
-            if (areteTrouvee != null) {
-                Sommet suivant = areteTrouvee.getSource().equals(courant)
-                        ? areteTrouvee.getDestination()
-                        : areteTrouvee.getSource();
-                courant = suivant;
-                circuit.add(courant);
+        long[] utilisee = new long[(nbAretes + 63) >>> 6];
+        int[] pile = new int[nbAretes + 1];
+        int[] circuit = new int[nbAretes + 1];
+        int hauteur = 0, longueur = 0;
+        pile[hauteur++] = depart;
+        while (hauteur > 0) {
+            int v = pile[hauteur - 1];
+            while (curseur[v] < debut[v + 1] && estUtilisee(utilisee, incidentes[curseur[v]]))
+                curseur[v]++;
+            if (curseur[v] == debut[v + 1]) {
+                // Impasse : v est définitivement placé dans le circuit
+                circuit[longueur++] = v;
+                hauteur--;
             } else {
-                break;
+                int e = incidentes[curseur[v]++];
+                utilisee[e >>> 6] |= 1L << e;
+                pile[hauteur++] = origine[e] == v ? cible[e] : origine[e];
             }
         }
+        if (longueur != nbAretes + 1 || circuit[0] != depart)
+            return null;
+        // Les sommets sortent de la pile dans l'ordre inverse du parcours
+        for (int i = 0, j = longueur - 1; i < j; i++, j--) {
+            int x = circuit[i];
+            circuit[i] = circuit[j];
+            circuit[j] = x;
+        }
+        return circuit;
+    }
 
-        circuit.add(0, depart);
+    private static boolean estUtilisee(long[] bits, int e) {
+        return (bits[e >>> 6] & (1L << e)) != 0;
+    }
 
-        return circuit;
+    /**
+     * Oriente les arêtes double sens pour que chaque sommet ait autant
+     * d'entrées que de sorties : orientation arbitraire, puis inversion de
+     * chemins d'arêtes double sens d'un sommet en excès vers un sommet en
+     * déficit (recherche en largeur).
+     *
+     * @return false si aucune orientation équilibrée n'existe.
+     */
+    private static boolean orienter(int n, int[] origine, int[] cible, boolean[] orientee) {
+        int nbAretes = origine.length;
+        int[] excedent = new int[n]; // sorties - entrées
+        for (int e = 0; e < nbAretes; e++) {
+            excedent[origine[e]]++;
+            excedent[cible[e]]--;
+        }
+        for (int v = 0; v < n; v++)
+            if ((excedent[v] & 1) != 0)
+                return false;
+
+        // Arêtes double sens incidentes à chaque sommet
+        int[] debut = new int[n + 1];
+        for (int e = 0; e < nbAretes; e++) {
+            if (!orientee[e]) {
+                debut[origine[e] + 1]++;
+                debut[cible[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+            debut[v + 1] += debut[v];
+        int[] incidentes = new int[debut[n]];
+        int[] curseur = Arrays.copyOf(debut, n);
+        for (int e = 0; e < nbAretes; e++) {
+            if (!orientee[e]) {
+                incidentes[curseur[origine[e]]++] = e;
+                incidentes[curseur[cible[e]]++] = e;
+            }
+        }
+
+        int[] file = new int[n];
+        int[] arrivee = new int[n]; // arête par laquelle on atteint le sommet
+        // Numéro de la dernière recherche ayant atteint le sommet (pas de
+        // remise à zéro entre deux recherches)
+        int[] atteint = new int[n];
+        int recherche = 0;
+        for (int s = 0; s < n; s++) {
+            while (excedent[s] > 0) {
+                // Recherche d'un sommet en déficit le long des arêtes orientées
+                recherche++;
+                int tete = 0, queue = 0, t = -1;
+                file[queue++] = s;
+                atteint[s] = recherche;
+                while (tete < queue && t < 0) {
+                    int u = file[tete++];
+                    for (int k = debut[u]; k < debut[u + 1]; k++) {
+                        int e = incidentes[k];
+                        int w = cible[e];
+                        if (origine[e] != u || atteint[w] == recherche)
+                            continue;
+                        atteint[w] = recherche;
+                        arrivee[w] = e;
+                        if (excedent[w] < 0) {
+                            t = w;
+                            break;
+                        }
+                        file[queue++] = w;
+                    }
+                }
+                if (t < 0)
+                    return false;
+                // Inversion du chemin s → t : une sortie de moins pour s, une
+                // entrée de moins pour t
+                for (int v = t; v != s;) {
+                    int e = arrivee[v];
+                    int u = origine[e];
+                    origine[e] = v;
+                    cible[e] = u;
+                    v = u;
+                }
+                excedent[s] -= 2;
+                excedent[t] += 2;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Circuit d'indices vu comme une liste de sommets (sans copie).
+     *
+     * @param gc      L'instantané dont proviennent les indices.
+     * @param circuit Les indices du circuit.
+     * @return Une vue en lecture seule.
+     */
+    public static List<Sommet> enSommets(GrapheCompact gc, int[] circuit) {
+        return new VueCircuit(gc, circuit);
+    }
+
+    /**
+     * Vue en lecture seule d'un circuit d'indices sous forme de sommets.
+     */
+    private static final class VueCircuit extends AbstractList<Sommet> implements RandomAccess {
+        private final GrapheCompact gc;
+        private final int[] indices;
+
+        VueCircuit(GrapheCompact gc, int[] indices) {
+            this.gc = gc;
+            this.indices = indices;
+        }
+
+        @Override
+        public Sommet get(int i) {
+            return gc.sommet(indices[i]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
     }
-}
\ No newline at end of file
+}
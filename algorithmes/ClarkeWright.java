@@ -0,0 +1,296 @@
+package algorithmes;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import modele.*;
+
+/**
+ * Approche 3 du Thème 2 : algorithme des économies de Clarke et Wright.
+ * Chaque point part seul dans sa tournée (dépôt → point → dépôt) ; relier la
+ * fin i d'une tournée au début j d'une autre économise
+ * s(i, j) = d(i, dépôt) + d(dépôt, j) - d(i, j). Les fusions sont faites par
+ * économies décroissantes tant que la capacité du camion le permet.
+ * Les économies ne sont calculées que vers les k plus proches voisins de
+ * chaque point (un Dijkstra borné par point, en parallèle) : pas de matrice
+ * n x n. Une économie est codée dans un long (valeur puis numéro de paire)
+ * et l'ensemble est trié par Arrays.parallelSort.
+ * Avec des sens uniques, une tournée n'est jamais retournée : seules les
+ * fusions fin → début sont permises.
+ */
+public class ClarkeWright {
+
+    // Voisins retenus par point (toutes les paires en dessous)
+    public static final int NOMBRE_VOISINS = 40;
+
+    public static List<Tournee> resoudre(Graphe g, Sommet depot, List<Sommet> tousLesPoints,
+            double capaciteCamion, int nombreCamions) {
+        return resoudre(g, depot, tousLesPoints, capaciteCamion, nombreCamions, 0);
+    }
+
+    /**
+     * Construit les tournées par l'algorithme des économies.
+     *
+     * @param nombreCamions Camions disponibles (signalé si dépassé).
+     * @param parallelisme  Nombre de threads (0 = nombre de cœurs).
+     * @return Les tournées.
+     */
+    public static List<Tournee> resoudre(Graphe g, Sommet depot, List<Sommet> tousLesPoints,
+            double capaciteCamion, int nombreCamions, int parallelisme) {
+
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("   THÈME 2 : APPROCHE 3 - ÉCONOMIES DE CLARKE ET WRIGHT");
+        System.out.printf("   Capacité par camion : %.1f tonnes | Camions disponibles : %d%n",
+                capaciteCamion, nombreCamions);
+        System.out.println("=".repeat(80));
+
+        GrapheCompact gc = g.compacter();
+        int iDepot = gc.indice(depot);
+        List<Sommet> points = new ArrayList<>();
+        int ecartes = 0;
+        double[] versPoint = iDepot < 0 ? null : Dijkstra.distancesDepuis(gc, iDepot, null);
+        double[] versDepot = iDepot < 0 ? null : Dijkstra.distancesVers(gc, iDepot);
+        for (Sommet s : tousLesPoints) {
+            if (s.equals(depot) || s.getQuantiteDechets() <= 0.01)
+                continue;
+            int v = gc.indice(s);
+            // Inaccessible, sans retour possible ou plus lourd qu'un camion
+            if (v < 0 || iDepot < 0 || versPoint[v] >= Double.MAX_VALUE || versDepot[v] >= Double.MAX_VALUE
+                    || s.getQuantiteDechets() > capaciteCamion + 1e-9)
+                ecartes++;
+            else
+                points.add(s);
+        }
+        if (points.isEmpty()) {
+            System.out.println("Aucun point de collecte à traiter.");
+            return new ArrayList<>();
+        }
+
+        int n = points.size();
+        int[] idx = new int[n];
+        int[] position = new int[gc.nombreSommets()];
+        Arrays.fill(position, -1);
+        double[] quantite = new double[n], aller = new double[n], retour = new double[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = gc.indice(points.get(i));
+            position[idx[i]] = i;
+            quantite[i] = points.get(i).getQuantiteDechets();
+            aller[i] = versPoint[idx[i]];
+            retour[i] = versDepot[idx[i]];
+        }
+
+        // 1. k plus proches voisins de chaque point, en parallèle
+        long debut = System.currentTimeMillis();
+        int k = Math.min(NOMBRE_VOISINS, n - 1);
+        int[] voisin = new int[n * k];
+        double[] distance = new double[n * k];
+        int[] nbVoisins = new int[n];
+        if (k > 0) {
+            int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new TacheVoisins(gc, idx, position, k, voisin, distance, nbVoisins, 0, n));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        long dureeVoisins = System.currentTimeMillis() - debut;
+
+        // 2. Économies positives, codées valeur (bits du double, tronqués)
+        // puis numéro de paire i * k + t, et triées
+        debut = System.currentTimeMillis();
+        int bitsPaire = Math.max(1, 64 - Long.numberOfLeadingZeros(Math.max(1, (long) n * k - 1)));
+        long[] economies = new long[n * k];
+        int nbEconomies = 0;
+        for (int i = 0; i < n; i++) {
+            for (int t = 0; t < nbVoisins[i]; t++) {
+                int p = i * k + t;
+                double s = retour[i] + aller[voisin[p]] - distance[p];
+                if (s > 0) {
+                    long valeur = Double.doubleToLongBits(s) >>> bitsPaire;
+                    economies[nbEconomies++] = (valeur << bitsPaire) | p;
+                }
+            }
+        }
+        Arrays.parallelSort(economies, 0, nbEconomies);
+        long dureeTri = System.currentTimeMillis() - debut;
+
+        // 3. Fusions par économies décroissantes
+        debut = System.currentTimeMillis();
+        boolean symetrique = g.getAretes().stream().allMatch(Arete::estDoubleSens);
+        Routes r = new Routes(n, quantite);
+        long masque = (1L << bitsPaire) - 1;
+        int fusions = 0;
+        for (int q = nbEconomies - 1; q >= 0; q--) {
+            int p = (int) (economies[q] & masque);
+            if (r.fusionner(p / k, voisin[p], distance[p], capaciteCamion, symetrique))
+                fusions++;
+        }
+        long dureeFusion = System.currentTimeMillis() - debut;
+        System.out.printf("Voisins (k = %d) : %d ms | économies : %d, tri %d ms | fusions : %d en %d ms%n",
+                k, dureeVoisins, nbEconomies, dureeTri, fusions, dureeFusion);
+
+        // 4. Tournées, dans l'ordre de leur premier point
+        List<Tournee> tournees = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (r.precedent[i] >= 0)
+                continue;
+            Tournee t = new Tournee(tournees.size() + 1, depot);
+            double d = aller[i];
+            int dernier = i;
+            for (int x = i; x >= 0; x = r.suivant[x]) {
+                t.ajouterPoint(points.get(x), d);
+                d = r.lien[x];
+                dernier = x;
+            }
+            t.ajouterRetourDepot(retour[dernier]);
+            tournees.add(t);
+        }
+
+        // Post-optimisation de chaque tournée (mêmes points, meilleur ordre)
+        AmeliorationLocale.ameliorer(g, tournees);
+
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("                   RÉSULTATS FINAUX - CLARKE ET WRIGHT");
+        System.out.println("=".repeat(80));
+        double totalKm = 0.0;
+        for (Tournee t : tournees) {
+            t.afficher();
+            totalKm += t.getDistanceParcourue();
+        }
+        System.out.printf("%nCamions nécessaires       : %d / %d disponibles%n", tournees.size(), nombreCamions);
+        if (tournees.size() > nombreCamions)
+            System.out.printf("ATTENTION : flotte insuffisante (%d tournées pour %d camions)"
+                    + " --> plusieurs rotations par camion !%n", tournees.size(), nombreCamions);
+        System.out.printf("Distance totale parcourue : %.2f km%n", totalKm);
+        System.out.printf("Points collectés          : %d / %d%n", n, n + ecartes);
+        if (ecartes > 0)
+            System.out.println("Points écartés (inaccessibles ou plus lourds qu'un camion) : " + ecartes);
+        System.out.println("=".repeat(80));
+        return tournees;
+    }
+
+    /**
+     * Tournées en cours de fusion : listes doublement chaînées de points,
+     * regroupées par union-find (la racine porte début, fin et charge).
+     */
+    private static final class Routes {
+        final int[] suivant, precedent, parent, tete, queue;
+        final double[] lien; // distance vers le point suivant
+        final double[] charge;
+
+        Routes(int n, double[] quantite) {
+            suivant = new int[n];
+            precedent = new int[n];
+            parent = new int[n];
+            tete = new int[n];
+            queue = new int[n];
+            lien = new double[n];
+            charge = quantite.clone();
+            Arrays.fill(suivant, -1);
+            Arrays.fill(precedent, -1);
+            for (int i = 0; i < n; i++)
+                parent[i] = tete[i] = queue[i] = i;
+        }
+
+        int racine(int v) {
+            while (parent[v] != v) {
+                parent[v] = parent[parent[v]];
+                v = parent[v];
+            }
+            return v;
+        }
+
+        /**
+         * Relie i à j (i en fin d'une tournée, j en début d'une autre) si la
+         * charge le permet ; sur un réseau symétrique, une tournée peut être
+         * retournée pour amener i ou j à la bonne extrémité.
+         */
+        boolean fusionner(int i, int j, double dij, double capacite, boolean symetrique) {
+            int ri = racine(i), rj = racine(j);
+            if (ri == rj || charge[ri] + charge[rj] > capacite + 1e-9)
+                return false;
+            if (queue[ri] != i) {
+                if (!symetrique || tete[ri] != i)
+                    return false;
+                retourner(ri);
+            }
+            if (tete[rj] != j) {
+                if (!symetrique || queue[rj] != j)
+                    return false;
+                retourner(rj);
+            }
+            suivant[i] = j;
+            precedent[j] = i;
+            lien[i] = dij;
+            parent[rj] = ri;
+            queue[ri] = queue[rj];
+            charge[ri] += charge[rj];
+            return true;
+        }
+
+        /**
+         * Inverse le sens d'une tournée (distances symétriques).
+         */
+        void retourner(int r) {
+            double lienPrecedent = 0.0;
+            for (int x = tete[r]; x >= 0;) {
+                int ancienSuivant = suivant[x];
+                double ancienLien = lien[x];
+                lien[x] = lienPrecedent;
+                lienPrecedent = ancienLien;
+                suivant[x] = precedent[x];
+                precedent[x] = ancienSuivant;
+                x = ancienSuivant;
+            }
+            int t = tete[r];
+            tete[r] = queue[r];
+            queue[r] = t;
+        }
+    }
+
+    /**
+     * Recherche des voisins des points [debut, fin), découpée récursivement.
+     */
+    private static final class TacheVoisins extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GrapheCompact gc;
+        private final int[] idx, position, voisin, nbVoisins;
+        private final double[] distance;
+        private final int k, debut, fin;
+
+        TacheVoisins(GrapheCompact gc, int[] idx, int[] position, int k, int[] voisin, double[] distance,
+                int[] nbVoisins, int debut, int fin) {
+            this.gc = gc;
+            this.idx = idx;
+            this.position = position;
+            this.k = k;
+            this.voisin = voisin;
+            this.distance = distance;
+            this.nbVoisins = nbVoisins;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut > 16) {
+                int milieu = (debut + fin) >>> 1;
+                invokeAll(new TacheVoisins(gc, idx, position, k, voisin, distance, nbVoisins, debut, milieu),
+                        new TacheVoisins(gc, idx, position, k, voisin, distance, nbVoisins, milieu, fin));
+                return;
+            }
+            int[] trouves = new int[k];
+            double[] d = new double[k];
+            for (int i = debut; i < fin; i++) {
+                int nb = Dijkstra.kPlusProches(gc, idx[i], v -> position[v] >= 0, k, trouves, d);
+                for (int t = 0; t < nb; t++) {
+                    voisin[i * k + t] = position[trouves[t]];
+                    distance[i * k + t] = d[t];
+                }
+                nbVoisins[i] = nb;
+            }
+        }
+    }
+}
@@ -0,0 +1,885 @@
+package algorithmes;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Couplage parfait de poids minimal sur un graphe complet donné par sa
+ * matrice de distances (k x k, k pair) : appariement des sommets impairs du
+ * Postier Chinois et de Christofides.
+ * Deux modes :
+ * - exact : algorithme d'Edmonds (fleurs, variables duales), en O(k³) ;
+ * - glouton : paires les plus proches d'abord parmi les K plus proches
+ * voisins, puis échanges 2 à 2 tant qu'ils raccourcissent ; pour les très
+ * grands ensembles, à partir de listes de voisins candidats (Candidats),
+ * sans matrice k x k.
+ * La matrice est lue dans le triangle supérieur (d[i][j], i < j) ; les
+ * paires à Double.MAX_VALUE sont interdites.
+ */
+public class CouplageParfait {
+
+    // Au-delà, le mode exact devient trop long : glouton + améliorations
+    public static final int SEUIL_EXACT = 500;
+
+    // Précision des poids entiers du mode exact (1e-6 km)
+    private static final double ECHELLE = 1e6;
+    // Voisins candidats par sommet pour le mode glouton
+    private static final int K_VOISINS = 25;
+    private static final int MAX_PASSES_ECHANGE = 50;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Couplage exact si k <= SEUIL_EXACT, glouton sinon.
+     *
+     * @param d Matrice plate k x k.
+     * @param k Nombre de sommets (pair).
+     * @return partenaire[i], -1 si i n'a pas pu être couplé.
+     */
+    public static int[] calculer(double[] d, int k) {
+        return k <= SEUIL_EXACT ? exact(d, k) : glouton(d, k);
+    }
+
+    /**
+     * Poids total d'un couplage (Double.MAX_VALUE s'il est incomplet).
+     */
+    public static double poids(double[] d, int k, int[] partenaire) {
+        double total = 0.0;
+        for (int i = 0; i < k; i++) {
+            int j = partenaire[i];
+            if (j < 0)
+                return Double.MAX_VALUE;
+            if (i < j)
+                total += d[i * k + j];
+        }
+        return total;
+    }
+
+    private static double poids(double[] d, int k, int i, int j) {
+        return i < j ? d[i * k + j] : d[j * k + i];
+    }
+
+    // ------------------------------------------------------------------
+    // Mode glouton
+    // ------------------------------------------------------------------
+
+    /**
+     * Voisins candidats d'un sommet pour le mode glouton. Permet de coupler de
+     * très grands ensembles sans matrice k x k : Dijkstra borné sur le graphe
+     * (Dijkstra.kPlusProches), ligne d'une matrice déjà calculée...
+     */
+    public interface Candidats {
+        /**
+         * Les max sommets acceptés les plus proches de i (i exclu).
+         *
+         * @param voisins Reçoit les sommets, du plus proche au plus lointain.
+         * @param poids   Reçoit leurs poids.
+         * @return Le nombre de sommets trouvés (0 si aucun n'est joignable).
+         */
+        int plusProches(int i, IntPredicate accepte, int max, int[] voisins, double[] poids);
+
+        /**
+         * Poids de la paire (i, j), Double.MAX_VALUE si elle est interdite.
+         */
+        double poids(int i, int j);
+    }
+
+    /**
+     * Poids d'une paire (i, j), Double.MAX_VALUE si elle est interdite.
+     */
+    public interface PoidsPaire {
+        double poids(int i, int j);
+    }
+
+    /**
+     * Candidats lus dans toute la ligne de chaque sommet : pour des poids
+     * déjà calculés (matrice), chaque liste coûte O(k).
+     */
+    public static Candidats candidats(int k, PoidsPaire w) {
+        return new Candidats() {
+            @Override
+            public int plusProches(int i, IntPredicate accepte, int max, int[] voisins, double[] poids) {
+                return CouplageParfait.plusProches(k, i, j -> w.poids(i, j), accepte, max, voisins, poids);
+            }
+
+            @Override
+            public double poids(int i, int j) {
+                return w.poids(i, j);
+            }
+        };
+    }
+
+    /**
+     * Couplage glouton sur la matrice : candidats lus dans ses lignes.
+     */
+    public static int[] glouton(double[] d, int k) {
+        return glouton(k, candidats(k, (i, j) -> poids(d, k, i, j)));
+    }
+
+    /**
+     * Couplage glouton sur les K plus proches voisins de chaque sommet,
+     * complété au besoin, puis amélioré par échanges (a,b)(c,e) → (a,c)(b,e)
+     * entre paires candidates. Mémoire en O(k.K) : seuls les voisins
+     * candidats et leurs poids sont conservés.
+     *
+     * @param k         Nombre de sommets (pair).
+     * @param candidats Les voisins candidats de chaque sommet.
+     * @return partenaire[i], -1 si i n'a pas pu être couplé.
+     */
+    public static int[] glouton(int k, Candidats candidats) {
+        int[] partenaire = new int[k];
+        Arrays.fill(partenaire, -1);
+        if (k == 0)
+            return partenaire;
+
+        // Voisins candidats, du plus proche au plus loin
+        int kv = Math.min(K_VOISINS, k - 1);
+        int[][] voisins = new int[k][];
+        double[][] poidsVoisins = new double[k][];
+        int[] tamponV = new int[kv];
+        double[] tamponP = new double[kv];
+        for (int i = 0; i < k; i++) {
+            int nv = candidats.plusProches(i, j -> true, kv, tamponV, tamponP);
+            voisins[i] = Arrays.copyOf(tamponV, nv);
+            poidsVoisins[i] = Arrays.copyOf(tamponP, nv);
+        }
+
+        // Paires candidates triées par poids : (bits du float << 32) | indice
+        int total = 0;
+        for (int i = 0; i < k; i++)
+            total += voisins[i].length;
+        int[] pa = new int[total], pb = new int[total];
+        long[] cles = new long[total];
+        int nb = 0;
+        for (int i = 0; i < k; i++) {
+            for (int c = 0; c < voisins[i].length; c++) {
+                pa[nb] = i;
+                pb[nb] = voisins[i][c];
+                float f = (float) Math.min(poidsVoisins[i][c], Float.MAX_VALUE);
+                cles[nb] = ((long) Float.floatToIntBits(f) << 32) | nb;
+                nb++;
+            }
+        }
+        Arrays.parallelSort(cles, 0, nb);
+        double[] poidsPaire = new double[k];
+        for (int c = 0; c < nb; c++) {
+            int idx = (int) cles[c];
+            int i = pa[idx], j = pb[idx];
+            if (partenaire[i] < 0 && partenaire[j] < 0) {
+                partenaire[i] = j;
+                partenaire[j] = i;
+                poidsPaire[i] = poidsPaire[j] = poidsCandidat(voisins, poidsVoisins, i, j);
+            }
+        }
+
+        // Sommets restés seuls : couplés au plus proche libre
+        int[] libre = new int[1];
+        double[] poidsLibre = new double[1];
+        for (int i = 0; i < k; i++) {
+            if (partenaire[i] >= 0)
+                continue;
+            if (candidats.plusProches(i, j -> partenaire[j] < 0, 1, libre, poidsLibre) == 1) {
+                int j = libre[0];
+                partenaire[i] = j;
+                partenaire[j] = i;
+                poidsPaire[i] = poidsPaire[j] = poidsLibre[0];
+            }
+        }
+
+        // Échanges 2 à 2 guidés par les voisins candidats ; le poids de la
+        // nouvelle paire (b,e) n'est demandé que si l'échange peut encore
+        // raccourcir
+        boolean ameliore = true;
+        for (int passe = 0; ameliore && passe < MAX_PASSES_ECHANGE; passe++) {
+            ameliore = false;
+            for (int i = 0; i < k; i++) {
+                for (int q = 0; q < voisins[i].length; q++) {
+                    int c = voisins[i][q];
+                    int b = partenaire[i], e = partenaire[c];
+                    if (c == b || b < 0 || e < 0)
+                        continue;
+                    double avant = somme(poidsPaire[i], poidsPaire[c]);
+                    if (poidsVoisins[i][q] >= avant - EPSILON)
+                        continue;
+                    double be = poidsCandidat(voisins, poidsVoisins, b, e);
+                    if (be >= Double.MAX_VALUE)
+                        be = candidats.poids(b, e);
+                    double apres = somme(poidsVoisins[i][q], be);
+                    if (apres < avant - EPSILON) {
+                        partenaire[i] = c;
+                        partenaire[c] = i;
+                        partenaire[b] = e;
+                        partenaire[e] = b;
+                        poidsPaire[i] = poidsPaire[c] = poidsVoisins[i][q];
+                        poidsPaire[b] = poidsPaire[e] = be;
+                        ameliore = true;
+                    }
+                }
+            }
+        }
+        return partenaire;
+    }
+
+    /**
+     * Poids de la paire (i, j) si l'un est candidat de l'autre,
+     * Double.MAX_VALUE sinon.
+     */
+    private static double poidsCandidat(int[][] voisins, double[][] poidsVoisins, int i, int j) {
+        for (int q = 0; q < voisins[i].length; q++)
+            if (voisins[i][q] == j)
+                return poidsVoisins[i][q];
+        for (int q = 0; q < voisins[j].length; q++)
+            if (voisins[j][q] == i)
+                return poidsVoisins[j][q];
+        return Double.MAX_VALUE;
+    }
+
+    private static double somme(double x, double y) {
+        return x >= Double.MAX_VALUE || y >= Double.MAX_VALUE ? Double.MAX_VALUE : x + y;
+    }
+
+    /**
+     * Les max indices acceptés de plus petit poids parmi 0..k-1 (i exclu,
+     * poids infinis ignorés), par insertion dans un tableau trié.
+     *
+     * @param ligne Poids de la paire (i, j).
+     * @return Le nombre d'indices trouvés.
+     */
+    private static int plusProches(int k, int i, IntToDoubleFunction ligne, IntPredicate accepte, int max,
+            int[] voisins, double[] poids) {
+        int taille = 0;
+        for (int j = 0; j < k; j++) {
+            if (j == i || !accepte.test(j))
+                continue;
+            double w = ligne.applyAsDouble(j);
+            if (w >= Double.MAX_VALUE || (taille == max && w >= poids[max - 1]))
+                continue;
+            int p = taille < max ? taille++ : max - 1;
+            while (p > 0 && poids[p - 1] > w) {
+                voisins[p] = voisins[p - 1];
+                poids[p] = poids[p - 1];
+                p--;
+            }
+            voisins[p] = j;
+            poids[p] = w;
+        }
+        return taille;
+    }
+
+    // ------------------------------------------------------------------
+    // Mode exact : Edmonds
+    // ------------------------------------------------------------------
+
+    /**
+     * Couplage parfait de poids minimal par l'algorithme d'Edmonds.
+     * On cherche un couplage de cardinalité maximale et de poids maximal pour
+     * les poids entiers C - d (C > max d) : parmi les couplages parfaits, il
+     * minimise la somme des distances.
+     */
+    public static int[] exact(double[] d, int k) {
+        double max = 0.0;
+        int nbAretes = 0;
+        for (int i = 0; i < k; i++)
+            for (int j = i + 1; j < k; j++)
+                if (d[i * k + j] < Double.MAX_VALUE / 2) {
+                    max = Math.max(max, d[i * k + j]);
+                    nbAretes++;
+                }
+        long c = Math.round(max * ECHELLE) + 1;
+        int[] a = new int[nbAretes], b = new int[nbAretes];
+        long[] w = new long[nbAretes];
+        int e = 0;
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++) {
+                if (d[i * k + j] < Double.MAX_VALUE / 2) {
+                    a[e] = i;
+                    b[e] = j;
+                    // Poids doublés : les duales restent entières
+                    w[e++] = 2 * (c - Math.round(d[i * k + j] * ECHELLE));
+                }
+            }
+        }
+        return new Edmonds(k, a, b, w).resoudre();
+    }
+
+    /**
+     * Couplage de poids maximal (cardinalité maximale d'abord) dans un graphe
+     * général : croissance de forêts alternées, contraction des cycles impairs
+     * en fleurs et ajustement des variables duales.
+     * Les sommets sont 0..n-1, les fleurs n..2n-1 ; l'extrémité p d'une arête
+     * e vaut 2e (côté a) ou 2e + 1 (côté b), et p ^ 1 désigne l'autre bout.
+     */
+    private static final class Edmonds {
+        private final int n, nbAretes;
+        private final int[] a, b;
+        private final long[] w;
+        private final int[] extremite;
+        private final int[] debutVoisins, voisins; // extrémités opposées, par sommet
+
+        private final int[] mate;
+        private final int[] etiquette; // 0 libre, 1 pair (S), 2 impair (T), 5 marque temporaire
+        private final int[] finEtiquette;
+        private final int[] dansFleur;
+        private final int[] parentFleur;
+        private final int[][] enfants;
+        private final int[] baseFleur;
+        private final int[][] extremitesFleur;
+        private final int[] meilleureArete;
+        private final int[][] meilleuresAretesFleur;
+        private final int[] fleursLibres;
+        private int nbFleursLibres;
+        private final long[] duale;
+        private final boolean[] autorisee;
+        private int[] file;
+        private int tailleFile;
+        private int[] feuilles = new int[16];
+
+        Edmonds(int n, int[] a, int[] b, long[] w) {
+            this.n = n;
+            this.nbAretes = a.length;
+            this.a = a;
+            this.b = b;
+            this.w = w;
+            extremite = new int[2 * nbAretes];
+            for (int e = 0; e < nbAretes; e++) {
+                extremite[2 * e] = a[e];
+                extremite[2 * e + 1] = b[e];
+            }
+            debutVoisins = new int[n + 1];
+            for (int e = 0; e < nbAretes; e++) {
+                debutVoisins[a[e] + 1]++;
+                debutVoisins[b[e] + 1]++;
+            }
+            for (int v = 0; v < n; v++)
+                debutVoisins[v + 1] += debutVoisins[v];
+            voisins = new int[2 * nbAretes];
+            int[] curseur = Arrays.copyOf(debutVoisins, n);
+            for (int e = 0; e < nbAretes; e++) {
+                voisins[curseur[a[e]]++] = 2 * e + 1;
+                voisins[curseur[b[e]]++] = 2 * e;
+            }
+
+            long maxPoids = 0;
+            for (long x : w)
+                maxPoids = Math.max(maxPoids, x);
+            mate = new int[n];
+            Arrays.fill(mate, -1);
+            etiquette = new int[2 * n];
+            finEtiquette = new int[2 * n];
+            Arrays.fill(finEtiquette, -1);
+            dansFleur = new int[n];
+            for (int v = 0; v < n; v++)
+                dansFleur[v] = v;
+            parentFleur = new int[2 * n];
+            Arrays.fill(parentFleur, -1);
+            enfants = new int[2 * n][];
+            baseFleur = new int[2 * n];
+            for (int v = 0; v < 2 * n; v++)
+                baseFleur[v] = v < n ? v : -1;
+            extremitesFleur = new int[2 * n][];
+            meilleureArete = new int[2 * n];
+            Arrays.fill(meilleureArete, -1);
+            meilleuresAretesFleur = new int[2 * n][];
+            fleursLibres = new int[n];
+            for (int i = 0; i < n; i++)
+                fleursLibres[nbFleursLibres++] = 2 * n - 1 - i;
+            duale = new long[2 * n];
+            for (int v = 0; v < n; v++)
+                duale[v] = maxPoids;
+            autorisee = new boolean[nbAretes];
+            file = new int[Math.max(1, n)];
+        }
+
+        private long ecart(int e) {
+            return duale[a[e]] + duale[b[e]] - 2 * w[e];
+        }
+
+        /**
+         * Sommets (feuilles) contenus dans la fleur f, dans feuilles[0..k).
+         */
+        private int feuilles(int f) {
+            if (f < n) {
+                feuilles[0] = f;
+                return 1;
+            }
+            int taille = 0;
+            int[] pile = new int[16];
+            int hauteur = 0;
+            pile[hauteur++] = f;
+            while (hauteur > 0) {
+                int x = pile[--hauteur];
+                if (x < n) {
+                    if (taille == feuilles.length)
+                        feuilles = Arrays.copyOf(feuilles, 2 * taille);
+                    feuilles[taille++] = x;
+                } else {
+                    int[] ch = enfants[x];
+                    for (int i = ch.length - 1; i >= 0; i--) {
+                        if (hauteur == pile.length)
+                            pile = Arrays.copyOf(pile, 2 * hauteur);
+                        pile[hauteur++] = ch[i];
+                    }
+                }
+            }
+            return taille;
+        }
+
+        private void enfiler(int v) {
+            if (tailleFile == file.length)
+                file = Arrays.copyOf(file, 2 * tailleFile);
+            file[tailleFile++] = v;
+        }
+
+        private void etiqueter(int v, int t, int p) {
+            while (true) {
+                int f = dansFleur[v];
+                etiquette[v] = etiquette[f] = t;
+                finEtiquette[v] = finEtiquette[f] = p;
+                meilleureArete[v] = meilleureArete[f] = -1;
+                if (t == 1) {
+                    int k = feuilles(f);
+                    for (int i = 0; i < k; i++)
+                        enfiler(feuilles[i]);
+                    return;
+                }
+                // Étiquette T : le partenaire de la base devient S
+                int base = baseFleur[f];
+                v = extremite[mate[base]];
+                t = 1;
+                p = mate[base] ^ 1;
+            }
+        }
+
+        /**
+         * Remonte les deux chemins alternés depuis v et w : renvoie la base de
+         * la nouvelle fleur, ou -1 si les racines diffèrent (chemin
+         * augmentant).
+         */
+        private int chercherFleur(int v, int x) {
+            int[] chemin = new int[8];
+            int taille = 0;
+            int base = -1;
+            while (v != -1 || x != -1) {
+                int f = dansFleur[v];
+                if ((etiquette[f] & 4) != 0) {
+                    base = baseFleur[f];
+                    break;
+                }
+                if (taille == chemin.length)
+                    chemin = Arrays.copyOf(chemin, 2 * taille);
+                chemin[taille++] = f;
+                etiquette[f] = 5;
+                if (finEtiquette[f] == -1) {
+                    v = -1;
+                } else {
+                    v = extremite[finEtiquette[f]];
+                    f = dansFleur[v];
+                    v = extremite[finEtiquette[f]];
+                }
+                if (x != -1) {
+                    int tmp = v;
+                    v = x;
+                    x = tmp;
+                }
+            }
+            for (int i = 0; i < taille; i++)
+                etiquette[chemin[i]] = 1;
+            return base;
+        }
+
+        private void ajouterFleur(int base, int e) {
+            int v = a[e], x = b[e];
+            int bb = dansFleur[base], bv = dansFleur[v], bw = dansFleur[x];
+            int f = fleursLibres[--nbFleursLibres];
+            baseFleur[f] = base;
+            parentFleur[f] = -1;
+            parentFleur[bb] = f;
+
+            ListeEntiers chemin = new ListeEntiers(), extr = new ListeEntiers();
+            while (bv != bb) {
+                parentFleur[bv] = f;
+                chemin.ajouter(bv);
+                extr.ajouter(finEtiquette[bv]);
+                v = extremite[finEtiquette[bv]];
+                bv = dansFleur[v];
+            }
+            chemin.ajouter(bb);
+            chemin.inverser();
+            extr.inverser();
+            extr.ajouter(2 * e);
+            while (bw != bb) {
+                parentFleur[bw] = f;
+                chemin.ajouter(bw);
+                extr.ajouter(finEtiquette[bw] ^ 1);
+                x = extremite[finEtiquette[bw]];
+                bw = dansFleur[x];
+            }
+            enfants[f] = chemin.tableau();
+            extremitesFleur[f] = extr.tableau();
+            etiquette[f] = 1;
+            finEtiquette[f] = finEtiquette[bb];
+            duale[f] = 0;
+            int k = feuilles(f);
+            for (int i = 0; i < k; i++) {
+                int y = feuilles[i];
+                if (etiquette[dansFleur[y]] == 2)
+                    enfiler(y);
+                dansFleur[y] = f;
+            }
+
+            // Meilleures arêtes de la fleur vers les autres fleurs S
+            int[] meilleureVers = new int[2 * n];
+            Arrays.fill(meilleureVers, -1);
+            for (int sf : enfants[f]) {
+                if (meilleuresAretesFleur[sf] == null) {
+                    int kk = feuilles(sf);
+                    int[] ff = Arrays.copyOf(feuilles, kk);
+                    for (int y : ff)
+                        for (int q = debutVoisins[y]; q < debutVoisins[y + 1]; q++)
+                            retenir(voisins[q] >> 1, f, meilleureVers);
+                } else {
+                    for (int ee : meilleuresAretesFleur[sf])
+                        retenir(ee, f, meilleureVers);
+                }
+                meilleuresAretesFleur[sf] = null;
+                meilleureArete[sf] = -1;
+            }
+            ListeEntiers liste = new ListeEntiers();
+            for (int ee : meilleureVers)
+                if (ee != -1)
+                    liste.ajouter(ee);
+            meilleuresAretesFleur[f] = liste.tableau();
+            meilleureArete[f] = -1;
+            for (int ee : meilleuresAretesFleur[f])
+                if (meilleureArete[f] == -1 || ecart(ee) < ecart(meilleureArete[f]))
+                    meilleureArete[f] = ee;
+        }
+
+        private void retenir(int e, int f, int[] meilleureVers) {
+            int j = dansFleur[b[e]] == f ? a[e] : b[e];
+            int bj = dansFleur[j];
+            if (bj != f && etiquette[bj] == 1
+                    && (meilleureVers[bj] == -1 || ecart(e) < ecart(meilleureVers[bj])))
+                meilleureVers[bj] = e;
+        }
+
+        private static int indice(int j, int taille) {
+            return ((j % taille) + taille) % taille;
+        }
+
+        private int position(int[] t, int x) {
+            for (int i = 0; i < t.length; i++)
+                if (t[i] == x)
+                    return i;
+            return -1;
+        }
+
+        private void developperFleur(int f, boolean finEtape) {
+            for (int s : enfants[f]) {
+                parentFleur[s] = -1;
+                if (s < n) {
+                    dansFleur[s] = s;
+                } else if (finEtape && duale[s] == 0) {
+                    developperFleur(s, finEtape);
+                } else {
+                    int k = feuilles(s);
+                    for (int i = 0; i < k; i++)
+                        dansFleur[feuilles[i]] = s;
+                }
+            }
+            if (!finEtape && etiquette[f] == 2) {
+                // La fleur T éclate : on ré-étiquette le chemin pair de
+                // l'entrée jusqu'à la base
+                int[] ch = enfants[f], ex = extremitesFleur[f];
+                int L = ch.length;
+                int entree = dansFleur[extremite[finEtiquette[f] ^ 1]];
+                int j = position(ch, entree);
+                int pas, astuce;
+                if ((j & 1) != 0) {
+                    j -= L;
+                    pas = 1;
+                    astuce = 0;
+                } else {
+                    pas = -1;
+                    astuce = 1;
+                }
+                int p = finEtiquette[f];
+                while (j != 0) {
+                    etiquette[extremite[p ^ 1]] = 0;
+                    etiquette[extremite[ex[indice(j - astuce, L)] ^ astuce ^ 1]] = 0;
+                    etiqueter(extremite[p ^ 1], 2, p);
+                    autorisee[ex[indice(j - astuce, L)] >> 1] = true;
+                    j += pas;
+                    p = ex[indice(j - astuce, L)] ^ astuce;
+                    autorisee[p >> 1] = true;
+                    j += pas;
+                }
+                int bv = ch[indice(j, L)];
+                etiquette[extremite[p ^ 1]] = etiquette[bv] = 2;
+                finEtiquette[extremite[p ^ 1]] = finEtiquette[bv] = p;
+                meilleureArete[bv] = -1;
+                j += pas;
+                while (ch[indice(j, L)] != entree) {
+                    bv = ch[indice(j, L)];
+                    if (etiquette[bv] == 1) {
+                        j += pas;
+                        continue;
+                    }
+                    int k = feuilles(bv);
+                    int v = -1;
+                    for (int i = 0; i < k; i++) {
+                        v = feuilles[i];
+                        if (etiquette[v] != 0)
+                            break;
+                    }
+                    if (v >= 0 && etiquette[v] != 0) {
+                        etiquette[v] = 0;
+                        etiquette[extremite[mate[baseFleur[bv]]]] = 0;
+                        etiqueter(v, 2, finEtiquette[v]);
+                    }
+                    j += pas;
+                }
+            }
+            etiquette[f] = finEtiquette[f] = -1;
+            enfants[f] = extremitesFleur[f] = null;
+            baseFleur[f] = -1;
+            meilleuresAretesFleur[f] = null;
+            meilleureArete[f] = -1;
+            fleursLibres[nbFleursLibres++] = f;
+        }
+
+        private void augmenterFleur(int f, int v) {
+            int t = v;
+            while (parentFleur[t] != f)
+                t = parentFleur[t];
+            if (t >= n)
+                augmenterFleur(t, v);
+            int[] ch = enfants[f], ex = extremitesFleur[f];
+            int L = ch.length;
+            int i = position(ch, t);
+            int j = i;
+            int pas, astuce;
+            if ((i & 1) != 0) {
+                j -= L;
+                pas = 1;
+                astuce = 0;
+            } else {
+                pas = -1;
+                astuce = 1;
+            }
+            while (j != 0) {
+                j += pas;
+                t = ch[indice(j, L)];
+                int p = ex[indice(j - astuce, L)] ^ astuce;
+                if (t >= n)
+                    augmenterFleur(t, extremite[p]);
+                j += pas;
+                t = ch[indice(j, L)];
+                if (t >= n)
+                    augmenterFleur(t, extremite[p ^ 1]);
+                mate[extremite[p]] = p ^ 1;
+                mate[extremite[p ^ 1]] = p;
+            }
+            // Rotation : t devient le premier enfant (nouvelle base)
+            int[] nch = new int[L], nex = new int[L];
+            for (int q = 0; q < L; q++) {
+                nch[q] = ch[(q + i) % L];
+                nex[q] = ex[(q + i) % L];
+            }
+            enfants[f] = nch;
+            extremitesFleur[f] = nex;
+            baseFleur[f] = baseFleur[nch[0]];
+        }
+
+        private void augmenterCouplage(int e) {
+            int[][] departs = { { a[e], 2 * e + 1 }, { b[e], 2 * e } };
+            for (int[] dp : departs) {
+                int s = dp[0], p = dp[1];
+                while (true) {
+                    int bs = dansFleur[s];
+                    if (bs >= n)
+                        augmenterFleur(bs, s);
+                    mate[s] = p;
+                    if (finEtiquette[bs] == -1)
+                        break;
+                    int t = extremite[finEtiquette[bs]];
+                    int bt = dansFleur[t];
+                    s = extremite[finEtiquette[bt]];
+                    int j = extremite[finEtiquette[bt] ^ 1];
+                    if (bt >= n)
+                        augmenterFleur(bt, j);
+                    mate[j] = finEtiquette[bt];
+                    p = finEtiquette[bt] ^ 1;
+                }
+            }
+        }
+
+        int[] resoudre() {
+            for (int etape = 0; etape < n; etape++) {
+                Arrays.fill(etiquette, 0);
+                Arrays.fill(meilleureArete, -1);
+                for (int f = n; f < 2 * n; f++)
+                    meilleuresAretesFleur[f] = null;
+                Arrays.fill(autorisee, false);
+                tailleFile = 0;
+                for (int v = 0; v < n; v++)
+                    if (mate[v] == -1 && etiquette[dansFleur[v]] == 0)
+                        etiqueter(v, 1, -1);
+
+                boolean augmente = false;
+                while (true) {
+                    while (tailleFile > 0 && !augmente) {
+                        int v = file[--tailleFile];
+                        for (int q = debutVoisins[v]; q < debutVoisins[v + 1]; q++) {
+                            int p = voisins[q];
+                            int e = p >> 1;
+                            int x = extremite[p];
+                            if (dansFleur[v] == dansFleur[x])
+                                continue;
+                            long ecartE = 0;
+                            if (!autorisee[e]) {
+                                ecartE = ecart(e);
+                                if (ecartE <= 0)
+                                    autorisee[e] = true;
+                            }
+                            if (autorisee[e]) {
+                                if (etiquette[dansFleur[x]] == 0) {
+                                    etiqueter(x, 2, p ^ 1);
+                                } else if (etiquette[dansFleur[x]] == 1) {
+                                    int base = chercherFleur(v, x);
+                                    if (base >= 0) {
+                                        ajouterFleur(base, e);
+                                    } else {
+                                        augmenterCouplage(e);
+                                        augmente = true;
+                                        break;
+                                    }
+                                } else if (etiquette[x] == 0) {
+                                    etiquette[x] = 2;
+                                    finEtiquette[x] = p ^ 1;
+                                }
+                            } else if (etiquette[dansFleur[x]] == 1) {
+                                int f = dansFleur[v];
+                                if (meilleureArete[f] == -1 || ecartE < ecart(meilleureArete[f]))
+                                    meilleureArete[f] = e;
+                            } else if (etiquette[x] == 0) {
+                                if (meilleureArete[x] == -1 || ecartE < ecart(meilleureArete[x]))
+                                    meilleureArete[x] = e;
+                            }
+                        }
+                    }
+                    if (augmente)
+                        break;
+
+                    // Pas d'arête utilisable : mise à jour des duales
+                    int type = -1, areteDelta = -1, fleurDelta = -1;
+                    long delta = 0;
+                    for (int v = 0; v < n; v++) {
+                        if (etiquette[dansFleur[v]] == 0 && meilleureArete[v] != -1) {
+                            long x = ecart(meilleureArete[v]);
+                            if (type == -1 || x < delta) {
+                                delta = x;
+                                type = 2;
+                                areteDelta = meilleureArete[v];
+                            }
+                        }
+                    }
+                    for (int f = 0; f < 2 * n; f++) {
+                        if (parentFleur[f] == -1 && etiquette[f] == 1 && meilleureArete[f] != -1) {
+                            long x = ecart(meilleureArete[f]) / 2;
+                            if (type == -1 || x < delta) {
+                                delta = x;
+                                type = 3;
+                                areteDelta = meilleureArete[f];
+                            }
+                        }
+                    }
+                    for (int f = n; f < 2 * n; f++) {
+                        if (baseFleur[f] >= 0 && parentFleur[f] == -1 && etiquette[f] == 2
+                                && (type == -1 || duale[f] < delta)) {
+                            delta = duale[f];
+                            type = 4;
+                            fleurDelta = f;
+                        }
+                    }
+                    if (type == -1) {
+                        // Plus aucune amélioration possible
+                        type = 1;
+                        long min = Long.MAX_VALUE;
+                        for (int v = 0; v < n; v++)
+                            min = Math.min(min, duale[v]);
+                        delta = Math.max(0, min);
+                    }
+
+                    for (int v = 0; v < n; v++) {
+                        if (etiquette[dansFleur[v]] == 1)
+                            duale[v] -= delta;
+                        else if (etiquette[dansFleur[v]] == 2)
+                            duale[v] += delta;
+                    }
+                    for (int f = n; f < 2 * n; f++) {
+                        if (baseFleur[f] >= 0 && parentFleur[f] == -1) {
+                            if (etiquette[f] == 1)
+                                duale[f] += delta;
+                            else if (etiquette[f] == 2)
+                                duale[f] -= delta;
+                        }
+                    }
+
+                    if (type == 1) {
+                        break;
+                    } else if (type == 2) {
+                        autorisee[areteDelta] = true;
+                        int i = a[areteDelta];
+                        if (etiquette[dansFleur[i]] == 0)
+                            i = b[areteDelta];
+                        enfiler(i);
+                    } else if (type == 3) {
+                        autorisee[areteDelta] = true;
+                        enfiler(a[areteDelta]);
+                    } else {
+                        developperFleur(fleurDelta, false);
+                    }
+                }
+                if (!augmente)
+                    break;
+
+                // Fleurs S de duale nulle : développées en fin d'étape
+                for (int f = n; f < 2 * n; f++)
+                    if (parentFleur[f] == -1 && baseFleur[f] >= 0 && etiquette[f] == 1 && duale[f] == 0)
+                        developperFleur(f, true);
+            }
+
+            int[] partenaire = new int[n];
+            for (int v = 0; v < n; v++)
+                partenaire[v] = mate[v] >= 0 ? extremite[mate[v]] : -1;
+            return partenaire;
+        }
+    }
+
+    /**
+     * Tableau d'entiers extensible (évite les List<Integer>).
+     */
+    private static final class ListeEntiers {
+        private int[] t = new int[8];
+        private int taille;
+
+        void ajouter(int x) {
+            if (taille == t.length)
+                t = Arrays.copyOf(t, 2 * taille);
+            t[taille++] = x;
+        }
+
+        void inverser() {
+            for (int i = 0, j = taille - 1; i < j; i++, j--) {
+                int x = t[i];
+                t[i] = t[j];
+                t[j] = x;
+            }
+        }
+
+        int[] tableau() {
+            return Arrays.copyOf(t, taille);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Découpage optimal d'un circuit géant en tournées (« split » de Prins).
+ * Les points restent dans l'ordre du circuit ; on choisit où revenir au
+ * dépôt pour minimiser la distance totale, chaque tournée respectant la
+ * capacité du camion.
+ * Programmation dynamique de Bellman sur les sommes préfixes des charges
+ * Q et des distances D le long du circuit : la tournée des positions i+1..j
+ * coûte d(dépôt, i+1) + D[j] - D[i+1] + d(j, dépôt), donc
+ * p[j] = min sur i de (p[i] + d(dépôt, i+1) - D[i+1]) + D[j] + d(j, dépôt),
+ * les i admissibles (Q[j] - Q[i] <= capacité) formant une fenêtre glissante.
+ * Le minimum de la fenêtre est tenu dans une file à double entrée : O(n) au
+ * total, sur la matrice déjà calculée (aucun Dijkstra).
+ */
+public class DecoupageOptimal {
+
+    /**
+     * Découpe le circuit.
+     *
+     * @param d        Matrice plate m x m (0 = dépôt) ; chaque point doit être
+     *                 joignable depuis et vers le dépôt (les appelants
+     *                 écartent les autres).
+     * @param ordre    Circuit géant : ordre[0] = 0 (dépôt), puis les points.
+     * @param quantite Quantité de chaque indice de la matrice.
+     * @return Les positions (dans ordre) où commence chaque tournée, croissantes.
+     */
+    public static int[] decouper(double[] d, int m, int[] ordre, double[] quantite, double capacite) {
+        int n = ordre.length - 1;
+        if (n <= 0)
+            return new int[0];
+
+        // Sommes préfixes ; un lien infranchissable impose une coupure
+        double[] distance = new double[n + 1];
+        double[] charge = new double[n + 1];
+        int[] coupure = new int[n + 1]; // première position possible d'une tournée finissant en j
+        coupure[1] = 1;
+        charge[1] = quantite[ordre[1]];
+        for (int k = 2; k <= n; k++) {
+            double lien = d[ordre[k - 1] * m + ordre[k]];
+            boolean coupe = lien >= Double.MAX_VALUE;
+            distance[k] = distance[k - 1] + (coupe ? 0.0 : lien);
+            charge[k] = charge[k - 1] + quantite[ordre[k]];
+            coupure[k] = coupe ? k : coupure[k - 1];
+        }
+
+        double[] p = new double[n + 1];
+        double[] f = new double[n + 1]; // valeur de i dans la fenêtre
+        int[] predecesseur = new int[n + 1];
+        int[] file = new int[n];
+        int tete = 0, queue = 0;
+        for (int j = 1; j <= n; j++) {
+            // Entrée de i = j - 1 : la file reste croissante en f (à égalité, le
+            // plus ancien est gardé : moins de tournées)
+            int i = j - 1;
+            f[i] = p[i] + d[ordre[i + 1]] - distance[i + 1];
+            while (queue > tete && f[file[queue - 1]] > f[i])
+                queue--;
+            file[queue++] = i;
+            // Sortie des i trop anciens (capacité ou lien coupé) ; un point
+            // plus lourd qu'un camion reste seul dans sa tournée
+            while (file[tete] < j - 1
+                    && (charge[j] - charge[file[tete]] > capacite + 1e-9 || file[tete] + 1 < coupure[j]))
+                tete++;
+            predecesseur[j] = file[tete];
+            p[j] = f[file[tete]] + distance[j] + d[ordre[j] * m];
+        }
+
+        // Remontée des coupures
+        int nb = 0;
+        for (int j = n; j > 0; j = predecesseur[j])
+            nb++;
+        int[] debuts = new int[nb];
+        for (int j = n; j > 0; j = predecesseur[j])
+            debuts[--nb] = predecesseur[j] + 1;
+        return debuts;
+    }
+
+    /**
+     * Découpe le circuit et construit les tournées correspondantes.
+     *
+     * @param tous  Sommets de la matrice (dépôt en tête).
+     * @param ordre Circuit géant : ordre[0] = 0 (dépôt), puis les points.
+     * @return Les tournées, numérotées à partir de 1.
+     */
+    public static List<Tournee> tournees(List<Sommet> tous, double[] d, int[] ordre, double capacite) {
+        int m = tous.size();
+        double[] quantite = new double[m];
+        for (int i = 1; i < m; i++)
+            quantite[i] = tous.get(i).getQuantiteDechets();
+        int[] debuts = decouper(d, m, ordre, quantite, capacite);
+
+        List<Tournee> tournees = new ArrayList<>();
+        for (int r = 0; r < debuts.length; r++) {
+            int fin = r + 1 < debuts.length ? debuts[r + 1] : ordre.length;
+            Tournee t = new Tournee(r + 1, tous.get(0));
+            int precedent = 0;
+            for (int k = debuts[r]; k < fin; k++) {
+                t.ajouterPoint(tous.get(ordre[k]), d[precedent * m + ordre[k]]);
+                precedent = ordre[k];
+            }
+            t.ajouterRetourDepot(d[precedent * m]);
+            tournees.add(t);
+        }
+        return tournees;
+    }
+}
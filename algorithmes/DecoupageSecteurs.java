@@ -0,0 +1,410 @@
+package algorithmes;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import modele.*;
+
+/**
+ * Thème 2 pour les très grandes communes : « secteurs d'abord, tournées
+ * ensuite ». Les points sont répartis en secteurs de charge équilibrée
+ * (environ TOURNEES_PAR_SECTEUR camions pleins chacun), puis chaque secteur
+ * est planifié seul, en parallèle : matrice du secteur, circuit MST +
+ * raccourcis amélioré par Lin-Kernighan, découpage optimal en tournées.
+ * Aucune matrice n x n de la commune : la mémoire suit le plus grand
+ * secteur.
+ * Répartition :
+ * - avec coordonnées : balayage angulaire autour du dépôt, en partant du
+ * plus grand vide angulaire ;
+ * - sans coordonnées : k-médoïdes sur un échantillon de points (distances
+ * réseau aller-retour), initialisés par tranches du parcours de l'arbre
+ * couvrant de l'échantillon ; chaque point rejoint ensuite le plus proche
+ * médoïde dont le secteur n'est pas plein (à défaut, le secteur le moins
+ * chargé).
+ */
+public class DecoupageSecteurs {
+
+    public static final int TOURNEES_PAR_SECTEUR = 8;
+    // Taille de l'échantillon des k-médoïdes
+    public static final int ECHANTILLON = 1000;
+
+    private static final int ITERATIONS_MEDOIDES = 10;
+    // Médoïdes candidats retenus par point pour l'affectation
+    private static final int CANDIDATS = 4;
+    // Dépassement toléré de la charge d'un secteur avant de passer au suivant
+    private static final double MARGE = 1.1;
+    // Budget Lin-Kernighan de l'ensemble des circuits de secteur
+    private static final long DUREE_CIRCUITS_MS = 1000;
+
+    public static List<Tournee> resoudre(Graphe g, Sommet depot, List<Sommet> tousLesPoints,
+            double capaciteCamion) {
+        return resoudre(g, depot, tousLesPoints, capaciteCamion, 0);
+    }
+
+    /**
+     * Planifie les tournées secteur par secteur.
+     *
+     * @param parallelisme Nombre de threads (0 = nombre de cœurs).
+     * @return Les tournées de tous les secteurs, numérotées à la suite.
+     */
+    public static List<Tournee> resoudre(Graphe g, Sommet depot, List<Sommet> tousLesPoints,
+            double capaciteCamion, int parallelisme) {
+
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("   THÈME 2 : SECTEURS D'ABORD, TOURNÉES ENSUITE");
+        System.out.printf("   Capacité par camion : %.1f tonnes | %d camions pleins par secteur%n",
+                capaciteCamion, TOURNEES_PAR_SECTEUR);
+        System.out.println("=".repeat(80));
+
+        // Points joignables depuis et vers le dépôt
+        GrapheCompact gc = g.compacter();
+        int iDepot = gc.indice(depot);
+        double[] versPoint = iDepot < 0 ? null : Dijkstra.distancesDepuis(gc, iDepot, null);
+        double[] versDepot = iDepot < 0 ? null : Dijkstra.distancesVers(gc, iDepot);
+        List<Sommet> points = new ArrayList<>();
+        int ecartes = 0;
+        for (Sommet s : tousLesPoints) {
+            if (s.equals(depot) || s.getQuantiteDechets() <= 0.01)
+                continue;
+            int v = gc.indice(s);
+            if (v < 0 || iDepot < 0 || versPoint[v] >= Double.MAX_VALUE || versDepot[v] >= Double.MAX_VALUE)
+                ecartes++;
+            else
+                points.add(s);
+        }
+        if (points.isEmpty()) {
+            System.out.println("Aucun point de collecte à traiter.");
+            return new ArrayList<>();
+        }
+
+        int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+        long debut = System.currentTimeMillis();
+        List<List<Sommet>> secteurs = secteurs(g, depot, points, capaciteCamion * TOURNEES_PAR_SECTEUR,
+                threads);
+        long dureeSecteurs = System.currentTimeMillis() - debut;
+        int plusGrand = 0;
+        for (List<Sommet> s : secteurs)
+            plusGrand = Math.max(plusGrand, s.size());
+        System.out.printf("Secteurs : %d (%s) en %d ms | plus grand : %d points sur %d%n", secteurs.size(),
+                avecCoordonnees(depot, points) ? "balayage angulaire" : "k-médoïdes", dureeSecteurs, plusGrand,
+                points.size());
+
+        // Planification des secteurs en parallèle
+        debut = System.currentTimeMillis();
+        List<Callable<List<Tournee>>> taches = new ArrayList<>();
+        for (List<Sommet> secteur : secteurs) {
+            long budget = Math.max(20, DUREE_CIRCUITS_MS * threads * secteur.size() / points.size());
+            taches.add(() -> planifierSecteur(g, depot, secteur, capaciteCamion, budget));
+        }
+        List<Tournee> tournees = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (var f : pool.invokeAll(taches)) {
+                for (Tournee t : f.get()) {
+                    // Renumérotation à la suite des secteurs précédents
+                    t.setNumero(tournees.size() + 1);
+                    tournees.add(t);
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Planification des secteurs interrompue", e);
+        } finally {
+            pool.shutdown();
+        }
+        long dureeTournees = System.currentTimeMillis() - debut;
+
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("             RÉSULTATS FINAUX - SECTEURS");
+        System.out.println("=".repeat(80));
+        double total = 0.0;
+        for (Tournee t : tournees) {
+            t.afficher();
+            total += t.getDistanceParcourue();
+        }
+        System.out.printf("%nCamions nécessaires       : %d%n", tournees.size());
+        System.out.printf("Distance totale parcourue : %.2f km%n", total);
+        System.out.printf("Points collectés          : %d / %d%n", points.size(), points.size() + ecartes);
+        if (ecartes > 0)
+            System.out.println("Points écartés (inaccessibles) : " + ecartes);
+        System.out.printf("Durée : secteurs %d ms | tournées %d ms sur %d thread(s)%n", dureeSecteurs,
+                dureeTournees, threads);
+        System.out.println("=".repeat(80));
+        return tournees;
+    }
+
+    /**
+     * Répartit les points en secteurs de charge équilibrée, d'au plus
+     * environ chargeSecteur chacun.
+     *
+     * @param points        Points à collecter (dépôt exclu, tous joignables).
+     * @param chargeSecteur Charge visée par secteur (en tonnes).
+     * @return Les secteurs (non vides).
+     */
+    public static List<List<Sommet>> secteurs(Graphe g, Sommet depot, List<Sommet> points, double chargeSecteur,
+            int parallelisme) {
+        int n = points.size();
+        double total = 0.0;
+        for (Sommet s : points)
+            total += s.getQuantiteDechets();
+        int k = (int) Math.min(n, Math.max(1, Math.ceil(total / chargeSecteur - 1e-9)));
+        if (k == 1)
+            return new ArrayList<>(List.of(new ArrayList<>(points)));
+
+        int[] secteur = avecCoordonnees(depot, points) ? balayage(depot, points, k, total)
+                : medoides(g, points, k, chargeSecteur, parallelisme);
+
+        List<List<Sommet>> secteurs = new ArrayList<>();
+        for (int c = 0; c < k; c++)
+            secteurs.add(new ArrayList<>());
+        for (int i = 0; i < n; i++)
+            secteurs.get(secteur[i]).add(points.get(i));
+        secteurs.removeIf(List::isEmpty);
+        return secteurs;
+    }
+
+    private static boolean avecCoordonnees(Sommet depot, List<Sommet> points) {
+        if (!depot.aCoordonnees())
+            return false;
+        for (Sommet s : points)
+            if (!s.aCoordonnees())
+                return false;
+        return true;
+    }
+
+    /**
+     * Balayage : points triés par angle autour du dépôt, à partir du plus
+     * grand vide angulaire, puis coupés en k tranches de charge égale.
+     */
+    private static int[] balayage(Sommet depot, List<Sommet> points, int k, double total) {
+        int n = points.size();
+        double[] angle = new double[n];
+        Integer[] ordre = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Sommet s = points.get(i);
+            angle[i] = Math.atan2(s.getY() - depot.getY(), s.getX() - depot.getX());
+            ordre[i] = i;
+        }
+        Arrays.sort(ordre, Comparator.comparingDouble(i -> angle[i]));
+
+        // Le balayage commence juste après le plus grand vide
+        int depart = 0;
+        double plusGrandVide = angle[ordre[0]] + 2 * Math.PI - angle[ordre[n - 1]];
+        for (int p = 1; p < n; p++) {
+            double vide = angle[ordre[p]] - angle[ordre[p - 1]];
+            if (vide > plusGrandVide) {
+                plusGrandVide = vide;
+                depart = p;
+            }
+        }
+        int[] rangs = new int[n];
+        for (int p = 0; p < n; p++)
+            rangs[p] = ordre[(depart + p) % n];
+        return tranches(rangs, points, k, total);
+    }
+
+    /**
+     * Coupe une suite de points en k tranches de charge égale : un point va
+     * dans la tranche qui contient le milieu de sa charge cumulée.
+     */
+    private static int[] tranches(int[] suite, List<Sommet> points, int k, double total) {
+        int[] tranche = new int[points.size()];
+        double cumul = 0.0;
+        for (int i : suite) {
+            double q = points.get(i).getQuantiteDechets();
+            tranche[i] = Math.min(k - 1, (int) ((cumul + q / 2) * k / total));
+            cumul += q;
+        }
+        return tranche;
+    }
+
+    /**
+     * k-médoïdes sur un échantillon (distances aller-retour), puis
+     * affectation de tous les points aux médoïdes en respectant la charge
+     * des secteurs.
+     */
+    private static int[] medoides(Graphe g, List<Sommet> points, int k, double chargeSecteur, int parallelisme) {
+        int n = points.size();
+
+        // 1. Échantillon et sa matrice
+        int taille = Math.min(n, Math.max(ECHANTILLON, 4 * k));
+        List<Integer> melange = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            melange.add(i);
+        Collections.shuffle(melange, new Random(1));
+        List<Sommet> echantillon = new ArrayList<>();
+        for (int e = 0; e < taille; e++)
+            echantillon.add(points.get(melange.get(e)));
+        double[] d = MatriceDistances.matriceParallele(g, echantillon, parallelisme);
+        double[] w = new double[taille * taille];
+        for (int i = 0; i < taille; i++)
+            for (int j = 0; j < taille; j++)
+                w[i * taille + j] = somme(d[i * taille + j], d[j * taille + i]);
+
+        // 2. Initialisation : tranches de charge égale du parcours de l'arbre
+        // couvrant, médoïde de chaque tranche
+        int[] parcours = PrimDense.calculer(w, taille, 0, false, parallelisme).parcoursPrefixe();
+        double totalEchantillon = 0.0;
+        for (Sommet s : echantillon)
+            totalEchantillon += s.getQuantiteDechets();
+        int[] groupe = tranches(parcours, echantillon, k, totalEchantillon);
+        int[] medoide = new int[k];
+        mettreAJourMedoides(w, taille, groupe, medoide);
+
+        // 3. Alternance affectation / médoïdes jusqu'à stabilité
+        for (int it = 0; it < ITERATIONS_MEDOIDES; it++) {
+            for (int i = 0; i < taille; i++) {
+                int meilleur = 0;
+                for (int c = 1; c < k; c++)
+                    if (w[i * taille + medoide[c]] < w[i * taille + medoide[meilleur]])
+                        meilleur = c;
+                groupe[i] = meilleur;
+            }
+            if (!mettreAJourMedoides(w, taille, groupe, medoide))
+                break;
+        }
+
+        // 4. Médoïdes candidats de chaque point (Dijkstra depuis et vers
+        // chaque médoïde, en parallèle)
+        GrapheCompact gc = g.compacter();
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++)
+            idx[i] = gc.indice(points.get(i));
+        int c0 = Math.min(CANDIDATS, k);
+        int[] candidat = new int[n * c0];
+        double[] distance = new double[n * c0];
+        Arrays.fill(candidat, -1);
+        Arrays.fill(distance, Double.MAX_VALUE);
+        List<Callable<Void>> taches = new ArrayList<>();
+        for (int c = 0; c < k; c++) {
+            int numero = c, source = gc.indice(echantillon.get(medoide[c]));
+            taches.add(() -> {
+                double[] aller = Dijkstra.distancesDepuis(gc, source, null);
+                double[] retour = Dijkstra.distancesVers(gc, source);
+                synchronized (candidat) {
+                    for (int i = 0; i < n; i++)
+                        retenir(candidat, distance, i * c0, c0, numero, somme(aller[idx[i]], retour[idx[i]]));
+                }
+                return null;
+            });
+        }
+        int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (var f : pool.invokeAll(taches))
+                f.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Calcul des secteurs interrompu", e);
+        } finally {
+            pool.shutdown();
+        }
+
+        // 5. Affectation par regret décroissant : un point qui perdrait
+        // beaucoup à ne pas rejoindre son médoïde le plus proche passe d'abord
+        Integer[] ordre = new Integer[n];
+        double[] regret = new double[n];
+        for (int i = 0; i < n; i++) {
+            ordre[i] = i;
+            regret[i] = c0 > 1 ? distance[i * c0 + 1] - distance[i * c0] : 0.0;
+        }
+        Arrays.sort(ordre, (a, b) -> Double.compare(regret[b], regret[a]));
+        int[] secteur = new int[n];
+        double[] charge = new double[k];
+        for (int i : ordre) {
+            double q = points.get(i).getQuantiteDechets();
+            int choix = -1;
+            for (int t = 0; t < c0 && choix < 0; t++) {
+                int c = candidat[i * c0 + t];
+                if (c >= 0 && charge[c] + q <= chargeSecteur * MARGE)
+                    choix = c;
+            }
+            // Candidats pleins : secteur le moins chargé. Comme
+            // k * chargeSecteur >= total, sa charge reste sous chargeSecteur
+            // avant ajout : aucun secteur ne dépasse chargeSecteur + q
+            if (choix < 0) {
+                choix = 0;
+                for (int c = 1; c < k; c++)
+                    if (charge[c] < charge[choix])
+                        choix = c;
+            }
+            secteur[i] = choix;
+            charge[choix] += q;
+        }
+        return secteur;
+    }
+
+    /**
+     * Médoïde de chaque groupe : le point qui minimise la somme des
+     * distances aux autres points du groupe.
+     *
+     * @return true si un médoïde a changé.
+     */
+    private static boolean mettreAJourMedoides(double[] w, int taille, int[] groupe, int[] medoide) {
+        int k = medoide.length;
+        List<List<Integer>> membres = new ArrayList<>();
+        for (int c = 0; c < k; c++)
+            membres.add(new ArrayList<>());
+        for (int i = 0; i < taille; i++)
+            membres.get(groupe[i]).add(i);
+        boolean change = false;
+        for (int c = 0; c < k; c++) {
+            int meilleur = -1;
+            double meilleurCout = Double.MAX_VALUE;
+            for (int i : membres.get(c)) {
+                double cout = 0.0;
+                for (int j : membres.get(c))
+                    cout = somme(cout, w[i * taille + j]);
+                if (meilleur < 0 || cout < meilleurCout) {
+                    meilleur = i;
+                    meilleurCout = cout;
+                }
+            }
+            // Groupe vide : le médoïde est gardé
+            if (meilleur >= 0 && meilleur != medoide[c]) {
+                medoide[c] = meilleur;
+                change = true;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Insère (c, dist) dans la liste triée des meilleurs candidats
+     * [debut, debut + taille).
+     */
+    private static void retenir(int[] candidat, double[] distance, int debut, int taille, int c, double dist) {
+        int p = debut + taille - 1;
+        if (candidat[p] >= 0 && distance[p] <= dist)
+            return;
+        while (p > debut && (candidat[p - 1] < 0 || distance[p - 1] > dist)) {
+            candidat[p] = candidat[p - 1];
+            distance[p] = distance[p - 1];
+            p--;
+        }
+        candidat[p] = c;
+        distance[p] = dist;
+    }
+
+    /**
+     * Tournées d'un secteur, sans affichage : matrice du secteur, circuit
+     * MST + raccourcis, Lin-Kernighan, découpage optimal.
+     */
+    private static List<Tournee> planifierSecteur(Graphe g, Sommet depot, List<Sommet> secteur,
+            double capaciteCamion, long dureeMs) {
+        List<Sommet> tous = new ArrayList<>();
+        tous.add(depot);
+        tous.addAll(secteur);
+        int m = tous.size();
+        double[] matrice = MatriceDistances.matriceParallele(g, tous, 1);
+
+        int[] parcours = PrimDense.calculer(matrice, m, 1, false, 1).parcoursPrefixe();
+        int[] ordre = new int[parcours.length + 1];
+        System.arraycopy(parcours, 0, ordre, 1, parcours.length);
+        if (parcours.length == m - 1)
+            ordre = TSPLinKernighan.ameliorerOrdre(matrice, m, ordre, dureeMs);
+        return DecoupageOptimal.tournees(tous, matrice, ordre, capaciteCamion);
+    }
+
+    private static double somme(double a, double b) {
+        return a >= Double.MAX_VALUE || b >= Double.MAX_VALUE ? Double.MAX_VALUE : a + b;
+    }
+}
@@ -1,91 +1,606 @@
 package algorithmes;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 import modele.*;
 
 public class Dijkstra {
 
+    /**
+     * Stratégie de recherche pour une requête point à point. Tous les modes
+     * donnent la distance exacte ; ils diffèrent par le nombre de sommets
+     * explorés. Le vol d'oiseau de A* est multiplié par le plus petit rapport
+     * longueur d'arc / vol d'oiseau du graphe (GrapheCompact.echelleEuclidienne),
+     * ce qui en fait un minorant même si les longueurs ne sont pas à l'échelle
+     * des coordonnées.
+     */
+    public enum Mode {
+        DIJKSTRA, // Dijkstra classique depuis le départ, arrêté sur l'arrivée
+        A_ETOILE, // A* guidé par la distance euclidienne (coordonnées en km)
+        A_ETOILE_GPS, // A* guidé par la distance haversine (longitude/latitude)
+        BIDIRECTIONNEL, // Dijkstra avant depuis le départ + arrière vers l'arrivée
+        AUTOMATIQUE // A* si les coordonnées guident assez (voir SEUIL_ECHELLE), sinon bidirectionnel
+    }
+
+    // En dessous, le minorant de A* est trop faible pour guider la recherche
+    private static final double SEUIL_ECHELLE = 0.5;
+
     public static double calculerDistance(Graphe g, Sommet depart, Sommet arrivee) {
+        return calculerDistance(g, depart, arrivee, Mode.AUTOMATIQUE);
+    }
+
+    public static List<Sommet> cheminLePlusCourt(Graphe g, Sommet depart, Sommet arrivee) {
+        return cheminLePlusCourt(g, depart, arrivee, Mode.AUTOMATIQUE);
+    }
+
+    public static double calculerDistance(Graphe g, Sommet depart, Sommet arrivee, Mode mode) {
         if (depart.equals(arrivee))
             return 0.0;
 
-        Map<Sommet, Double> dist = new HashMap<>();
-        Set<Sommet> visite = new HashSet<>();
-        PriorityQueue<Map.Entry<Double, Sommet>> pq = new PriorityQueue<>(
-                (a1, a2) -> Double.compare(a1.getKey(), a2.getKey()));
-
-        for (Sommet s : g.getSommets())
-            dist.put(s, Double.MAX_VALUE);
-        dist.put(depart, 0.0);
-        pq.add(new AbstractMap.SimpleEntry<>(0.0, depart));
-
-        while (!pq.isEmpty()) {
-            Map.Entry<Double, Sommet> entry = pq.poll();
-            Sommet u = entry.getValue();
-            if (visite.contains(u))
-                continue;
-            visite.add(u);
-
-            for (Sommet v : g.getVoisins(u)) {
-                Arete a = g.getArete(u, v);
-                if (a == null)
-                    continue;
-
-                double nouveau = dist.get(u) + a.getLongueur();
-                if (nouveau < dist.get(v)) {
-                    dist.put(v, nouveau);
-                    pq.add(new AbstractMap.SimpleEntry<>(nouveau, v));
+        GrapheCompact gc = g.compacter();
+        int s = gc.indice(depart);
+        int t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return Double.MAX_VALUE;
+        return calculerDistance(gc, s, t, mode);
+    }
+
+    public static List<Sommet> cheminLePlusCourt(Graphe g, Sommet depart, Sommet arrivee, Mode mode) {
+        if (depart.equals(arrivee))
+            return List.of(depart);
+
+        GrapheCompact gc = g.compacter();
+        int s = gc.indice(depart);
+        int t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return List.of();
+        return gc.versSommets(cheminLePlusCourt(gc, s, t, mode));
+    }
+
+    /**
+     * Distance point à point sur l'instantané compact selon le mode choisi.
+     *
+     * @return La distance, ou Double.MAX_VALUE si inaccessible.
+     */
+    public static double calculerDistance(GrapheCompact gc, int depart, int arrivee, Mode mode) {
+        if (depart == arrivee)
+            return 0.0;
+        switch (resoudreMode(gc, mode)) {
+            case A_ETOILE:
+                return aEtoile(gc, depart, arrivee, euclidien(gc, arrivee)).distance(arrivee);
+            case A_ETOILE_GPS:
+                return aEtoile(gc, depart, arrivee, haversine(gc, arrivee)).distance(arrivee);
+            case BIDIRECTIONNEL:
+                return bidirectionnel(gc, depart, arrivee);
+            default:
+                return calculerDistance(gc, depart, arrivee);
+        }
+    }
+
+    /**
+     * Plus court chemin point à point sur l'instantané compact selon le mode
+     * choisi.
+     *
+     * @return Les indices des sommets du chemin, vide si inaccessible.
+     */
+    public static int[] cheminLePlusCourt(GrapheCompact gc, int depart, int arrivee, Mode mode) {
+        if (depart == arrivee)
+            return new int[] { depart };
+        switch (resoudreMode(gc, mode)) {
+            case A_ETOILE:
+                return aEtoile(gc, depart, arrivee, euclidien(gc, arrivee)).chemin(depart, arrivee);
+            case A_ETOILE_GPS:
+                return aEtoile(gc, depart, arrivee, haversine(gc, arrivee)).chemin(depart, arrivee);
+            case BIDIRECTIONNEL:
+                bidirectionnel(gc, depart, arrivee);
+                return cheminBidirectionnel(depart, arrivee);
+            default:
+                return cheminLePlusCourt(gc, depart, arrivee);
+        }
+    }
+
+    private static Mode resoudreMode(GrapheCompact gc, Mode mode) {
+        if (mode == Mode.AUTOMATIQUE)
+            return gc.aCoordonnees() && gc.echelleEuclidienne() >= SEUIL_ECHELLE ? Mode.A_ETOILE
+                    : Mode.BIDIRECTIONNEL;
+        if ((mode == Mode.A_ETOILE || mode == Mode.A_ETOILE_GPS) && !gc.aCoordonnees())
+            return Mode.BIDIRECTIONNEL; // pas de coordonnées : pas d'heuristique possible
+        return mode;
+    }
+
+    /**
+     * Distance entre deux sommets de l'instantané compact.
+     *
+     * @return La distance, ou Double.MAX_VALUE si inaccessible.
+     */
+    public static double calculerDistance(GrapheCompact gc, int depart, int arrivee) {
+        if (depart == arrivee)
+            return 0.0;
+        // Arrêt dès que l'arrivée est fixée
+        return executer(gc, depart, arrivee).distance(arrivee);
+    }
+
+    /**
+     * Plus court chemin entre deux sommets de l'instantané compact.
+     *
+     * @return Les indices des sommets du chemin, vide si inaccessible.
+     */
+    public static int[] cheminLePlusCourt(GrapheCompact gc, int depart, int arrivee) {
+        if (depart == arrivee)
+            return new int[] { depart };
+        return executer(gc, depart, arrivee).chemin(depart, arrivee);
+    }
+
+    /**
+     * Distances d'une source vers un ensemble de cibles en un seul Dijkstra,
+     * arrêté dès que toutes les cibles sont fixées.
+     *
+     * @param g      Le graphe.
+     * @param source Le sommet de départ.
+     * @param cibles Les sommets d'arrivée.
+     * @return Distance de la source vers chaque cible (Double.MAX_VALUE si
+     *         inaccessible).
+     */
+    public static Map<Sommet, Double> distancesDepuis(Graphe g, Sommet source, Set<Sommet> cibles) {
+        Map<Sommet, Double> res = new HashMap<>();
+        GrapheCompact gc = g.compacter();
+        int s = gc.indice(source);
+        List<Sommet> liste = new ArrayList<>(cibles);
+        int[] idx = new int[liste.size()];
+        for (int i = 0; i < idx.length; i++)
+            idx[i] = gc.indice(liste.get(i));
+
+        double[] dist = new double[idx.length];
+        if (s >= 0) {
+            distancesDepuis(gc, s, idx, dist);
+        } else {
+            Arrays.fill(dist, Double.MAX_VALUE);
+        }
+        for (int i = 0; i < idx.length; i++)
+            res.put(liste.get(i), liste.get(i).equals(source) ? 0.0 : dist[i]);
+        return res;
+    }
+
+    /**
+     * Version compacte de la requête un-vers-plusieurs.
+     *
+     * @param gc     L'instantané.
+     * @param source Indice de la source.
+     * @param cibles Indices des cibles (les indices négatifs sont ignorés).
+     * @param sortie Reçoit la distance vers cibles[i] en position i.
+     */
+    public static void distancesDepuis(GrapheCompact gc, int source, int[] cibles, double[] sortie) {
+        EspaceTravail esp = executerVers(gc, source, cibles);
+        for (int i = 0; i < cibles.length; i++)
+            sortie[i] = cibles[i] < 0 ? Double.MAX_VALUE : esp.distance(cibles[i]);
+    }
+
+    /**
+     * Dijkstra complet depuis une source sur l'instantané compact.
+     *
+     * @param gc     L'instantané.
+     * @param source Indice de la source.
+     * @param pred   Tableau des prédécesseurs à remplir (-1 = aucun), ou null.
+     * @return Les distances depuis la source (Double.MAX_VALUE si inaccessible).
+     */
+    public static double[] distancesDepuis(GrapheCompact gc, int source, int[] pred) {
+        int n = gc.nombreSommets();
+        EspaceTravail esp = executer(gc, source, -1);
+        double[] dist = new double[n];
+        for (int v = 0; v < n; v++) {
+            dist[v] = esp.distance(v);
+            if (pred != null)
+                pred[v] = esp.predecesseur(v);
+        }
+        return dist;
+    }
+
+    /**
+     * Dijkstra complet vers une cible, sur les arcs entrants (graphe inverse).
+     *
+     * @param gc    L'instantané.
+     * @param cible Indice de la cible.
+     * @return dist[v] = distance de v vers la cible (Double.MAX_VALUE si
+     *         inaccessible).
+     */
+    public static double[] distancesVers(GrapheCompact gc, int cible) {
+        int n = gc.nombreSommets();
+        EspaceTravail esp = ESPACE_ARRIERE.get();
+        esp.preparer(n);
+        esp.fixer(cible, 0.0, -1);
+        TasIndexe tas = esp.tas;
+        tas.insererOuDiminuer(cible, 0.0);
+
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            double du = esp.dist[u];
+            for (int k = gc.debutInverse(u); k < gc.finInverse(u); k++) {
+                int v = gc.origine(k);
+                double nouveau = du + gc.longueurInverse(k);
+                if (nouveau < esp.distance(v)) {
+                    esp.fixer(v, nouveau, u);
+                    tas.insererOuDiminuer(v, nouveau);
                 }
             }
         }
-        return dist.getOrDefault(arrivee, Double.MAX_VALUE);
+
+        double[] dist = new double[n];
+        for (int v = 0; v < n; v++)
+            dist[v] = esp.distance(v);
+        return dist;
     }
 
-    public static List<Sommet> cheminLePlusCourt(Graphe g, Sommet depart, Sommet arrivee) {
-        if (depart.equals(arrivee))
-            return List.of(depart);
+    /**
+     * Plus proche voisin : Dijkstra depuis la source, arrêté dès que le
+     * premier sommet accepté par le filtre est fixé. Seule la boule de rayon
+     * la distance trouvée est explorée. Parmi les sommets acceptés à la même
+     * distance, celui de plus petit rang l'emporte.
+     *
+     * @param gc      L'instantané.
+     * @param source  Indice de la source.
+     * @param accepte Sommets recherchés.
+     * @param rang    Ordre de départage des ex aequo.
+     * @param sortie  sortie[0] reçoit la distance du sommet trouvé.
+     * @return Le sommet trouvé, ou -1 si aucun sommet accepté n'est accessible.
+     */
+    public static int plusProche(GrapheCompact gc, int source, IntPredicate accepte, int[] rang, double[] sortie) {
+        EspaceTravail esp = ESPACE.get();
+        esp.preparer(gc.nombreSommets());
+        esp.fixer(source, 0.0, -1);
+        TasIndexe tas = esp.tas;
+        tas.insererOuDiminuer(source, 0.0);
 
-        Map<Sommet, Double> dist = new HashMap<>();
-        Map<Sommet, Sommet> pred = new HashMap<>();
-        Set<Sommet> visite = new HashSet<>();
-        PriorityQueue<Map.Entry<Double, Sommet>> pq = new PriorityQueue<>(
-                (a1, a2) -> Double.compare(a1.getKey(), a2.getKey()));
-
-        for (Sommet s : g.getSommets())
-            dist.put(s, Double.MAX_VALUE);
-        dist.put(depart, 0.0);
-        pq.add(new AbstractMap.SimpleEntry<>(0.0, depart));
-
-        while (!pq.isEmpty()) {
-            Map.Entry<Double, Sommet> entry = pq.poll();
-            Sommet u = entry.getValue();
-            if (visite.contains(u))
-                continue;
-            visite.add(u);
-
-            for (Sommet v : g.getVoisins(u)) {
-                Arete a = g.getArete(u, v);
-                if (a == null)
-                    continue;
-
-                double nouveau = dist.get(u) + a.getLongueur();
-                if (nouveau < dist.get(v)) {
-                    dist.put(v, nouveau);
-                    pred.put(v, u);
-                    pq.add(new AbstractMap.SimpleEntry<>(nouveau, v));
+        int trouve = -1;
+        while (!tas.estVide()) {
+            // Les ex aequo du sommet trouvé sont encore dans la file
+            if (trouve >= 0 && tas.cleMin() > esp.dist[trouve])
+                break;
+            int u = tas.extraireMin();
+            esp.regle[u] = esp.epoque;
+            double du = esp.dist[u];
+            if (accepte.test(u) && (trouve < 0 || rang[u] < rang[trouve]))
+                trouve = u;
+
+            for (int k = gc.debut(u); k < gc.fin(u); k++) {
+                int v = gc.cible(k);
+                double nouveau = du + gc.longueur(k);
+                if (nouveau < esp.distance(v)) {
+                    esp.fixer(v, nouveau, u);
+                    tas.insererOuDiminuer(v, nouveau);
                 }
             }
         }
+        if (trouve >= 0)
+            sortie[0] = esp.dist[trouve];
+        return trouve;
+    }
 
-        if (!pred.containsKey(arrivee))
-            return List.of();
+    /**
+     * Les k sommets acceptés les plus proches de la source (source exclue),
+     * par un Dijkstra arrêté dès que le k-ième est fixé.
+     *
+     * @param voisins   Reçoit les sommets trouvés, du plus proche au plus
+     *                  lointain (au moins k cases).
+     * @param distances Reçoit leurs distances.
+     * @return Le nombre de sommets trouvés (moins de k si le reste est
+     *         inaccessible).
+     */
+    public static int kPlusProches(GrapheCompact gc, int source, IntPredicate accepte, int k, int[] voisins,
+            double[] distances) {
+        EspaceTravail esp = ESPACE.get();
+        esp.preparer(gc.nombreSommets());
+        esp.fixer(source, 0.0, -1);
+        TasIndexe tas = esp.tas;
+        tas.insererOuDiminuer(source, 0.0);
+
+        int trouves = 0;
+        while (!tas.estVide() && trouves < k) {
+            int u = tas.extraireMin();
+            esp.regle[u] = esp.epoque;
+            double du = esp.dist[u];
+            if (u != source && accepte.test(u)) {
+                voisins[trouves] = u;
+                distances[trouves++] = du;
+            }
+            for (int a = gc.debut(u); a < gc.fin(u); a++) {
+                int v = gc.cible(a);
+                double nouveau = du + gc.longueur(a);
+                if (nouveau < esp.distance(v)) {
+                    esp.fixer(v, nouveau, u);
+                    tas.insererOuDiminuer(v, nouveau);
+                }
+            }
+        }
+        return trouves;
+    }
+
+    // ==================== MOTEUR ====================
+
+    // Un espace de travail par thread : aucune allocation en régime établi
+    private static final ThreadLocal<EspaceTravail> ESPACE = ThreadLocal.withInitial(EspaceTravail::new);
+    // Second espace pour la recherche arrière du mode bidirectionnel
+    private static final ThreadLocal<EspaceTravail> ESPACE_ARRIERE = ThreadLocal.withInitial(EspaceTravail::new);
+
+    /**
+     * Tableaux de travail réutilisés d'une requête à l'autre. Un compteur
+     * d'époque évite de réinitialiser dist/pred en O(n) : une case n'est valide
+     * que si sa marque vaut l'époque courante.
+     */
+    static final class EspaceTravail {
+        double[] dist = new double[0];
+        int[] pred = new int[0];
+        int[] marque = new int[0]; // époque de la dernière écriture de dist/pred
+        int[] regle = new int[0]; // époque à laquelle le sommet a été définitivement fixé
+        int[] attendu = new int[0]; // époque à laquelle le sommet est une cible à atteindre
+        int epoque = 0;
+        int rencontre = -1; // sommet de jonction de la dernière recherche bidirectionnelle
+        final TasIndexe tas = new TasIndexe();
+
+        void preparer(int n) {
+            if (marque.length < n) {
+                int capacite = Math.max(n, marque.length * 2);
+                dist = new double[capacite];
+                pred = new int[capacite];
+                marque = new int[capacite];
+                regle = new int[capacite];
+                attendu = new int[capacite];
+                epoque = 0;
+            }
+            if (++epoque == Integer.MAX_VALUE) {
+                Arrays.fill(marque, 0);
+                Arrays.fill(regle, 0);
+                Arrays.fill(attendu, 0);
+                epoque = 1;
+            }
+            tas.preparer(n);
+        }
+
+        double distance(int v) {
+            return marque[v] == epoque ? dist[v] : Double.MAX_VALUE;
+        }
+
+        int predecesseur(int v) {
+            return marque[v] == epoque ? pred[v] : -1;
+        }
+
+        boolean estRegle(int v) {
+            return regle[v] == epoque;
+        }
+
+        void fixer(int v, double d, int p) {
+            dist[v] = d;
+            pred[v] = p;
+            marque[v] = epoque;
+        }
+
+        int[] chemin(int depart, int arrivee) {
+            if (predecesseur(arrivee) < 0)
+                return new int[0];
+            return reconstruire(pred, depart, arrivee);
+        }
+    }
+
+    /**
+     * Lance Dijkstra depuis une source dans l'espace de travail du thread
+     * courant. Le résultat reste lisible jusqu'à la prochaine requête sur ce
+     * thread. Si une cible est donnée, la recherche s'arrête dès qu'elle est
+     * fixée : seules les distances des sommets fixés (estRegle) sont alors
+     * définitives.
+     *
+     * @param cible Indice de la cible, ou -1 pour parcourir tout le graphe.
+     */
+    static EspaceTravail executer(GrapheCompact gc, int source, int cible) {
+        EspaceTravail esp = ESPACE.get();
+        esp.preparer(gc.nombreSommets());
+        int restantes = 0;
+        if (cible >= 0) {
+            esp.attendu[cible] = esp.epoque;
+            restantes = 1;
+        }
+        return parcourir(gc, esp, source, restantes);
+    }
+
+    /**
+     * Comme executer, mais s'arrête lorsque toutes les cibles sont fixées.
+     */
+    static EspaceTravail executerVers(GrapheCompact gc, int source, int[] cibles) {
+        EspaceTravail esp = ESPACE.get();
+        esp.preparer(gc.nombreSommets());
+        int restantes = 0;
+        for (int c : cibles) {
+            if (c >= 0 && esp.attendu[c] != esp.epoque) {
+                esp.attendu[c] = esp.epoque;
+                restantes++;
+            }
+        }
+        // Aucune cible valide : rien à chercher
+        return restantes == 0 ? esp : parcourir(gc, esp, source, restantes);
+    }
+
+    private static EspaceTravail parcourir(GrapheCompact gc, EspaceTravail esp, int source, int restantes) {
+        boolean arretAnticipe = restantes > 0;
+        esp.fixer(source, 0.0, -1);
+        TasIndexe tas = esp.tas;
+        tas.insererOuDiminuer(source, 0.0);
+
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            esp.regle[u] = esp.epoque;
+            if (arretAnticipe && esp.attendu[u] == esp.epoque && --restantes == 0)
+                break;
+            double du = esp.dist[u];
+
+            for (int k = gc.debut(u); k < gc.fin(u); k++) {
+                int v = gc.cible(k);
+                double nouveau = du + gc.longueur(k);
+                if (nouveau < esp.distance(v)) {
+                    esp.fixer(v, nouveau, u);
+                    tas.insererOuDiminuer(v, nouveau);
+                }
+            }
+        }
+        return esp;
+    }
+
+    // ==================== A* ====================
+
+    /**
+     * Minorant de la distance restante d'un sommet vers la cible de la requête.
+     */
+    interface Potentiel {
+        double estimer(int v);
+    }
+
+    static Potentiel euclidien(GrapheCompact gc, int cible) {
+        double xc = gc.x(cible), yc = gc.y(cible), echelle = gc.echelleEuclidienne();
+        return v -> {
+            double dx = gc.x(v) - xc, dy = gc.y(v) - yc;
+            return echelle * Math.sqrt(dx * dx + dy * dy);
+        };
+    }
+
+    static Potentiel haversine(GrapheCompact gc, int cible) {
+        double xc = gc.x(cible), yc = gc.y(cible), echelle = gc.echelleHaversine();
+        return v -> echelle * GrapheCompact.haversine(gc.x(v), gc.y(v), xc, yc);
+    }
+
+    /**
+     * A* : Dijkstra dont la file est ordonnée par distance + minorant. Un
+     * sommet déjà fixé peut être rouvert, ce qui garde un résultat exact même
+     * si le minorant n'est pas cohérent (seulement admissible).
+     */
+    static EspaceTravail aEtoile(GrapheCompact gc, int source, int cible, Potentiel h) {
+        EspaceTravail esp = ESPACE.get();
+        esp.preparer(gc.nombreSommets());
+        esp.fixer(source, 0.0, -1);
+        TasIndexe tas = esp.tas;
+        tas.insererOuDiminuer(source, h.estimer(source));
+
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            esp.regle[u] = esp.epoque;
+            if (u == cible)
+                break;
+            double du = esp.dist[u];
+
+            for (int k = gc.debut(u); k < gc.fin(u); k++) {
+                int v = gc.cible(k);
+                double nouveau = du + gc.longueur(k);
+                if (nouveau < esp.distance(v)) {
+                    esp.fixer(v, nouveau, u);
+                    tas.insererOuDiminuer(v, nouveau + h.estimer(v));
+                }
+            }
+        }
+        return esp;
+    }
+
+    // ==================== BIDIRECTIONNEL ====================
+
+    /**
+     * Dijkstra bidirectionnel : recherche avant depuis le départ sur les arcs
+     * sortants, recherche arrière depuis l'arrivée sur les arcs entrants (les
+     * sens uniques sont donc respectés). On développe à chaque pas la file la
+     * plus petite et on s'arrête quand min(avant) + min(arrière) atteint la
+     * meilleure jonction connue.
+     *
+     * @return La distance, ou Double.MAX_VALUE si inaccessible.
+     */
+    static double bidirectionnel(GrapheCompact gc, int depart, int arrivee) {
+        int n = gc.nombreSommets();
+        EspaceTravail avant = ESPACE.get();
+        EspaceTravail arriere = ESPACE_ARRIERE.get();
+        avant.preparer(n);
+        arriere.preparer(n);
+        avant.fixer(depart, 0.0, -1);
+        arriere.fixer(arrivee, 0.0, -1);
+        avant.tas.insererOuDiminuer(depart, 0.0);
+        arriere.tas.insererOuDiminuer(arrivee, 0.0);
+
+        double meilleure = Double.MAX_VALUE;
+        int rencontre = -1;
+
+        while (!avant.tas.estVide() && !arriere.tas.estVide()) {
+            if (avant.tas.cleMin() + arriere.tas.cleMin() >= meilleure)
+                break;
+
+            if (avant.tas.taille() <= arriere.tas.taille()) {
+                int u = avant.tas.extraireMin();
+                avant.regle[u] = avant.epoque;
+                double du = avant.dist[u];
+                for (int k = gc.debut(u); k < gc.fin(u); k++) {
+                    int v = gc.cible(k);
+                    double nouveau = du + gc.longueur(k);
+                    if (nouveau < avant.distance(v)) {
+                        avant.fixer(v, nouveau, u);
+                        avant.tas.insererOuDiminuer(v, nouveau);
+                        double reste = arriere.distance(v);
+                        if (reste < Double.MAX_VALUE && nouveau + reste < meilleure) {
+                            meilleure = nouveau + reste;
+                            rencontre = v;
+                        }
+                    }
+                }
+            } else {
+                int u = arriere.tas.extraireMin();
+                arriere.regle[u] = arriere.epoque;
+                double du = arriere.dist[u];
+                for (int k = gc.debutInverse(u); k < gc.finInverse(u); k++) {
+                    int v = gc.origine(k);
+                    double nouveau = du + gc.longueurInverse(k);
+                    if (nouveau < arriere.distance(v)) {
+                        // pred en arrière = successeur sur le chemin vers l'arrivée
+                        arriere.fixer(v, nouveau, u);
+                        arriere.tas.insererOuDiminuer(v, nouveau);
+                        double debutChemin = avant.distance(v);
+                        if (debutChemin < Double.MAX_VALUE && nouveau + debutChemin < meilleure) {
+                            meilleure = nouveau + debutChemin;
+                            rencontre = v;
+                        }
+                    }
+                }
+            }
+        }
+        avant.rencontre = rencontre;
+        return meilleure;
+    }
+
+    /**
+     * Reconstruit le chemin de la dernière recherche bidirectionnelle du thread
+     * courant.
+     */
+    private static int[] cheminBidirectionnel(int depart, int arrivee) {
+        EspaceTravail avant = ESPACE.get();
+        EspaceTravail arriere = ESPACE_ARRIERE.get();
+        int m = avant.rencontre;
+        if (m < 0)
+            return new int[0];
+
+        int[] debutChemin = m == depart ? new int[] { depart } : avant.chemin(depart, m);
+        int longueurFin = 0;
+        for (int v = m; v != arrivee; v = arriere.predecesseur(v))
+            longueurFin++;
+
+        int[] chemin = Arrays.copyOf(debutChemin, debutChemin.length + longueurFin);
+        int i = debutChemin.length;
+        for (int v = arriere.predecesseur(m); i < chemin.length; v = arriere.predecesseur(v))
+            chemin[i++] = v;
+        return chemin;
+    }
+
+    static int[] reconstruire(int[] pred, int depart, int arrivee) {
+        if (pred[arrivee] < 0)
+            return new int[0];
 
-        List<Sommet> chemin = new ArrayList<>();
-        Sommet courant = arrivee;
-        while (courant != null) {
-            chemin.add(0, courant);
-            courant = pred.get(courant);
+        int longueur = 1;
+        for (int v = arrivee; v != depart; v = pred[v])
+            longueur++;
+        int[] chemin = new int[longueur];
+        int v = arrivee;
+        for (int i = longueur - 1; i >= 0; i--) {
+            chemin[i] = v;
+            v = pred[v];
         }
         return chemin;
     }
-}
\ No newline at end of file
+}
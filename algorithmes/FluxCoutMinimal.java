@@ -0,0 +1,147 @@
+package algorithmes;
+
+import java.util.*;
+
+/**
+ * Flot de coût minimal par plus courts chemins successifs avec potentiels
+ * (algorithme de Ford-Fulkerson / Busacker-Gowen) : à chaque étape, un
+ * Dijkstra sur les coûts réduits c(u,v) + π(u) - π(v), tous positifs, trouve
+ * le chemin augmentant le moins cher du réseau résiduel.
+ * Le réseau est stocké dans des tableaux primitifs : l'arc 2i est l'arc
+ * ajouté, 2i + 1 son arc inverse résiduel. Les coûts doivent être positifs
+ * ou nuls.
+ * Utilisé par le Postier Chinois orienté (choix des arcs à doubler).
+ */
+public class FluxCoutMinimal {
+
+    public static final long CAPACITE_INFINIE = Long.MAX_VALUE / 4;
+
+    private final int n;
+    private int nbArcs = 0;
+    private int[] cible = new int[16];
+    private int[] suivant = new int[16]; // arc suivant partant du même sommet
+    private long[] capacite = new long[16]; // capacité résiduelle
+    private double[] cout = new double[16];
+    private final int[] premier; // premier arc partant de chaque sommet
+
+    private double coutTotal = 0.0;
+    private int augmentations = 0;
+
+    /**
+     * @param n Nombre de sommets du réseau (0..n-1).
+     */
+    public FluxCoutMinimal(int n) {
+        this.n = n;
+        this.premier = new int[n];
+        Arrays.fill(premier, -1);
+    }
+
+    /**
+     * Ajoute un arc u → v.
+     *
+     * @return L'indice de l'arc, pour lire son flux après résolution.
+     */
+    public int ajouterArc(int u, int v, long cap, double c) {
+        if (nbArcs + 2 > cible.length) {
+            int taille = 2 * cible.length;
+            cible = Arrays.copyOf(cible, taille);
+            suivant = Arrays.copyOf(suivant, taille);
+            capacite = Arrays.copyOf(capacite, taille);
+            cout = Arrays.copyOf(cout, taille);
+        }
+        int a = nbArcs;
+        cible[a] = v;
+        capacite[a] = cap;
+        cout[a] = c;
+        suivant[a] = premier[u];
+        premier[u] = a;
+        cible[a + 1] = u;
+        capacite[a + 1] = 0;
+        cout[a + 1] = -c;
+        suivant[a + 1] = premier[v];
+        premier[v] = a + 1;
+        nbArcs += 2;
+        return a;
+    }
+
+    /**
+     * Flux passant sur un arc ajouté.
+     */
+    public long flux(int arc) {
+        return capacite[arc + 1];
+    }
+
+    public double getCoutTotal() {
+        return coutTotal;
+    }
+
+    public int getAugmentations() {
+        return augmentations;
+    }
+
+    /**
+     * Envoie jusqu'à flotMax unités de source à puits au coût minimal.
+     *
+     * @return Le flot effectivement envoyé (inférieur à flotMax si le puits
+     *         devient inaccessible).
+     */
+    public long resoudre(int source, int puits, long flotMax) {
+        double[] potentiel = new double[n];
+        double[] dist = new double[n];
+        int[] arcArrivee = new int[n];
+        boolean[] fixe = new boolean[n];
+        TasIndexe tas = new TasIndexe();
+        tas.preparer(n);
+
+        long flot = 0;
+        while (flot < flotMax) {
+            // Dijkstra sur les coûts réduits, arrêté dès que le puits est fixé
+            Arrays.fill(dist, Double.MAX_VALUE);
+            Arrays.fill(fixe, false);
+            dist[source] = 0.0;
+            arcArrivee[source] = -1;
+            tas.vider();
+            tas.insererOuDiminuer(source, 0.0);
+            while (!tas.estVide()) {
+                int u = tas.extraireMin();
+                fixe[u] = true;
+                if (u == puits)
+                    break;
+                for (int a = premier[u]; a >= 0; a = suivant[a]) {
+                    if (capacite[a] <= 0)
+                        continue;
+                    int v = cible[a];
+                    if (fixe[v])
+                        continue;
+                    // Les erreurs d'arrondi ne doivent pas rendre un coût réduit négatif
+                    double nd = dist[u] + Math.max(0.0, cout[a] + potentiel[u] - potentiel[v]);
+                    if (nd < dist[v]) {
+                        dist[v] = nd;
+                        arcArrivee[v] = a;
+                        tas.insererOuDiminuer(v, nd);
+                    }
+                }
+            }
+            if (!fixe[puits])
+                break;
+
+            // Potentiels : les sommets non fixés reçoivent dist(puits)
+            double dPuits = dist[puits];
+            for (int v = 0; v < n; v++)
+                potentiel[v] += fixe[v] ? dist[v] : dPuits;
+
+            long envoi = flotMax - flot;
+            for (int v = puits; v != source; v = cible[arcArrivee[v] ^ 1])
+                envoi = Math.min(envoi, capacite[arcArrivee[v]]);
+            for (int v = puits; v != source; v = cible[arcArrivee[v] ^ 1]) {
+                int a = arcArrivee[v];
+                capacite[a] -= envoi;
+                capacite[a ^ 1] += envoi;
+                coutTotal += envoi * cout[a];
+            }
+            flot += envoi;
+            augmentations++;
+        }
+        return flot;
+    }
+}
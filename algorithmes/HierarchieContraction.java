@@ -0,0 +1,651 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Hiérarchies de contraction (Contraction Hierarchies) pour les plus courts
+ * chemins à l'échelle de la métropole.
+ * Prétraitement : les sommets sont contractés un à un, du moins important au
+ * plus important (priorité = différence d'arêtes + voisins déjà contractés
+ * + profondeur, mise à jour paresseuse). Contracter v ajoute un raccourci u --> w pour
+ * chaque chemin u --> v --> w qui n'a pas de chemin témoin aussi court
+ * évitant v. Les arcs sont orientés : une rue à sens unique ne produit
+ * qu'un arc, et les raccourcis respectent donc les sens uniques.
+ * Requête : Dijkstra bidirectionnel ne montant que vers des sommets de rang
+ * supérieur, ce qui n'explore qu'une petite partie du graphe. Chaque
+ * raccourci mémorise les deux arcs qu'il remplace, ce qui permet de
+ * redéployer le chemin complet.
+ * Une requête plusieurs-vers-plusieurs par seaux remplit une matrice de
+ * distances (TSP, tournées) sans lancer un Dijkstra complet par point.
+ */
+public class HierarchieContraction {
+
+    // Nombre maximal de sommets fixés par recherche de témoin (au-delà, on
+    // ajoute le raccourci : c'est toujours correct, seulement moins compact)
+    private static final int LIMITE_TEMOIN = 500;
+
+    private final GrapheCompact gc;
+    private final int n;
+    private final int[] rang; // ordre de contraction
+
+    // Arcs : originaux (enfants = -1) puis raccourcis
+    private int nbArcs;
+    private int[] arcSource;
+    private int[] arcCible;
+    private double[] arcLongueur;
+    private int[] arcEnfant1; // arc source --> sommet contracté
+    private int[] arcEnfant2; // arc sommet contracté --> cible
+    private int nbRaccourcis;
+
+    // Graphes de recherche (CSR d'indices d'arcs)
+    private int[] debutMontant; // arcs u --> w avec rang[u] < rang[w], rangés en u
+    private int[] arcsMontants;
+    private int[] debutDescendant; // arcs x --> y avec rang[x] > rang[y], rangés en y
+    private int[] arcsDescendants;
+
+    private long dureePretraitementMs;
+
+    // Espace de requête propre à chaque thread
+    private final ThreadLocal<EspaceRequete> espace;
+
+    private HierarchieContraction(GrapheCompact gc) {
+        this.gc = gc;
+        this.n = gc.nombreSommets();
+        this.rang = new int[n];
+        this.espace = ThreadLocal.withInitial(() -> new EspaceRequete(n));
+    }
+
+    /**
+     * Construit la hiérarchie de contraction d'un graphe.
+     *
+     * @param g Le graphe.
+     * @return La hiérarchie, prête pour les requêtes.
+     */
+    public static HierarchieContraction construire(Graphe g) {
+        long debut = System.currentTimeMillis();
+        HierarchieContraction ch = new HierarchieContraction(g.compacter());
+        ch.contracter();
+        ch.construireGraphesRecherche();
+        ch.dureePretraitementMs = System.currentTimeMillis() - debut;
+        return ch;
+    }
+
+    public boolean estAJour(Graphe g) {
+        return g.compacter() == gc;
+    }
+
+    public int nombreRaccourcis() {
+        return nbRaccourcis;
+    }
+
+    public long getDureePretraitementMs() {
+        return dureePretraitementMs;
+    }
+
+    // ==================== PRÉTRAITEMENT ====================
+
+    /**
+     * Liste d'entiers extensible (indices d'arcs incidents).
+     */
+    private static final class ListeEntiers {
+        int[] valeurs = new int[4];
+        int taille = 0;
+
+        void ajouter(int v) {
+            if (taille == valeurs.length)
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            valeurs[taille++] = v;
+        }
+
+        // Retire les arcs dont l'extrémité (selon le tableau donné) est v
+        void retirerIncidents(int v, int[] extremite) {
+            int k = 0;
+            for (int i = 0; i < taille; i++)
+                if (extremite[valeurs[i]] != v)
+                    valeurs[k++] = valeurs[i];
+            taille = k;
+        }
+    }
+
+    // État de la contraction (libéré à la fin)
+    private ListeEntiers[] sortants;
+    private ListeEntiers[] entrants;
+    private int[] voisinsContractes;
+    private int[] profondeur; // hauteur de la hiérarchie déjà construite sous le sommet
+    // Recherche de témoin
+    private double[] distTemoin;
+    private int[] marqueTemoin;
+    private int[] marqueCible;
+    private int epoqueTemoin;
+    private TasIndexe tasTemoin;
+
+    private void contracter() {
+        int m = gc.nombreArcs();
+        arcSource = new int[Math.max(16, m * 2)];
+        arcCible = new int[arcSource.length];
+        arcLongueur = new double[arcSource.length];
+        arcEnfant1 = new int[arcSource.length];
+        arcEnfant2 = new int[arcSource.length];
+
+        sortants = new ListeEntiers[n];
+        entrants = new ListeEntiers[n];
+        for (int v = 0; v < n; v++) {
+            sortants[v] = new ListeEntiers();
+            entrants[v] = new ListeEntiers();
+        }
+        for (int u = 0; u < n; u++) {
+            for (int k = gc.debut(u); k < gc.fin(u); k++) {
+                int w = gc.cible(k);
+                if (w != u) // les boucles ne servent jamais un plus court chemin
+                    nouvelArc(u, w, gc.longueur(k), -1, -1);
+            }
+        }
+
+        voisinsContractes = new int[n];
+        profondeur = new int[n];
+        distTemoin = new double[n];
+        marqueTemoin = new int[n];
+        marqueCible = new int[n];
+        tasTemoin = new TasIndexe();
+        tasTemoin.preparer(n);
+
+        TasIndexe file = new TasIndexe();
+        file.preparer(n);
+        for (int v = 0; v < n; v++)
+            file.changerCle(v, priorite(v));
+
+        int niveau = 0;
+        while (!file.estVide()) {
+            int v = file.extraireMin();
+            // Mise à jour paresseuse : la priorité a pu augmenter
+            double p = priorite(v);
+            if (!file.estVide() && p > file.cleMin()) {
+                file.changerCle(v, p);
+                continue;
+            }
+
+            contracterSommet(v, false);
+            rang[v] = niveau++;
+
+            // Les arcs vers v sortent du graphe restant ; chaque voisin est
+            // ensuite réévalué une seule fois
+            nouvelleEpoque();
+            ListeEntiers voisins = new ListeEntiers();
+            ListeEntiers[] cotes = { sortants[v], entrants[v] };
+            for (ListeEntiers liste : cotes) {
+                for (int i = 0; i < liste.taille; i++) {
+                    int a = liste.valeurs[i];
+                    int x = arcSource[a] == v ? arcCible[a] : arcSource[a];
+                    if (marqueCible[x] != epoqueTemoin) {
+                        marqueCible[x] = epoqueTemoin;
+                        voisins.ajouter(x);
+                    }
+                }
+            }
+            for (int i = 0; i < voisins.taille; i++) {
+                int x = voisins.valeurs[i];
+                sortants[x].retirerIncidents(v, arcCible);
+                entrants[x].retirerIncidents(v, arcSource);
+                voisinsContractes[x]++;
+                profondeur[x] = Math.max(profondeur[x], profondeur[v] + 1);
+            }
+            for (int i = 0; i < voisins.taille; i++)
+                file.changerCle(voisins.valeurs[i], priorite(voisins.valeurs[i]));
+        }
+
+        sortants = null;
+        entrants = null;
+        voisinsContractes = null;
+        profondeur = null;
+        distTemoin = null;
+        marqueTemoin = null;
+        marqueCible = null;
+        tasTemoin = null;
+    }
+
+    private double priorite(int v) {
+        int raccourcis = contracterSommet(v, true);
+        int supprimes = sortants[v].taille + entrants[v].taille;
+        return (raccourcis - supprimes) + voisinsContractes[v] + profondeur[v];
+    }
+
+    /**
+     * Contracte v (ou simule la contraction) et renvoie le nombre de
+     * raccourcis nécessaires.
+     */
+    private int contracterSommet(int v, boolean simulation) {
+        int raccourcis = 0;
+        ListeEntiers in = entrants[v], out = sortants[v];
+
+        for (int i = 0; i < in.taille; i++) {
+            int a1 = in.valeurs[i];
+            int u = arcSource[a1];
+            if (u == v)
+                continue;
+
+            // Cibles de la recherche de témoin : les w atteints via v
+            nouvelleEpoque();
+            double max = -1.0;
+            int nbCibles = 0;
+            for (int j = 0; j < out.taille; j++) {
+                int w = arcCible[out.valeurs[j]];
+                if (w != u && w != v) {
+                    max = Math.max(max, arcLongueur[a1] + arcLongueur[out.valeurs[j]]);
+                    if (marqueCible[w] != epoqueTemoin) {
+                        marqueCible[w] = epoqueTemoin;
+                        nbCibles++;
+                    }
+                }
+            }
+            if (nbCibles == 0)
+                continue;
+
+            rechercherTemoins(u, v, max, nbCibles);
+
+            for (int j = 0; j < out.taille; j++) {
+                int a2 = out.valeurs[j];
+                int w = arcCible[a2];
+                if (w == u || w == v)
+                    continue;
+                double viaV = arcLongueur[a1] + arcLongueur[a2];
+                double temoin = marqueTemoin[w] == epoqueTemoin ? distTemoin[w] : Double.MAX_VALUE;
+                if (temoin <= viaV)
+                    continue;
+                raccourcis++;
+                if (!simulation)
+                    ajouterRaccourci(u, w, viaV, a1, a2);
+            }
+        }
+        return raccourcis;
+    }
+
+    private void nouvelleEpoque() {
+        if (++epoqueTemoin == Integer.MAX_VALUE) {
+            Arrays.fill(marqueTemoin, 0);
+            Arrays.fill(marqueCible, 0);
+            epoqueTemoin = 1;
+        }
+    }
+
+    /**
+     * Dijkstra borné depuis u dans le graphe restant, en évitant v. S'arrête
+     * dès que toutes les cibles sont fixées, que la distance dépasse la borne
+     * ou que LIMITE_TEMOIN sommets ont été fixés.
+     */
+    private void rechercherTemoins(int u, int v, double borne, int nbCibles) {
+        tasTemoin.vider();
+        distTemoin[u] = 0.0;
+        marqueTemoin[u] = epoqueTemoin;
+        tasTemoin.insererOuDiminuer(u, 0.0);
+        int fixes = 0;
+
+        while (!tasTemoin.estVide() && fixes < LIMITE_TEMOIN) {
+            if (tasTemoin.cleMin() > borne)
+                break;
+            int x = tasTemoin.extraireMin();
+            fixes++;
+            if (marqueCible[x] == epoqueTemoin && --nbCibles == 0)
+                break;
+            double dx = distTemoin[x];
+            ListeEntiers liste = sortants[x];
+            for (int i = 0; i < liste.taille; i++) {
+                int a = liste.valeurs[i];
+                int y = arcCible[a];
+                if (y == v)
+                    continue;
+                double nouveau = dx + arcLongueur[a];
+                if (marqueTemoin[y] != epoqueTemoin || nouveau < distTemoin[y]) {
+                    distTemoin[y] = nouveau;
+                    marqueTemoin[y] = epoqueTemoin;
+                    tasTemoin.insererOuDiminuer(y, nouveau);
+                }
+            }
+        }
+    }
+
+    private void ajouterRaccourci(int u, int w, double longueur, int enfant1, int enfant2) {
+        // Un arc u --> w plus long existe déjà : on le remplace. Ses deux
+        // extrémités ne sont pas contractées, donc aucun raccourci ne le
+        // référence encore.
+        ListeEntiers liste = sortants[u];
+        for (int i = 0; i < liste.taille; i++) {
+            int a = liste.valeurs[i];
+            if (arcCible[a] == w) {
+                if (arcLongueur[a] > longueur) {
+                    if (arcEnfant1[a] < 0)
+                        nbRaccourcis++;
+                    arcLongueur[a] = longueur;
+                    arcEnfant1[a] = enfant1;
+                    arcEnfant2[a] = enfant2;
+                }
+                return;
+            }
+        }
+        nouvelArc(u, w, longueur, enfant1, enfant2);
+        nbRaccourcis++;
+    }
+
+    private void nouvelArc(int u, int w, double longueur, int enfant1, int enfant2) {
+        if (nbArcs == arcSource.length) {
+            int capacite = nbArcs * 2;
+            arcSource = Arrays.copyOf(arcSource, capacite);
+            arcCible = Arrays.copyOf(arcCible, capacite);
+            arcLongueur = Arrays.copyOf(arcLongueur, capacite);
+            arcEnfant1 = Arrays.copyOf(arcEnfant1, capacite);
+            arcEnfant2 = Arrays.copyOf(arcEnfant2, capacite);
+        }
+        int a = nbArcs++;
+        arcSource[a] = u;
+        arcCible[a] = w;
+        arcLongueur[a] = longueur;
+        arcEnfant1[a] = enfant1;
+        arcEnfant2[a] = enfant2;
+        sortants[u].ajouter(a);
+        entrants[w].ajouter(a);
+    }
+
+    private void construireGraphesRecherche() {
+        debutMontant = new int[n + 1];
+        debutDescendant = new int[n + 1];
+        for (int a = 0; a < nbArcs; a++) {
+            if (rang[arcSource[a]] < rang[arcCible[a]])
+                debutMontant[arcSource[a] + 1]++;
+            else
+                debutDescendant[arcCible[a] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            debutMontant[v + 1] += debutMontant[v];
+            debutDescendant[v + 1] += debutDescendant[v];
+        }
+        arcsMontants = new int[debutMontant[n]];
+        arcsDescendants = new int[debutDescendant[n]];
+        int[] posM = Arrays.copyOf(debutMontant, n);
+        int[] posD = Arrays.copyOf(debutDescendant, n);
+        for (int a = 0; a < nbArcs; a++) {
+            if (rang[arcSource[a]] < rang[arcCible[a]])
+                arcsMontants[posM[arcSource[a]]++] = a;
+            else
+                arcsDescendants[posD[arcCible[a]]++] = a;
+        }
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Tableaux de travail d'une requête (réutilisés, marqués par époque).
+     */
+    private static final class EspaceRequete {
+        final double[] distAvant, distArriere;
+        final int[] arcAvant, arcArriere; // arc ayant permis d'atteindre le sommet
+        final int[] marqueAvant, marqueArriere;
+        int epoque = 0;
+        int jonction = -1; // sommet de rencontre de la dernière requête
+        final TasIndexe tasAvant = new TasIndexe(), tasArriere = new TasIndexe();
+
+        EspaceRequete(int n) {
+            distAvant = new double[n];
+            distArriere = new double[n];
+            arcAvant = new int[n];
+            arcArriere = new int[n];
+            marqueAvant = new int[n];
+            marqueArriere = new int[n];
+        }
+
+        void preparer() {
+            if (++epoque == Integer.MAX_VALUE) {
+                Arrays.fill(marqueAvant, 0);
+                Arrays.fill(marqueArriere, 0);
+                epoque = 1;
+            }
+            tasAvant.preparer(distAvant.length);
+            tasArriere.preparer(distAvant.length);
+        }
+    }
+
+    /**
+     * Distance entre deux sommets.
+     *
+     * @return La distance, ou Double.MAX_VALUE si inaccessible.
+     */
+    public double distance(Sommet depart, Sommet arrivee) {
+        int s = gc.indice(depart), t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return Double.MAX_VALUE;
+        return rechercher(s, t, espace.get());
+    }
+
+    /**
+     * Plus court chemin entre deux sommets, raccourcis redéployés (même
+     * convention que Dijkstra.cheminLePlusCourt).
+     *
+     * @return Le chemin complet, vide si inaccessible.
+     */
+    public List<Sommet> chemin(Sommet depart, Sommet arrivee) {
+        if (depart.equals(arrivee))
+            return List.of(depart);
+        int s = gc.indice(depart), t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return List.of();
+        EspaceRequete esp = espace.get();
+        if (rechercher(s, t, esp) >= Double.MAX_VALUE)
+            return List.of();
+
+        // Arcs de la hiérarchie : partie montante (vers la jonction) puis
+        // partie descendante
+        int jonction = esp.jonction;
+        Deque<Integer> arcs = new ArrayDeque<>();
+        for (int v = jonction; v != s; v = arcSource[esp.arcAvant[v]])
+            arcs.addFirst(esp.arcAvant[v]);
+        List<Integer> descente = new ArrayList<>();
+        for (int v = jonction; v != t; v = arcCible[esp.arcArriere[v]])
+            descente.add(esp.arcArriere[v]);
+        arcs.addAll(descente);
+
+        List<Sommet> chemin = new ArrayList<>();
+        chemin.add(depart);
+        for (int a : arcs)
+            deployer(a, chemin);
+        return chemin;
+    }
+
+    private double rechercher(int s, int t, EspaceRequete esp) {
+        esp.preparer();
+        int ep = esp.epoque;
+        esp.distAvant[s] = 0.0;
+        esp.marqueAvant[s] = ep;
+        esp.tasAvant.insererOuDiminuer(s, 0.0);
+        esp.distArriere[t] = 0.0;
+        esp.marqueArriere[t] = ep;
+        esp.tasArriere.insererOuDiminuer(t, 0.0);
+
+        double meilleure = Double.MAX_VALUE;
+        int jonction = -1;
+        boolean avant = true;
+
+        while (true) {
+            boolean avantActif = !esp.tasAvant.estVide() && esp.tasAvant.cleMin() < meilleure;
+            boolean arriereActif = !esp.tasArriere.estVide() && esp.tasArriere.cleMin() < meilleure;
+            if (!avantActif && !arriereActif)
+                break;
+            avant = avantActif && (!arriereActif || !avant);
+
+            if (avant) {
+                int u = esp.tasAvant.extraireMin();
+                double du = esp.distAvant[u];
+                if (esp.marqueArriere[u] == ep && du + esp.distArriere[u] < meilleure) {
+                    meilleure = du + esp.distArriere[u];
+                    jonction = u;
+                }
+                for (int i = debutMontant[u]; i < debutMontant[u + 1]; i++) {
+                    int a = arcsMontants[i];
+                    int w = arcCible[a];
+                    double nouveau = du + arcLongueur[a];
+                    if (esp.marqueAvant[w] != ep || nouveau < esp.distAvant[w]) {
+                        esp.distAvant[w] = nouveau;
+                        esp.arcAvant[w] = a;
+                        esp.marqueAvant[w] = ep;
+                        esp.tasAvant.insererOuDiminuer(w, nouveau);
+                    }
+                }
+            } else {
+                int u = esp.tasArriere.extraireMin();
+                double du = esp.distArriere[u];
+                if (esp.marqueAvant[u] == ep && du + esp.distAvant[u] < meilleure) {
+                    meilleure = du + esp.distAvant[u];
+                    jonction = u;
+                }
+                for (int i = debutDescendant[u]; i < debutDescendant[u + 1]; i++) {
+                    int a = arcsDescendants[i];
+                    int x = arcSource[a];
+                    double nouveau = du + arcLongueur[a];
+                    if (esp.marqueArriere[x] != ep || nouveau < esp.distArriere[x]) {
+                        esp.distArriere[x] = nouveau;
+                        esp.arcArriere[x] = a;
+                        esp.marqueArriere[x] = ep;
+                        esp.tasArriere.insererOuDiminuer(x, nouveau);
+                    }
+                }
+            }
+        }
+        esp.jonction = jonction;
+        return meilleure;
+    }
+
+    /**
+     * Ajoute au chemin les sommets d'un arc de la hiérarchie, raccourcis
+     * redéployés récursivement (pile explicite).
+     */
+    private void deployer(int arc, List<Sommet> chemin) {
+        Deque<Integer> pile = new ArrayDeque<>();
+        pile.push(arc);
+        while (!pile.isEmpty()) {
+            int a = pile.pop();
+            if (arcEnfant1[a] < 0) {
+                chemin.add(gc.sommet(arcCible[a]));
+            } else {
+                pile.push(arcEnfant2[a]);
+                pile.push(arcEnfant1[a]);
+            }
+        }
+    }
+
+    // ==================== PLUSIEURS-VERS-PLUSIEURS ====================
+
+    /**
+     * Matrice de distances entre des départs et des arrivées par la méthode
+     * des seaux : une recherche montante arrière par arrivée dépose
+     * (arrivée, distance) dans un seau à chaque sommet atteint ; une
+     * recherche montante avant par départ parcourt ensuite les seaux.
+     *
+     * @param departs  Les sommets de départ (lignes).
+     * @param arrivees Les sommets d'arrivée (colonnes).
+     * @return Matrice plate en ordre ligne : m[i * arrivees.size() + j]
+     *         (Double.MAX_VALUE si inaccessible).
+     */
+    public double[] matrice(List<Sommet> departs, List<Sommet> arrivees) {
+        int nd = departs.size(), na = arrivees.size();
+        long cases = (long) nd * na;
+        if (cases > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(String.format(
+                    "Matrice %d x %d trop grande (%d cases) pour un seul tableau", nd, na, cases));
+        double[] m = new double[(int) cases];
+        Arrays.fill(m, Double.MAX_VALUE);
+        EspaceRequete esp = espace.get();
+
+        // 1. Seaux : (sommet, arrivée, distance), regroupés ensuite par sommet
+        int nbEntrees = 0;
+        int[] entreeSommet = new int[(int) Math.max(16, Math.min(8L * na, 1 << 24))];
+        int[] entreeArrivee = new int[entreeSommet.length];
+        double[] entreeDist = new double[entreeSommet.length];
+        for (int j = 0; j < na; j++) {
+            int t = gc.indice(arrivees.get(j));
+            if (t < 0)
+                continue;
+            esp.preparer();
+            int ep = esp.epoque;
+            esp.distArriere[t] = 0.0;
+            esp.marqueArriere[t] = ep;
+            esp.tasArriere.insererOuDiminuer(t, 0.0);
+            while (!esp.tasArriere.estVide()) {
+                int u = esp.tasArriere.extraireMin();
+                double du = esp.distArriere[u];
+                if (nbEntrees == entreeSommet.length) {
+                    entreeSommet = Arrays.copyOf(entreeSommet, nbEntrees * 2);
+                    entreeArrivee = Arrays.copyOf(entreeArrivee, nbEntrees * 2);
+                    entreeDist = Arrays.copyOf(entreeDist, nbEntrees * 2);
+                }
+                entreeSommet[nbEntrees] = u;
+                entreeArrivee[nbEntrees] = j;
+                entreeDist[nbEntrees] = du;
+                nbEntrees++;
+                for (int i = debutDescendant[u]; i < debutDescendant[u + 1]; i++) {
+                    int a = arcsDescendants[i];
+                    int x = arcSource[a];
+                    double nouveau = du + arcLongueur[a];
+                    if (esp.marqueArriere[x] != ep || nouveau < esp.distArriere[x]) {
+                        esp.distArriere[x] = nouveau;
+                        esp.marqueArriere[x] = ep;
+                        esp.tasArriere.insererOuDiminuer(x, nouveau);
+                    }
+                }
+            }
+        }
+
+        int[] debutSeau = new int[n + 1];
+        for (int e = 0; e < nbEntrees; e++)
+            debutSeau[entreeSommet[e] + 1]++;
+        for (int v = 0; v < n; v++)
+            debutSeau[v + 1] += debutSeau[v];
+        int[] seauArrivee = new int[nbEntrees];
+        double[] seauDist = new double[nbEntrees];
+        int[] pos = Arrays.copyOf(debutSeau, n);
+        for (int e = 0; e < nbEntrees; e++) {
+            int p = pos[entreeSommet[e]]++;
+            seauArrivee[p] = entreeArrivee[e];
+            seauDist[p] = entreeDist[e];
+        }
+
+        // 2. Recherche montante avant depuis chaque départ
+        for (int i = 0; i < nd; i++) {
+            int s = gc.indice(departs.get(i));
+            if (s < 0)
+                continue;
+            esp.preparer();
+            int ep = esp.epoque;
+            esp.distAvant[s] = 0.0;
+            esp.marqueAvant[s] = ep;
+            esp.tasAvant.insererOuDiminuer(s, 0.0);
+            int ligne = i * na;
+            while (!esp.tasAvant.estVide()) {
+                int u = esp.tasAvant.extraireMin();
+                double du = esp.distAvant[u];
+                for (int b = debutSeau[u]; b < debutSeau[u + 1]; b++) {
+                    double total = du + seauDist[b];
+                    if (total < m[ligne + seauArrivee[b]])
+                        m[ligne + seauArrivee[b]] = total;
+                }
+                for (int k = debutMontant[u]; k < debutMontant[u + 1]; k++) {
+                    int a = arcsMontants[k];
+                    int w = arcCible[a];
+                    double nouveau = du + arcLongueur[a];
+                    if (esp.marqueAvant[w] != ep || nouveau < esp.distAvant[w]) {
+                        esp.distAvant[w] = nouveau;
+                        esp.marqueAvant[w] = ep;
+                        esp.tasAvant.insererOuDiminuer(w, nouveau);
+                    }
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Affiche le coût du prétraitement.
+     */
+    public void afficherRapport() {
+        System.out.println("Hiérarchie de contraction : " + n + " sommets, " + gc.nombreArcs()
+                + " arcs, " + nbRaccourcis + " raccourcis");
+        System.out.printf("   Durée du prétraitement : %d ms%n", dureePretraitementMs);
+    }
+}
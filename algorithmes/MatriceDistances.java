@@ -0,0 +1,456 @@
+package algorithmes;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import modele.*;
+
+/**
+ * Service partagé de distances et de plus courts chemins pour les
+ * planificateurs de tournées (TSP, MST, plus proche voisin...).
+ * Les arbres de plus courts chemins (distances + prédécesseurs) sont calculés
+ * une fois par source puis gardés en cache, avec une mémoire bornée et une
+ * éviction LRU (le moins récemment utilisé part en premier).
+ * Le cache est associé à une version du graphe : toute modification du
+ * Graphe (ajout de sommet ou d'arête) le vide automatiquement.
+ * Une hiérarchie de contraction peut être associée au graphe
+ * (utiliserHierarchie) : les requêtes isolées et les matrices passent alors
+ * par elle au lieu de Dijkstra. À défaut, des tables ALT (utiliserALT)
+ * guident les requêtes isolées par A*.
+ */
+public class MatriceDistances {
+
+    // Budget mémoire par défaut du cache (64 Mo)
+    public static final long BUDGET_PAR_DEFAUT = 64L * 1024 * 1024;
+
+    // Une instance par graphe, libérée avec le graphe : l'instance ne garde
+    // qu'une référence faible vers sa clé, sinon l'entrée ne partirait jamais
+    private static final Map<Graphe, MatriceDistances> INSTANCES = new WeakHashMap<>();
+
+    private final WeakReference<Graphe> graphe;
+    private long budgetOctets = BUDGET_PAR_DEFAUT;
+    private long octetsUtilises = 0;
+
+    // Version du graphe à laquelle correspondent les arbres en cache
+    private long version = -1;
+    private GrapheCompact gc;
+    // Source (indice compact) --> arbre, en ordre d'accès pour l'éviction LRU
+    private final LinkedHashMap<Integer, Arbre> arbres = new LinkedHashMap<>(16, 0.75f, true);
+    // Accélérateur facultatif (null : Dijkstra seul)
+    private HierarchieContraction hierarchie;
+    private PretraitementALT alt;
+
+    private long succes = 0;
+    private long echecs = 0;
+    private long evictions = 0;
+
+    /**
+     * Arbre des plus courts chemins depuis une source.
+     */
+    private static final class Arbre {
+        final double[] dist;
+        final int[] pred;
+
+        Arbre(double[] dist, int[] pred) {
+            this.dist = dist;
+            this.pred = pred;
+        }
+
+        long octets() {
+            return 8L * dist.length + 4L * pred.length;
+        }
+    }
+
+    private MatriceDistances(Graphe g) {
+        this.graphe = new WeakReference<>(g);
+    }
+
+    /**
+     * Récupère le service de distances partagé d'un graphe.
+     *
+     * @param g Le graphe.
+     * @return L'instance associée (créée au premier appel).
+     */
+    public static MatriceDistances pour(Graphe g) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(g, MatriceDistances::new);
+        }
+    }
+
+    /**
+     * Associe une hiérarchie de contraction au graphe. Les distances et
+     * chemins dont la source n'a pas d'arbre en cache, ainsi que les matrices
+     * de matriceParallele, sont alors calculés par la hiérarchie. Elle est
+     * abandonnée dès que le graphe est modifié.
+     *
+     * @param ch La hiérarchie (null : retour à Dijkstra seul).
+     * @throws IllegalArgumentException Si elle n'a pas été construite sur
+     *                                  l'état actuel du graphe.
+     */
+    public synchronized void utiliserHierarchie(HierarchieContraction ch) {
+        Graphe g = graphe.get();
+        if (ch != null && (g == null || !ch.estAJour(g)))
+            throw new IllegalArgumentException("La hiérarchie de contraction ne correspond pas au graphe actuel.");
+        hierarchie = ch;
+    }
+
+    /**
+     * Associe des tables ALT au graphe : les distances et chemins dont la
+     * source n'a pas d'arbre en cache sont alors calculés par A* (sauf si une
+     * hiérarchie de contraction est aussi associée). Les matrices restent
+     * calculées par Dijkstra, plus rapide qu'un A* par paire. Les tables sont
+     * abandonnées dès que le graphe est modifié.
+     *
+     * @param alt Les tables (null : retour à Dijkstra seul).
+     * @throws IllegalArgumentException Si elles ne correspondent pas à l'état
+     *                                  actuel du graphe.
+     */
+    public synchronized void utiliserALT(PretraitementALT alt) {
+        Graphe g = graphe.get();
+        if (alt != null && (g == null || !alt.estAJour(g)))
+            throw new IllegalArgumentException("Les tables ALT ne correspondent pas au graphe actuel.");
+        this.alt = alt;
+    }
+
+    /**
+     * Distance du plus court chemin entre deux sommets.
+     *
+     * @return La distance, ou Double.MAX_VALUE si inaccessible.
+     */
+    public synchronized double distance(Sommet depart, Sommet arrivee) {
+        if (depart.equals(arrivee))
+            return 0.0;
+        verifierVersion();
+        int s = gc.indice(depart);
+        int t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return Double.MAX_VALUE;
+        if (!arbres.containsKey(s) && hierarchie != null)
+            return hierarchie.distance(depart, arrivee);
+        if (!arbres.containsKey(s) && alt != null)
+            return alt.distance(depart, arrivee);
+        return arbre(s).dist[t];
+    }
+
+    /**
+     * Plus court chemin entre deux sommets (même convention que
+     * Dijkstra.cheminLePlusCourt).
+     *
+     * @return Le chemin, vide si inaccessible.
+     */
+    public synchronized List<Sommet> chemin(Sommet depart, Sommet arrivee) {
+        if (depart.equals(arrivee))
+            return List.of(depart);
+        verifierVersion();
+        int s = gc.indice(depart);
+        int t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return List.of();
+        if (!arbres.containsKey(s) && hierarchie != null)
+            return hierarchie.chemin(depart, arrivee);
+        if (!arbres.containsKey(s) && alt != null)
+            return alt.chemin(depart, arrivee);
+        Arbre a = arbre(s);
+        if (a.pred[t] < 0)
+            return List.of();
+        return gc.versSommets(Dijkstra.reconstruire(a.pred, s, t));
+    }
+
+    /**
+     * Matrice des distances entre des points (ligne = départ).
+     *
+     * @param points Les points.
+     * @return dist[i][j] = distance de points[i] à points[j].
+     */
+    public synchronized double[][] matrice(List<Sommet> points) {
+        int n = points.size();
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                dist[i][j] = distance(points.get(i), points.get(j));
+        return dist;
+    }
+
+    // ==================== CALCUL PARALLÈLE DE MATRICE ====================
+
+    /**
+     * Matrice point à point calculée en parallèle : un Dijkstra
+     * un-vers-plusieurs par point, réparti sur un ForkJoinPool. Chaque thread
+     * utilise son propre espace de travail Dijkstra ; le cache n'est pas
+     * sollicité.
+     *
+     * @param g            Le graphe.
+     * @param points       Les points (lignes et colonnes de la matrice).
+     * @param parallelisme Nombre de threads (&lt;= 0 : nombre de coeurs).
+     * @return Matrice plate n x n en ordre ligne : m[i * n + j] = distance de
+     *         points[i] à points[j] (Double.MAX_VALUE si inaccessible).
+     */
+    public static double[] matriceParallele(Graphe g, List<Sommet> points, int parallelisme) {
+        int n = points.size();
+        int cases = taille(n);
+        HierarchieContraction ch = hierarchieDe(g);
+        if (ch != null)
+            return matriceHierarchie(ch, points);
+        double[] m = new double[cases];
+        calculerLignes(g, points, parallelisme, (i, j, d) -> m[i * n + j] = d);
+        return m;
+    }
+
+    /**
+     * Variante en float de matriceParallele (moitié moins de mémoire pour les
+     * grandes instances).
+     *
+     * @return Matrice plate n x n (Float.MAX_VALUE si inaccessible).
+     */
+    public static float[] matriceParalleleFloat(Graphe g, List<Sommet> points, int parallelisme) {
+        int n = points.size();
+        float[] m = new float[taille(n)];
+        HierarchieContraction ch = hierarchieDe(g);
+        if (ch != null) {
+            // Ligne par ligne, pour ne jamais tenir toute la matrice en double
+            for (int i = 0; i < n; i++) {
+                double[] ligne = ch.matrice(points.subList(i, i + 1), points);
+                for (int j = 0; j < n; j++)
+                    m[i * n + j] = i == j ? 0f
+                            : ligne[j] >= Double.MAX_VALUE ? Float.MAX_VALUE : (float) ligne[j];
+            }
+            return m;
+        }
+        calculerLignes(g, points, parallelisme,
+                (i, j, d) -> m[i * n + j] = d >= Double.MAX_VALUE ? Float.MAX_VALUE : (float) d);
+        return m;
+    }
+
+    /**
+     * Une matrice par groupe de points (une par tournée, par exemple),
+     * calculées d'un seul lot : le graphe n'est compacté qu'une fois et toutes
+     * les lignes se partagent le même ForkJoinPool, au lieu d'un pool par
+     * appel à matriceParallele.
+     *
+     * @param groupes      Les groupes de points.
+     * @param parallelisme Nombre de threads (&lt;= 0 : nombre de coeurs).
+     * @return Pour chaque groupe, sa matrice plate comme matriceParallele.
+     */
+    public static double[][] matricesParGroupe(Graphe g, List<List<Sommet>> groupes, int parallelisme) {
+        double[][] matrices = new double[groupes.size()][];
+        HierarchieContraction ch = hierarchieDe(g);
+        if (ch != null) {
+            for (int k = 0; k < groupes.size(); k++) {
+                taille(groupes.get(k).size());
+                matrices[k] = matriceHierarchie(ch, groupes.get(k));
+            }
+            return matrices;
+        }
+        GrapheCompact gc = g.compacter();
+        List<TacheLignes> taches = new ArrayList<>();
+        for (int k = 0; k < groupes.size(); k++) {
+            List<Sommet> points = groupes.get(k);
+            int n = points.size();
+            double[] m = new double[taille(n)];
+            matrices[k] = m;
+            taches.add(new TacheLignes(gc, indices(gc, points), (i, j, d) -> m[i * n + j] = d, 0, n));
+        }
+        executer(taches, parallelisme);
+        return matrices;
+    }
+
+    /**
+     * Nombre de cases d'une matrice plate n x n.
+     *
+     * @throws IllegalArgumentException Si n² dépasse la taille maximale d'un
+     *                                  tableau Java.
+     */
+    private static int taille(int n) {
+        long cases = (long) n * n;
+        if (cases > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(String.format(
+                    "Matrice de %d points trop grande (%d cases) : utiliser le découpage en secteurs"
+                            + " (DecoupageSecteurs)", n, cases));
+        return (int) cases;
+    }
+
+    /**
+     * Hiérarchie associée au graphe et encore à jour, ou null.
+     */
+    private static HierarchieContraction hierarchieDe(Graphe g) {
+        MatriceDistances md;
+        synchronized (INSTANCES) {
+            md = INSTANCES.get(g);
+        }
+        if (md == null)
+            return null;
+        synchronized (md) {
+            if (md.hierarchie != null && !md.hierarchie.estAJour(g))
+                md.hierarchie = null;
+            return md.hierarchie;
+        }
+    }
+
+    // Matrice point à point par la méthode des seaux (diagonale à 0 comme
+    // avec Dijkstra, même pour un sommet hors du graphe)
+    private static double[] matriceHierarchie(HierarchieContraction ch, List<Sommet> points) {
+        int n = points.size();
+        double[] m = ch.matrice(points, points);
+        for (int i = 0; i < n; i++)
+            m[i * n + i] = 0.0;
+        return m;
+    }
+
+    private interface Ecriture {
+        void ecrire(int i, int j, double distance);
+    }
+
+    private static void calculerLignes(Graphe g, List<Sommet> points, int parallelisme, Ecriture sortie) {
+        GrapheCompact gc = g.compacter();
+        executer(List.of(new TacheLignes(gc, indices(gc, points), sortie, 0, points.size())), parallelisme);
+    }
+
+    private static int[] indices(GrapheCompact gc, List<Sommet> points) {
+        int[] idx = new int[points.size()];
+        for (int i = 0; i < idx.length; i++)
+            idx[i] = gc.indice(points.get(i));
+        return idx;
+    }
+
+    private static void executer(List<TacheLignes> taches, int parallelisme) {
+        int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(taches);
+            }));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Découpe récursive de l'intervalle de lignes [debut, fin).
+     */
+    private static final class TacheLignes extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GrapheCompact gc;
+        private final int[] idx;
+        private final Ecriture sortie;
+        private final int debut, fin;
+
+        TacheLignes(GrapheCompact gc, int[] idx, Ecriture sortie, int debut, int fin) {
+            this.gc = gc;
+            this.idx = idx;
+            this.sortie = sortie;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut > 1) {
+                int milieu = (debut + fin) >>> 1;
+                invokeAll(new TacheLignes(gc, idx, sortie, debut, milieu),
+                        new TacheLignes(gc, idx, sortie, milieu, fin));
+                return;
+            }
+            for (int i = debut; i < fin; i++) {
+                if (idx[i] < 0) {
+                    for (int j = 0; j < idx.length; j++)
+                        sortie.ecrire(i, j, i == j ? 0.0 : Double.MAX_VALUE);
+                    continue;
+                }
+                // Espace de travail propre au thread courant
+                Dijkstra.EspaceTravail esp = Dijkstra.executerVers(gc, idx[i], idx);
+                for (int j = 0; j < idx.length; j++)
+                    sortie.ecrire(i, j, i == j ? 0.0 : (idx[j] < 0 ? Double.MAX_VALUE : esp.distance(idx[j])));
+            }
+        }
+    }
+
+    /**
+     * Modifie le budget mémoire du cache (les arbres les plus anciens sont
+     * évincés si nécessaire).
+     *
+     * @param octets Le nouveau budget en octets.
+     */
+    public synchronized void setBudgetMemoire(long octets) {
+        this.budgetOctets = octets;
+        evincer();
+    }
+
+    /**
+     * Vide le cache (les compteurs sont conservés).
+     */
+    public synchronized void vider() {
+        arbres.clear();
+        octetsUtilises = 0;
+    }
+
+    public synchronized long getSucces() {
+        return succes;
+    }
+
+    public synchronized long getEchecs() {
+        return echecs;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getOctetsUtilises() {
+        return octetsUtilises;
+    }
+
+    /**
+     * Résumé de l'état du cache.
+     *
+     * @return Une ligne avec succès, échecs, évictions et mémoire utilisée.
+     */
+    public synchronized String statistiques() {
+        return String.format("Cache distances : %d succès | %d échecs | %d évictions | %d arbres (%.1f Mo)",
+                succes, echecs, evictions, arbres.size(), octetsUtilises / (1024.0 * 1024.0));
+    }
+
+    private void verifierVersion() {
+        Graphe g = graphe.get();
+        if (g == null)
+            throw new IllegalStateException("Graphe libéré : service de distances inutilisable");
+        long v = g.getVersion();
+        if (v != version || gc == null) {
+            vider();
+            gc = g.compacter();
+            version = v;
+            if (hierarchie != null && !hierarchie.estAJour(g))
+                hierarchie = null;
+            if (alt != null && !alt.estAJour(g))
+                alt = null;
+        }
+    }
+
+    private Arbre arbre(int source) {
+        Arbre a = arbres.get(source);
+        if (a != null) {
+            succes++;
+            return a;
+        }
+        echecs++;
+        int[] pred = new int[gc.nombreSommets()];
+        double[] dist = Dijkstra.distancesDepuis(gc, source, pred);
+        a = new Arbre(dist, pred);
+        arbres.put(source, a);
+        octetsUtilises += a.octets();
+        evincer();
+        return a;
+    }
+
+    private void evincer() {
+        // On garde toujours au moins l'arbre le plus récent
+        Iterator<Arbre> it = arbres.values().iterator();
+        while (octetsUtilises > budgetOctets && arbres.size() > 1 && it.hasNext()) {
+            octetsUtilises -= it.next().octets();
+            it.remove();
+            evictions++;
+        }
+    }
+}
@@ -3,12 +3,18 @@ package algorithmes;
 import modele.*;
 import utils.Utils;
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * Classe pour résoudre le problème du Postier Chinois (Chinese Postman
  * Problem).
  * Gère les graphes eulériens, avec 2 ou plus de sommets impairs.
  * Utilise l'appariement des impairs et l'algorithme de Hiérholzer.
+ * Un réseau entièrement à sens uniques (HO2) est traité par le Postier
+ * Chinois orienté : flot de coût minimal entre sommets déséquilibrés ; un
+ * réseau mixte (HO3) par PostierChinoisMixte.
+ * Si certaines rues ne sont pas à collecter (Arete.estRequise()), le
+ * problème devient celui du postier rural (PostierRural).
  */
 public class PostierChinois {
     /**
@@ -19,6 +25,18 @@ public class PostierChinois {
         public double distanceTotale;
         public List<Arete> aretesDupliquees = new ArrayList<>();
         public int nombreImpairs;
+        // Temps passé dans chaque phase
+        public long dureeMatriceMs;
+        public long dureeCouplageMs;
+        public long dureeEulerMs;
+        public boolean couplageExact = true; // false : mode glouton
+        public long dureeFluxMs;
+        public boolean oriente; // true : Postier Chinois orienté
+        public String methode = "non orienté (couplage des sommets impairs)";
+        // Postier rural : rues à collecter et distance parcourue à vide
+        public boolean rural;
+        public int nombreRequises;
+        public double distanceHautLePied;
 
         public ResultatPostierChinois(int nombreImpairs) {
             this.nombreImpairs = nombreImpairs;
@@ -32,6 +50,18 @@ public class PostierChinois {
      * @return Le résultat (circuit, distance, duplications).
      */
     public static ResultatPostierChinois resoudrePostierChinois(Graphe g) {
+        // Rues sans bacs ce jour : postier rural
+        if (g.getAretes().stream().anyMatch(a -> !a.estRequise()))
+            return PostierRural.resoudre(g);
+
+        // Réseau entièrement à sens uniques : version orientée ; réseau mixte :
+        // heuristiques de Frederickson
+        long sensUniques = g.getAretes().stream().filter(a -> !a.estDoubleSens()).count();
+        if (sensUniques > 0 && sensUniques == g.getAretes().size())
+            return resoudrePostierChinoisOriente(g);
+        if (sensUniques > 0)
+            return PostierChinoisMixte.resoudre(g);
+
         ResultatPostierChinois res = new ResultatPostierChinois(0);
 
         List<Sommet> impairs = g.getSommetsDegreImpair();
@@ -47,7 +77,9 @@ public class PostierChinois {
         // Cas eulérien parfait
         if (res.nombreImpairs == 0) {
             System.out.println("Graphe eulérien --> circuit direct");
+            long debutEuler = System.currentTimeMillis();
             res.circuit = CircuitEulerien.trouverCircuit(g, g.getDepot());
+            res.dureeEulerMs = System.currentTimeMillis() - debutEuler;
             if (res.circuit == null || res.circuit.isEmpty()) {
                 System.out.println("ERREUR : graphe non connexe ou non eulérien !");
                 return res;
@@ -59,13 +91,40 @@ public class PostierChinois {
         System.out.println("Arêtes dupliquées : " + (res.nombreImpairs / 2));
 
         Graphe augmente = copierGraphe(g);
+        // Les duplications ne changent pas les plus courts chemins : on calcule
+        // sur l'instantané compact du graphe d'origine
+        GrapheCompact gc = g.compacter();
+
+        // Appariement des sommets impairs : couplage parfait de poids minimal
+        // sur leur matrice de distances (graphe non orienté : symétriques) ;
+        // au-delà du seuil, glouton sur les plus proches voisins de chacun
+        // (Dijkstra bornés, sans matrice k x k)
+        long debut = System.currentTimeMillis();
+        int k = impairs.size();
+        res.couplageExact = k <= CouplageParfait.SEUIL_EXACT;
+        int[] partenaire;
+        if (res.couplageExact) {
+            double[] d = MatriceDistances.matriceParallele(g, impairs, 0);
+            res.dureeMatriceMs = System.currentTimeMillis() - debut;
+            debut = System.currentTimeMillis();
+            partenaire = CouplageParfait.calculer(d, k);
+        } else {
+            partenaire = CouplageParfait.glouton(k, candidatsImpairs(gc, impairs));
+        }
+        res.dureeCouplageMs = System.currentTimeMillis() - debut;
 
-        // Appariement des sommets impairs
-        for (int i = 0; i < impairs.size(); i += 2) {
+        double ajoute = 0.0;
+        for (int i = 0; i < k; i++) {
+            if (partenaire[i] >= 0 && partenaire[i] < i)
+                continue;
             Sommet u = impairs.get(i);
-            Sommet v = impairs.get(i + 1);
+            if (partenaire[i] < 0) {
+                System.out.println("Pas de chemin depuis " + u.getId());
+                continue;
+            }
+            Sommet v = impairs.get(partenaire[i]);
 
-            List<Sommet> chemin = Dijkstra.cheminLePlusCourt(augmente, u, v);
+            List<Sommet> chemin = gc.versSommets(Dijkstra.cheminLePlusCourt(gc, gc.indice(u), gc.indice(v)));
             if (chemin == null || chemin.size() < 2) {
                 System.out.println("Pas de chemin entre " + u.getId() + " et " + v.getId());
                 continue;
@@ -80,22 +139,17 @@ public class PostierChinois {
                             originale.getLongueur(),
                             originale.estDoubleSens()));
                     res.aretesDupliquees.add(originale);
+                    ajoute += originale.getLongueur();
                 }
             }
-            // Détection des sens uniques
-            boolean aSensUnique = g.getAretes().stream().anyMatch(a -> !a.estDoubleSens());
-            if (aSensUnique) {
-                System.out.println("ATTENTION : Ce graphe contient des sens uniques.");
-                System.out.println("Le Postier Chinois classique ne fonctionne que sur graphes non orientés.");
-                System.out.println("→ Solution non optimale possible ou impossible.");
-                System.out.println("Nous limitons le Postier Chinois à HO1 comme indiqué dans le CDC.");
-                // Tu peux soit bloquer, soit continuer avec un avertissement
-            }
-
         }
+        System.out.printf("Couplage %s des impairs : %.2f km ajoutés%n",
+                res.couplageExact ? "optimal (Edmonds)" : "glouton amélioré", ajoute);
 
         // Circuit eulérien sur le graphe augmenté
+        debut = System.currentTimeMillis();
         res.circuit = CircuitEulerien.trouverCircuit(augmente, g.getDepot());
+        res.dureeEulerMs = System.currentTimeMillis() - debut;
 
         if (res.circuit == null || res.circuit.isEmpty()) {
             System.out.println("ERREUR : impossible de trouver un circuit eulérien même après duplication !");
@@ -108,6 +162,125 @@ public class PostierChinois {
         return res;
     }
 
+    /**
+     * Postier Chinois orienté, pour un réseau à sens uniques.
+     * Un sommet ayant plus d'arcs entrants que sortants doit être quitté
+     * plusieurs fois : on envoie un flot de coût minimal (coût = longueur,
+     * capacité illimitée) des sommets en excès d'entrées vers les sommets en
+     * excès de sorties. Chaque unité de flux sur un arc est un passage
+     * supplémentaire ; le réseau augmenté est alors eulérien.
+     *
+     * @param g Le graphe (toutes les arêtes à sens unique).
+     * @return Le résultat (circuit, distance, arcs doublés).
+     */
+    public static ResultatPostierChinois resoudrePostierChinoisOriente(Graphe g) {
+        ResultatPostierChinois res = new ResultatPostierChinois(0);
+        res.oriente = true;
+        res.methode = "orienté (flot de coût minimal)";
+
+        GrapheCompact gc = g.compacter();
+        int n = gc.nombreSommets();
+        int m = gc.nombreAretes();
+        int[] origine = new int[m], cible = new int[m];
+        int[] excedent = new int[n]; // entrées - sorties
+        double longueurReseau = 0.0;
+        for (int e = 0; e < m; e++) {
+            Arete a = gc.arete(e);
+            origine[e] = gc.indice(a.getSource());
+            cible[e] = gc.indice(a.getDestination());
+            excedent[origine[e]]--;
+            excedent[cible[e]]++;
+            longueurReseau += a.getLongueur();
+        }
+        for (int v = 0; v < n; v++)
+            if (excedent[v] != 0)
+                res.nombreImpairs++;
+        System.out.println("Sommets déséquilibrés (entrées ≠ sorties) : " + res.nombreImpairs);
+
+        // Flot des excès d'entrées (source n) vers les excès de sorties (puits n + 1)
+        long debut = System.currentTimeMillis();
+        FluxCoutMinimal flot = new FluxCoutMinimal(n + 2);
+        int[] arc = new int[m];
+        for (int e = 0; e < m; e++)
+            arc[e] = flot.ajouterArc(origine[e], cible[e], FluxCoutMinimal.CAPACITE_INFINIE, gc.arete(e).getLongueur());
+        long besoin = 0;
+        for (int v = 0; v < n; v++) {
+            if (excedent[v] > 0) {
+                flot.ajouterArc(n, v, excedent[v], 0.0);
+                besoin += excedent[v];
+            } else if (excedent[v] < 0) {
+                flot.ajouterArc(v, n + 1, -excedent[v], 0.0);
+            }
+        }
+        long envoye = flot.resoudre(n, n + 1, besoin);
+        res.dureeFluxMs = System.currentTimeMillis() - debut;
+        if (envoye < besoin) {
+            System.out.println("ERREUR : réseau non fortement connexe --> aucune tournée ne couvre tous les arcs !");
+            res.circuit = new ArrayList<>();
+            return res;
+        }
+
+        // Réseau augmenté : chaque arc autant de fois que son flux en plus
+        int total = m;
+        for (int e = 0; e < m; e++)
+            total += (int) flot.flux(arc[e]);
+        int[] a = Arrays.copyOf(origine, total), b = Arrays.copyOf(cible, total);
+        int k = m;
+        for (int e = 0; e < m; e++) {
+            for (long f = flot.flux(arc[e]); f > 0; f--) {
+                a[k] = origine[e];
+                b[k++] = cible[e];
+                res.aretesDupliquees.add(gc.arete(e));
+            }
+        }
+        System.out.printf("Arcs doublés : %d (+%.2f km)%n", res.aretesDupliquees.size(), flot.getCoutTotal());
+
+        debut = System.currentTimeMillis();
+        boolean[] oriente = new boolean[total];
+        Arrays.fill(oriente, true);
+        int depart = Math.max(0, gc.indice(g.getDepot()));
+        int[] circuit = m == 0 ? null : CircuitEulerien.circuitIndices(n, a, b, oriente, depart);
+        res.dureeEulerMs = System.currentTimeMillis() - debut;
+        if (circuit == null) {
+            System.out.println("ERREUR : impossible de trouver un circuit eulérien même après duplication !");
+            res.circuit = new ArrayList<>();
+            return res;
+        }
+        res.circuit = CircuitEulerien.enSommets(gc, circuit);
+        res.distanceTotale = longueurReseau + flot.getCoutTotal();
+        return res;
+    }
+
+    /**
+     * Voisins candidats des sommets impairs pour le couplage glouton : les
+     * impairs les plus proches de chacun, par un Dijkstra arrêté dès qu'ils
+     * sont trouvés ; une paire hors des listes est mesurée à la demande.
+     */
+    private static CouplageParfait.Candidats candidatsImpairs(GrapheCompact gc, List<Sommet> impairs) {
+        int[] rang = new int[gc.nombreSommets()];
+        Arrays.fill(rang, -1);
+        int[] indices = new int[impairs.size()];
+        for (int i = 0; i < impairs.size(); i++) {
+            indices[i] = gc.indice(impairs.get(i));
+            rang[indices[i]] = i;
+        }
+        return new CouplageParfait.Candidats() {
+            @Override
+            public int plusProches(int i, IntPredicate accepte, int max, int[] voisins, double[] poids) {
+                int nv = Dijkstra.kPlusProches(gc, indices[i], v -> rang[v] >= 0 && accepte.test(rang[v]), max,
+                        voisins, poids);
+                for (int q = 0; q < nv; q++)
+                    voisins[q] = rang[voisins[q]];
+                return nv;
+            }
+
+            @Override
+            public double poids(int i, int j) {
+                return Dijkstra.calculerDistance(gc, indices[i], indices[j]);
+            }
+        };
+    }
+
     /**
      * Calcule la distance totale d'un circuit.
      * 
@@ -156,7 +329,19 @@ public class PostierChinois {
         // Affichage COHÉRENT
         System.out.printf("Distance totale : %.2f km%n", r.distanceTotale);
         System.out.println("Arêtes dupliquées : " + r.aretesDupliquees.size());
-        System.out.println("Sommets de degré impair : " + r.nombreImpairs);
+        System.out.println("Méthode : " + r.methode);
+        if (r.rural)
+            System.out.printf("Rues à collecter : %d / %d | haut-le-pied : %.2f km%n",
+                    r.nombreRequises, g.getAretes().size(), r.distanceHautLePied);
+        if (r.oriente) {
+            System.out.println("Sommets déséquilibrés : " + r.nombreImpairs);
+            System.out.printf("Temps : flot %d ms | couplage %d ms | circuit eulérien %d ms%n",
+                    r.dureeFluxMs, r.dureeCouplageMs, r.dureeEulerMs);
+        } else {
+            System.out.println("Sommets de degré impair : " + r.nombreImpairs);
+            System.out.printf("Temps : matrice %d ms | couplage %d ms (%s) | circuit eulérien %d ms%n",
+                    r.dureeMatriceMs, r.dureeCouplageMs, r.couplageExact ? "exact" : "glouton", r.dureeEulerMs);
+        }
 
         if (r.circuit == null || r.circuit.isEmpty()) {
             System.out.println("\nERREUR : Aucun circuit trouvé");
@@ -0,0 +1,414 @@
+package algorithmes;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import modele.*;
+
+/**
+ * Postier Chinois mixte (HO3 : rues à sens unique et rues à double sens).
+ * Le problème exact est NP-difficile ; on applique les deux heuristiques de
+ * Frederickson et on garde la meilleure tournée :
+ * - MIXED2 : flot de coût minimal qui équilibre entrées et sorties en
+ * orientant des rues à double sens (gratuit) ou en doublant des passages
+ * (payant) ; les rues restées non orientées forment un sous-graphe dont on
+ * rend les degrés pairs par un couplage de poids minimal, avec des chemins
+ * dans ce sous-graphe (l'équilibre est conservé) ;
+ * - MIXED1 : on rend d'abord tous les degrés pairs (couplage des sommets
+ * impairs du graphe sans tenir compte des sens), puis MIXED2.
+ * Le circuit est ensuite construit par CircuitEulerien, qui oriente les rues
+ * restantes.
+ * Sert aussi au postier rural (PostierRural) sur un réseau mixte.
+ */
+public class PostierChinoisMixte {
+
+    /**
+     * Liens (arcs et arêtes) d'un multigraphe, dans des tableaux primitifs.
+     * origineLien renvoie à l'arête de l'instantané compact parcourue.
+     */
+    static final class Liens {
+        int nb;
+        int[] a, b, origineLien;
+        double[] longueur;
+        boolean[] oriente;
+
+        Liens(int capacite) {
+            a = new int[capacite];
+            b = new int[capacite];
+            origineLien = new int[capacite];
+            longueur = new double[capacite];
+            oriente = new boolean[capacite];
+        }
+
+        void ajouter(int u, int v, double l, boolean o, int origine) {
+            if (nb == a.length) {
+                int c = Math.max(16, 2 * nb);
+                a = Arrays.copyOf(a, c);
+                b = Arrays.copyOf(b, c);
+                origineLien = Arrays.copyOf(origineLien, c);
+                longueur = Arrays.copyOf(longueur, c);
+                oriente = Arrays.copyOf(oriente, c);
+            }
+            a[nb] = u;
+            b[nb] = v;
+            longueur[nb] = l;
+            oriente[nb] = o;
+            origineLien[nb++] = origine;
+        }
+
+        Liens copie() {
+            Liens c = new Liens(0);
+            c.nb = nb;
+            c.a = a.clone();
+            c.b = b.clone();
+            c.origineLien = origineLien.clone();
+            c.longueur = longueur.clone();
+            c.oriente = oriente.clone();
+            return c;
+        }
+
+        double longueurTotale() {
+            double total = 0.0;
+            for (int e = 0; e < nb; e++)
+                total += longueur[e];
+            return total;
+        }
+    }
+
+    /**
+     * Résout le Postier Chinois sur un graphe mixte.
+     *
+     * @param g Le graphe.
+     * @return Le meilleur des résultats MIXED1 et MIXED2.
+     */
+    public static PostierChinois.ResultatPostierChinois resoudre(Graphe g) {
+        GrapheCompact gc = g.compacter();
+        int m = gc.nombreAretes();
+        Liens base = new Liens(m);
+        for (int e = 0; e < m; e++) {
+            Arete ar = gc.arete(e);
+            base.ajouter(gc.indice(ar.getSource()), gc.indice(ar.getDestination()), ar.getLongueur(),
+                    !ar.estDoubleSens(), e);
+        }
+        return resoudre(gc, base, null, Math.max(0, gc.indice(g.getDepot())));
+    }
+
+    /**
+     * Résout le Postier Chinois mixte sur un multigraphe de liens.
+     * Les passages ajoutés suivent des liens de base ou, pour l'équilibrage
+     * par flot, des liens facultatifs.
+     *
+     * @param gc          L'instantané dont proviennent les liens.
+     * @param base        Les liens à parcourir (non modifiés).
+     * @param facultatifs Liens empruntables à vide sans obligation de les
+     *                    parcourir (rues sans collecte du postier rural), ou
+     *                    null.
+     * @param depart      Indice du sommet de départ.
+     * @return Le meilleur des résultats MIXED1 et MIXED2 ; les passages
+     *         ajoutés sont dans aretesDupliquees.
+     */
+    static PostierChinois.ResultatPostierChinois resoudre(GrapheCompact gc, Liens base, Liens facultatifs,
+            int depart) {
+        PostierChinois.ResultatPostierChinois res = new PostierChinois.ResultatPostierChinois(0);
+        res.oriente = true;
+        res.circuit = new ArrayList<>();
+
+        int n = gc.nombreSommets();
+        int m = base.nb;
+        int[] excedent = new int[n];
+        for (int e = 0; e < m; e++) {
+            if (base.oriente[e]) {
+                excedent[base.a[e]]--;
+                excedent[base.b[e]]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+            if (excedent[v] != 0)
+                res.nombreImpairs++;
+        System.out.println("Sommets déséquilibrés par les sens uniques : " + res.nombreImpairs);
+
+        long[] durees = new long[2]; // flot, couplage
+        Liens mixed2 = base.copie();
+        boolean ok2 = mixed2(n, mixed2, facultatifs, durees);
+        Liens mixed1 = base.copie();
+        long debut = System.currentTimeMillis();
+        boolean ok1 = rendrePairs(n, mixed1, false);
+        durees[1] += System.currentTimeMillis() - debut;
+        ok1 = ok1 && mixed2(n, mixed1, facultatifs, durees);
+        res.dureeFluxMs = durees[0];
+        res.dureeCouplageMs = durees[1];
+
+        double l1 = ok1 ? mixed1.longueurTotale() : Double.MAX_VALUE;
+        double l2 = ok2 ? mixed2.longueurTotale() : Double.MAX_VALUE;
+        if (!ok1 && !ok2) {
+            System.out.println("ERREUR : réseau non fortement connexe --> aucune tournée ne couvre toutes les rues !");
+            return res;
+        }
+        System.out.printf("MIXED1 : %s | MIXED2 : %s%n", texte(l1), texte(l2));
+        Liens choix = l1 <= l2 ? mixed1 : mixed2;
+        res.methode = "mixte (heuristique " + (l1 <= l2 ? "MIXED1" : "MIXED2") + " de Frederickson)";
+
+        debut = System.currentTimeMillis();
+        int[] circuit = CircuitEulerien.circuitIndices(n, Arrays.copyOf(choix.a, choix.nb),
+                Arrays.copyOf(choix.b, choix.nb), Arrays.copyOf(choix.oriente, choix.nb), depart);
+        res.dureeEulerMs = System.currentTimeMillis() - debut;
+        if (circuit == null) {
+            System.out.println("ERREUR : impossible de trouver un circuit eulérien même après duplication !");
+            return res;
+        }
+        for (int e = m; e < choix.nb; e++)
+            res.aretesDupliquees.add(gc.arete(choix.origineLien[e]));
+        res.circuit = CircuitEulerien.enSommets(gc, circuit);
+        res.distanceTotale = choix.longueurTotale();
+        return res;
+    }
+
+    private static String texte(double l) {
+        return l >= Double.MAX_VALUE ? "impossible" : String.format("%.2f km", l);
+    }
+
+    /**
+     * MIXED2 : équilibrage par flot puis parité des rues non orientées.
+     * Les liens sont modifiés sur place (orientations, passages ajoutés).
+     *
+     * @param facultatifs Liens que le flot peut aussi emprunter (payants), ou
+     *                    null.
+     * @return false si l'équilibrage est impossible.
+     */
+    private static boolean mixed2(int n, Liens l, Liens facultatifs, long[] durees) {
+        long debut = System.currentTimeMillis();
+        int nb = l.nb;
+        int[] excedent = new int[n]; // entrées - sorties, sens uniques seuls
+        for (int e = 0; e < nb; e++) {
+            if (l.oriente[e]) {
+                excedent[l.a[e]]--;
+                excedent[l.b[e]]++;
+            }
+        }
+
+        // Réseau : passages supplémentaires payants dans le sens permis, et
+        // pour chaque rue à double sens une orientation gratuite (capacité 1) ;
+        // les liens facultatifs ne sont que payants
+        FluxCoutMinimal flot = new FluxCoutMinimal(n + 2);
+        int[] payantAB = new int[nb], payantBA = new int[nb], libreAB = new int[nb], libreBA = new int[nb];
+        for (int e = 0; e < nb; e++) {
+            payantAB[e] = flot.ajouterArc(l.a[e], l.b[e], FluxCoutMinimal.CAPACITE_INFINIE, l.longueur[e]);
+            if (!l.oriente[e]) {
+                payantBA[e] = flot.ajouterArc(l.b[e], l.a[e], FluxCoutMinimal.CAPACITE_INFINIE, l.longueur[e]);
+                libreAB[e] = flot.ajouterArc(l.a[e], l.b[e], 1, 0.0);
+                libreBA[e] = flot.ajouterArc(l.b[e], l.a[e], 1, 0.0);
+            }
+        }
+        int nf = facultatifs == null ? 0 : facultatifs.nb;
+        int[] facultatifAB = new int[nf], facultatifBA = new int[nf];
+        for (int e = 0; e < nf; e++) {
+            facultatifAB[e] = flot.ajouterArc(facultatifs.a[e], facultatifs.b[e], FluxCoutMinimal.CAPACITE_INFINIE,
+                    facultatifs.longueur[e]);
+            if (!facultatifs.oriente[e])
+                facultatifBA[e] = flot.ajouterArc(facultatifs.b[e], facultatifs.a[e], FluxCoutMinimal.CAPACITE_INFINIE,
+                        facultatifs.longueur[e]);
+        }
+        long besoin = 0;
+        for (int v = 0; v < n; v++) {
+            if (excedent[v] > 0) {
+                flot.ajouterArc(n, v, excedent[v], 0.0);
+                besoin += excedent[v];
+            } else if (excedent[v] < 0) {
+                flot.ajouterArc(v, n + 1, -excedent[v], 0.0);
+            }
+        }
+        long envoye = flot.resoudre(n, n + 1, besoin);
+        durees[0] += System.currentTimeMillis() - debut;
+        if (envoye < besoin)
+            return false;
+
+        // Lecture du flot : orientations et passages doublés
+        for (int e = 0; e < nb; e++) {
+            for (long f = flot.flux(payantAB[e]); f > 0; f--)
+                l.ajouter(l.a[e], l.b[e], l.longueur[e], true, l.origineLien[e]);
+            if (l.oriente[e])
+                continue;
+            for (long f = flot.flux(payantBA[e]); f > 0; f--)
+                l.ajouter(l.b[e], l.a[e], l.longueur[e], true, l.origineLien[e]);
+            long net = flot.flux(libreAB[e]) - flot.flux(libreBA[e]);
+            if (net > 0) {
+                l.oriente[e] = true;
+            } else if (net < 0) {
+                int x = l.a[e];
+                l.a[e] = l.b[e];
+                l.b[e] = x;
+                l.oriente[e] = true;
+            }
+        }
+        for (int e = 0; e < nf; e++) {
+            for (long f = flot.flux(facultatifAB[e]); f > 0; f--)
+                l.ajouter(facultatifs.a[e], facultatifs.b[e], facultatifs.longueur[e], true, facultatifs.origineLien[e]);
+            if (facultatifs.oriente[e])
+                continue;
+            for (long f = flot.flux(facultatifBA[e]); f > 0; f--)
+                l.ajouter(facultatifs.b[e], facultatifs.a[e], facultatifs.longueur[e], true, facultatifs.origineLien[e]);
+        }
+
+        // Rues restées non orientées : degrés pairs sans toucher à l'équilibre
+        debut = System.currentTimeMillis();
+        boolean ok = rendrePairs(n, l, true);
+        durees[1] += System.currentTimeMillis() - debut;
+        return ok;
+    }
+
+    /**
+     * Rend pairs les degrés, en couplant les sommets impairs et en doublant
+     * les liens d'un plus court chemin entre sommets couplés.
+     * Coût : une recherche par sommet impair pour les distances du couplage
+     * (arrêtée dès que les impairs voulus sont fixés : tous en mode exact,
+     * les K plus proches en mode glouton), puis une recherche point à point
+     * par paire pour son chemin ; toutes partagent un seul espace de travail.
+     *
+     * @param seulementNonOrientes true : degrés et chemins limités aux liens
+     *                             non orientés ; false : tous les liens,
+     *                             parcourus dans les deux sens.
+     * @return false si un sommet impair n'a pas pu être couplé.
+     */
+    private static boolean rendrePairs(int n, Liens l, boolean seulementNonOrientes) {
+        int nb = l.nb;
+        boolean[] pris = new boolean[nb];
+        int[] degre = new int[n];
+        for (int e = 0; e < nb; e++) {
+            if (!seulementNonOrientes || !l.oriente[e]) {
+                pris[e] = true;
+                degre[l.a[e]]++;
+                degre[l.b[e]]++;
+            }
+        }
+        int k = 0;
+        for (int v = 0; v < n; v++)
+            if ((degre[v] & 1) == 1)
+                k++;
+        if (k == 0)
+            return true;
+        int[] impairs = new int[k];
+        k = 0;
+        for (int v = 0; v < n; v++)
+            if ((degre[v] & 1) == 1)
+                impairs[k++] = v;
+
+        // Liens retenus, incidents à chaque sommet
+        int[] debut = new int[n + 1];
+        for (int e = 0; e < nb; e++) {
+            if (pris[e]) {
+                debut[l.a[e] + 1]++;
+                debut[l.b[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+            debut[v + 1] += debut[v];
+        int[] incidents = new int[debut[n]];
+        int[] curseur = Arrays.copyOf(debut, n);
+        for (int e = 0; e < nb; e++) {
+            if (pris[e]) {
+                incidents[curseur[l.a[e]]++] = e;
+                incidents[curseur[l.b[e]]++] = e;
+            }
+        }
+
+        Dijkstra.EspaceTravail esp = new Dijkstra.EspaceTravail();
+        int[] rang = new int[n];
+        Arrays.fill(rang, -1);
+        for (int i = 0; i < k; i++)
+            rang[impairs[i]] = i;
+        int[] un = new int[1];
+        double[] unPoids = new double[1];
+
+        int[] partenaire;
+        if (k <= CouplageParfait.SEUIL_EXACT) {
+            double[] d = new double[k * k];
+            Arrays.fill(d, Double.MAX_VALUE);
+            int[] trouves = new int[k];
+            double[] dist = new double[k];
+            for (int i = 0; i < k; i++) {
+                d[i * k + i] = 0.0;
+                int nt = dijkstra(esp, n, l, debut, incidents, impairs[i], v -> rang[v] >= 0, k - 1, trouves, dist);
+                for (int q = 0; q < nt; q++)
+                    d[i * k + rang[trouves[q]]] = dist[q];
+            }
+            partenaire = CouplageParfait.calculer(d, k);
+        } else {
+            // Glouton sur les impairs les plus proches de chacun, sans
+            // matrice k x k
+            partenaire = CouplageParfait.glouton(k, new CouplageParfait.Candidats() {
+                @Override
+                public int plusProches(int i, IntPredicate accepte, int max, int[] voisins, double[] poids) {
+                    int nv = dijkstra(esp, n, l, debut, incidents, impairs[i],
+                            v -> rang[v] >= 0 && accepte.test(rang[v]), max, voisins, poids);
+                    for (int q = 0; q < nv; q++)
+                        voisins[q] = rang[voisins[q]];
+                    return nv;
+                }
+
+                @Override
+                public double poids(int i, int j) {
+                    int cible = impairs[j];
+                    return dijkstra(esp, n, l, debut, incidents, impairs[i], v -> v == cible, 1, un, unPoids) == 1
+                            ? unPoids[0]
+                            : Double.MAX_VALUE;
+                }
+            });
+        }
+
+        for (int i = 0; i < k; i++) {
+            int j = partenaire[i];
+            if (j < 0)
+                return false;
+            if (j < i)
+                continue;
+            // Chemin de impairs[j] vers impairs[i], lien par lien (les arcs
+            // doublés gardent leur sens)
+            int cible = impairs[j];
+            if (dijkstra(esp, n, l, debut, incidents, impairs[i], v -> v == cible, 1, un, unPoids) == 0)
+                return false;
+            for (int v = cible; v != impairs[i];) {
+                int e = esp.predecesseur(v);
+                l.ajouter(l.a[e], l.b[e], l.longueur[e], l.oriente[e], l.origineLien[e]);
+                v = l.a[e] == v ? l.b[e] : l.a[e];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dijkstra sur les liens retenus, sans tenir compte des sens, arrêté dès
+     * que max sommets acceptés (source exclue) sont fixés. L'espace de
+     * travail est réutilisé d'une recherche à l'autre ; son prédécesseur
+     * donne, pour chaque sommet fixé, le lien par lequel on l'atteint.
+     *
+     * @param trouves   Reçoit les sommets acceptés, du plus proche au plus
+     *                  lointain.
+     * @param distances Reçoit leurs distances.
+     * @return Le nombre de sommets trouvés.
+     */
+    private static int dijkstra(Dijkstra.EspaceTravail esp, int n, Liens l, int[] debut, int[] incidents,
+            int source, IntPredicate accepte, int max, int[] trouves, double[] distances) {
+        esp.preparer(n);
+        esp.fixer(source, 0.0, -1);
+        TasIndexe tas = esp.tas;
+        tas.insererOuDiminuer(source, 0.0);
+        int nb = 0;
+        while (!tas.estVide() && nb < max) {
+            int u = tas.extraireMin();
+            double du = esp.dist[u];
+            if (u != source && accepte.test(u)) {
+                trouves[nb] = u;
+                distances[nb++] = du;
+            }
+            for (int q = debut[u]; q < debut[u + 1]; q++) {
+                int e = incidents[q];
+                int v = l.a[e] == u ? l.b[e] : l.a[e];
+                double nd = du + l.longueur[e];
+                if (nd < esp.distance(v)) {
+                    esp.fixer(v, nd, e);
+                    tas.insererOuDiminuer(v, nd);
+                }
+            }
+        }
+        return nb;
+    }
+}
@@ -0,0 +1,379 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Postier rural : seules les rues requises (Arete.estRequise(), bacs
+ * présents ce jour) doivent être collectées ; les autres ne sont parcourues
+ * qu'« à vide » (haut-le-pied) pour relier ou équilibrer la tournée.
+ * Heuristique de Frederickson :
+ * 1. composantes connexes des rues requises (le dépôt en forme une) ;
+ * 2. arbre couvrant minimal de ces composantes (Kruskal sur les liaisons
+ * entre régions de Voronoï), chaque arête de l'arbre devenant un plus court
+ * chemin parcouru à vide ;
+ * 3. Postier Chinois sur le multigraphe obtenu, les passages ajoutés
+ * empruntant tout le réseau : couplage des sommets impairs (double sens) ou
+ * flot de coût minimal (sens uniques). Un réseau mixte est confié à
+ * PostierChinoisMixte ; son équilibrage par flot peut aussi emprunter les
+ * rues sans collecte (un sens unique requis peut n'avoir de retour que par
+ * elles).
+ */
+public class PostierRural {
+
+    /**
+     * Résout le postier rural.
+     *
+     * @param g Le graphe (au moins une rue non requise).
+     * @return Le résultat ; distanceHautLePied donne la part parcourue sans
+     *         collecte.
+     */
+    public static PostierChinois.ResultatPostierChinois resoudre(Graphe g) {
+        PostierChinois.ResultatPostierChinois res = new PostierChinois.ResultatPostierChinois(0);
+        res.circuit = new ArrayList<>();
+        res.rural = true;
+
+        GrapheCompact gc = g.compacter();
+        int n = gc.nombreSommets();
+        int m = gc.nombreAretes();
+        PostierChinoisMixte.Liens liens = new PostierChinoisMixte.Liens(m);
+        PostierChinoisMixte.Liens aVide = new PostierChinoisMixte.Liens(0);
+        int sensUniques = 0;
+        double longueurRequise = 0.0;
+        for (int e = 0; e < m; e++) {
+            Arete a = gc.arete(e);
+            if (!a.estDoubleSens())
+                sensUniques++;
+            if (a.estRequise()) {
+                liens.ajouter(gc.indice(a.getSource()), gc.indice(a.getDestination()), a.getLongueur(),
+                        !a.estDoubleSens(), e);
+                longueurRequise += a.getLongueur();
+            } else {
+                aVide.ajouter(gc.indice(a.getSource()), gc.indice(a.getDestination()), a.getLongueur(),
+                        !a.estDoubleSens(), e);
+            }
+        }
+        res.nombreRequises = liens.nb;
+        System.out.println("Rues à collecter : " + liens.nb + " / " + m);
+        int depart = gc.indice(g.getDepot());
+        if (liens.nb == 0 || depart < 0) {
+            System.out.println("Aucune rue à collecter.");
+            return res;
+        }
+
+        // 1-2. Raccordement des composantes requises et du dépôt
+        long debut = System.currentTimeMillis();
+        int nbRequises = liens.nb;
+        boolean mixte = sensUniques > 0 && sensUniques < m;
+        if (!raccorder(gc, liens, depart, mixte)) {
+            System.out.println("ERREUR : rues à collecter inaccessibles depuis le dépôt !");
+            return res;
+        }
+        res.dureeMatriceMs = System.currentTimeMillis() - debut;
+        System.out.printf("Raccordement des secteurs : %d rues à vide%n", liens.nb - nbRequises);
+
+        // 3. Postier Chinois sur le multigraphe raccordé
+        if (mixte) {
+            PostierChinois.ResultatPostierChinois resMixte = PostierChinoisMixte.resoudre(gc, liens, aVide, depart);
+            resMixte.rural = true;
+            resMixte.nombreRequises = res.nombreRequises;
+            resMixte.dureeMatriceMs = res.dureeMatriceMs;
+            resMixte.methode = "postier rural, " + resMixte.methode;
+            for (int e = liens.nb - 1; e >= nbRequises; e--)
+                resMixte.aretesDupliquees.add(0, gc.arete(liens.origineLien[e]));
+            if (!resMixte.circuit.isEmpty())
+                resMixte.distanceHautLePied = resMixte.distanceTotale - longueurRequise;
+            return resMixte;
+        }
+        res.oriente = sensUniques > 0;
+        if (res.oriente) {
+            res.methode = "postier rural orienté (arbre des composantes + flot de coût minimal)";
+            if (!equilibrer(gc, liens, res))
+                return res;
+        } else {
+            res.methode = "postier rural (arbre des composantes + couplage des sommets impairs)";
+            if (!apparier(g, gc, liens, res))
+                return res;
+        }
+
+        debut = System.currentTimeMillis();
+        boolean[] oriente = Arrays.copyOf(liens.oriente, liens.nb);
+        int[] circuit = CircuitEulerien.circuitIndices(n, Arrays.copyOf(liens.a, liens.nb),
+                Arrays.copyOf(liens.b, liens.nb), oriente, depart);
+        res.dureeEulerMs = System.currentTimeMillis() - debut;
+        if (circuit == null) {
+            System.out.println("ERREUR : impossible de trouver un circuit eulérien même après duplication !");
+            return res;
+        }
+        for (int e = nbRequises; e < liens.nb; e++)
+            res.aretesDupliquees.add(gc.arete(liens.origineLien[e]));
+        res.circuit = CircuitEulerien.enSommets(gc, circuit);
+        res.distanceTotale = liens.longueurTotale();
+        res.distanceHautLePied = res.distanceTotale - longueurRequise;
+        return res;
+    }
+
+    /**
+     * Relie les composantes des liens requis (et le dépôt) par les chemins
+     * d'un arbre couvrant minimal des composantes.
+     *
+     * @param allerRetour true : chaque chemin est ajouté dans les deux sens
+     *                    (réseau mixte, dont les passages ajoutés restent
+     *                    dans le multigraphe).
+     * @return false si une composante est inaccessible.
+     */
+    private static boolean raccorder(GrapheCompact gc, PostierChinoisMixte.Liens liens, int depot,
+            boolean allerRetour) {
+        int n = gc.nombreSommets();
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++)
+            parent[v] = v;
+        for (int e = 0; e < liens.nb; e++) {
+            int r = racine(parent, liens.a[e]), s = racine(parent, liens.b[e]);
+            if (r != s)
+                parent[r] = s;
+        }
+        boolean[] touche = new boolean[n];
+        touche[depot] = true;
+        for (int e = 0; e < liens.nb; e++)
+            touche[liens.a[e]] = touche[liens.b[e]] = true;
+
+        // Numérotation des composantes et de leurs sommets
+        int[] composante = new int[n];
+        Arrays.fill(composante, -1);
+        int[] numero = new int[n];
+        Arrays.fill(numero, -1);
+        int c = 0;
+        for (int v = 0; v < n; v++) {
+            if (!touche[v])
+                continue;
+            int r = racine(parent, v);
+            if (numero[r] < 0)
+                numero[r] = c++;
+            composante[v] = numero[r];
+        }
+        if (c == 1)
+            return true;
+
+        // Voronoï des composantes (Mehlhorn) : chaque sommet est rattaché à la
+        // composante la plus proche, en avant (depuis) et en arrière (vers).
+        // Un arc u → v entre deux régions relie leurs composantes ; l'arbre
+        // couvrant de ces liaisons est celui des distances entre composantes
+        // (exact à double sens), pour deux Dijkstra au lieu d'un par composante.
+        double[] distAvant = new double[n], distArriere = new double[n];
+        int[] predAvant = new int[n], predArriere = new int[n];
+        int[] regionAvant = new int[n], regionArriere = new int[n];
+        voronoi(gc, composante, false, distAvant, predAvant, regionAvant);
+        voronoi(gc, composante, true, distArriere, predArriere, regionArriere);
+
+        int nbLiaisons = 0;
+        int[] liaison = new int[gc.nombreArcs()];
+        double[] poids = new double[gc.nombreArcs()];
+        int[] origineArc = new int[gc.nombreArcs()];
+        for (int u = 0; u < n; u++) {
+            for (int k = gc.debut(u); k < gc.fin(u); k++) {
+                origineArc[k] = u;
+                int v = gc.cible(k);
+                if (regionAvant[u] < 0 || regionArriere[v] < 0 || regionAvant[u] == regionArriere[v])
+                    continue;
+                poids[k] = distAvant[u] + gc.longueur(k) + distArriere[v];
+                liaison[nbLiaisons++] = k;
+            }
+        }
+        Integer[] triees = new Integer[nbLiaisons];
+        for (int i = 0; i < nbLiaisons; i++)
+            triees[i] = liaison[i];
+        Arrays.sort(triees, Comparator.comparingDouble(k -> poids[k]));
+
+        // Kruskal sur les composantes
+        int[] parentComposante = new int[c];
+        for (int i = 0; i < c; i++)
+            parentComposante[i] = i;
+        int reliees = 1;
+        for (int q = 0; q < nbLiaisons && reliees < c; q++) {
+            int k = triees[q];
+            int u = origineArc[k], v = gc.cible(k);
+            int r = racine(parentComposante, regionAvant[u]), s = racine(parentComposante, regionArriere[v]);
+            if (r == s)
+                continue;
+            parentComposante[r] = s;
+            reliees++;
+
+            // Chemin composante → u, l'arc, puis v → composante
+            int longueur = 2;
+            for (int w = predAvant[u]; w >= 0; w = predAvant[w])
+                longueur++;
+            for (int w = predArriere[v]; w >= 0; w = predArriere[w])
+                longueur++;
+            int[] chemin = new int[longueur];
+            int p = 0;
+            for (int w = u; w >= 0; w = predAvant[w])
+                chemin[p++] = w;
+            for (int a = 0, b = p - 1; a < b; a++, b--) {
+                int t = chemin[a];
+                chemin[a] = chemin[b];
+                chemin[b] = t;
+            }
+            for (int w = v; w >= 0; w = predArriere[w])
+                chemin[p++] = w;
+            ajouterChemin(gc, liens, chemin);
+            if (allerRetour) {
+                int[] retour = Dijkstra.cheminLePlusCourt(gc, chemin[chemin.length - 1], chemin[0]);
+                if (retour == null || retour.length == 0)
+                    return false;
+                ajouterChemin(gc, liens, retour);
+            }
+        }
+        return reliees == c;
+    }
+
+    private static int racine(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Dijkstra multi-sources depuis tous les sommets des composantes.
+     *
+     * @param arriere false : distances depuis les composantes (arcs
+     *                sortants) ; true : distances vers les composantes (arcs
+     *                entrants).
+     * @param pred    Reçoit le sommet précédent, en direction de la
+     *                composante (-1 pour les sources).
+     * @param region  Reçoit la composante la plus proche (-1 si aucune).
+     */
+    private static void voronoi(GrapheCompact gc, int[] composante, boolean arriere, double[] dist, int[] pred,
+            int[] region) {
+        int n = gc.nombreSommets();
+        TasIndexe tas = new TasIndexe();
+        tas.preparer(n);
+        for (int v = 0; v < n; v++) {
+            pred[v] = -1;
+            region[v] = composante[v];
+            dist[v] = composante[v] >= 0 ? 0.0 : Double.MAX_VALUE;
+            if (composante[v] >= 0)
+                tas.insererOuDiminuer(v, 0.0);
+        }
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            int fin = arriere ? gc.finInverse(u) : gc.fin(u);
+            for (int k = arriere ? gc.debutInverse(u) : gc.debut(u); k < fin; k++) {
+                int v = arriere ? gc.origine(k) : gc.cible(k);
+                double nd = dist[u] + (arriere ? gc.longueurInverse(k) : gc.longueur(k));
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    pred[v] = u;
+                    region[v] = region[u];
+                    tas.insererOuDiminuer(v, nd);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ajoute les rues d'un chemin (suite de sommets) comme passages à vide ;
+     * entre deux sommets, l'arc empruntable le plus court.
+     */
+    private static void ajouterChemin(GrapheCompact gc, PostierChinoisMixte.Liens liens, int[] chemin) {
+        for (int i = 0; i + 1 < chemin.length; i++) {
+            int u = chemin[i], v = chemin[i + 1], meilleur = -1;
+            for (int k = gc.debut(u); k < gc.fin(u); k++)
+                if (gc.cible(k) == v && (meilleur < 0 || gc.longueur(k) < gc.longueur(meilleur)))
+                    meilleur = k;
+            int e = gc.areteDeArc(meilleur);
+            liens.ajouter(u, v, gc.longueur(meilleur), !gc.estDoubleSens(meilleur), e);
+        }
+    }
+
+    /**
+     * Réseau à double sens : couplage des sommets impairs du multigraphe,
+     * reliés par des plus courts chemins de tout le réseau.
+     *
+     * @return false si un sommet impair n'a pas pu être couplé.
+     */
+    private static boolean apparier(Graphe g, GrapheCompact gc, PostierChinoisMixte.Liens liens,
+            PostierChinois.ResultatPostierChinois res) {
+        int[] degre = new int[gc.nombreSommets()];
+        for (int e = 0; e < liens.nb; e++) {
+            degre[liens.a[e]]++;
+            degre[liens.b[e]]++;
+        }
+        List<Sommet> impairs = new ArrayList<>();
+        for (int v = 0; v < degre.length; v++)
+            if ((degre[v] & 1) == 1)
+                impairs.add(gc.sommet(v));
+        int k = impairs.size();
+        res.nombreImpairs = k;
+        System.out.println("Sommets de degré impair détectés : " + k);
+
+        long debut = System.currentTimeMillis();
+        double[] d = MatriceDistances.matriceParallele(g, impairs, 0);
+        res.dureeMatriceMs += System.currentTimeMillis() - debut;
+        debut = System.currentTimeMillis();
+        res.couplageExact = k <= CouplageParfait.SEUIL_EXACT;
+        int[] partenaire = CouplageParfait.calculer(d, k);
+        res.dureeCouplageMs = System.currentTimeMillis() - debut;
+
+        for (int i = 0; i < k; i++) {
+            if (partenaire[i] < 0) {
+                System.out.println("Pas de chemin depuis " + impairs.get(i).getId());
+                return false;
+            }
+            if (partenaire[i] < i)
+                continue;
+            ajouterChemin(gc, liens, Dijkstra.cheminLePlusCourt(gc, gc.indice(impairs.get(i)),
+                    gc.indice(impairs.get(partenaire[i]))));
+        }
+        return true;
+    }
+
+    /**
+     * Réseau à sens uniques : flot de coût minimal des sommets en excès
+     * d'entrées vers les sommets en excès de sorties, sur tous les arcs.
+     *
+     * @return false si l'équilibrage est impossible.
+     */
+    private static boolean equilibrer(GrapheCompact gc, PostierChinoisMixte.Liens liens,
+            PostierChinois.ResultatPostierChinois res) {
+        int n = gc.nombreSommets();
+        int[] excedent = new int[n]; // entrées - sorties
+        for (int e = 0; e < liens.nb; e++) {
+            excedent[liens.a[e]]--;
+            excedent[liens.b[e]]++;
+        }
+        for (int v = 0; v < n; v++)
+            if (excedent[v] != 0)
+                res.nombreImpairs++;
+        System.out.println("Sommets déséquilibrés (entrées ≠ sorties) : " + res.nombreImpairs);
+
+        long debut = System.currentTimeMillis();
+        FluxCoutMinimal flot = new FluxCoutMinimal(n + 2);
+        int[] arc = new int[gc.nombreArcs()];
+        for (int u = 0; u < n; u++)
+            for (int k = gc.debut(u); k < gc.fin(u); k++)
+                arc[k] = flot.ajouterArc(u, gc.cible(k), FluxCoutMinimal.CAPACITE_INFINIE, gc.longueur(k));
+        long besoin = 0;
+        for (int v = 0; v < n; v++) {
+            if (excedent[v] > 0) {
+                flot.ajouterArc(n, v, excedent[v], 0.0);
+                besoin += excedent[v];
+            } else if (excedent[v] < 0) {
+                flot.ajouterArc(v, n + 1, -excedent[v], 0.0);
+            }
+        }
+        long envoye = flot.resoudre(n, n + 1, besoin);
+        res.dureeFluxMs = System.currentTimeMillis() - debut;
+        if (envoye < besoin) {
+            System.out.println("ERREUR : réseau non fortement connexe --> aucune tournée ne couvre les rues à collecter !");
+            return false;
+        }
+        for (int u = 0; u < n; u++)
+            for (int k = gc.debut(u); k < gc.fin(u); k++)
+                for (long f = flot.flux(arc[k]); f > 0; f--)
+                    liens.ajouter(u, gc.cible(k), gc.longueur(k), true, gc.areteDeArc(k));
+        return true;
+    }
+}
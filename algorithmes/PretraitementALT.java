@@ -0,0 +1,262 @@
+package algorithmes;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import modele.*;
+
+/**
+ * Prétraitement ALT (A*, Landmarks, Triangle inequality) pour accélérer les
+ * requêtes répétées de plus court chemin sans coordonnées.
+ * On choisit k sommets repères (le dépôt puis, à chaque étape, le sommet le
+ * plus éloigné des repères déjà choisis) et on mémorise pour chacun les
+ * distances depuis le repère et vers le repère. Par inégalité triangulaire :
+ * d(v, t) >= d(L, t) - d(L, v) et d(v, t) >= d(v, L) - d(t, L),
+ * ce qui fournit un minorant cohérent pour guider A* vers t. Les deux tables
+ * rendent le minorant valable sur les graphes orientés et mixtes (HO2/HO3).
+ * Les tables peuvent être sauvegardées puis rechargées avec le graphe.
+ */
+public class PretraitementALT {
+
+    private static final int FORMAT = 0x414C5431; // "ALT1"
+
+    private final GrapheCompact gc;
+    private final int[] reperes; // indices compacts des repères
+    private final double[][] depuis; // depuis[l][v] = d(repère l, v)
+    private final double[][] vers; // vers[l][v] = d(v, repère l)
+    private long dureePretraitementMs;
+
+    private PretraitementALT(GrapheCompact gc, int[] reperes, double[][] depuis, double[][] vers) {
+        this.gc = gc;
+        this.reperes = reperes;
+        this.depuis = depuis;
+        this.vers = vers;
+    }
+
+    /**
+     * Calcule les tables de repères d'un graphe.
+     *
+     * @param g Le graphe.
+     * @param k Nombre de repères souhaité (borné par le nombre de sommets).
+     * @return Le prétraitement.
+     */
+    public static PretraitementALT preparer(Graphe g, int k) {
+        long debut = System.currentTimeMillis();
+        GrapheCompact gc = g.compacter();
+        int n = gc.nombreSommets();
+        k = Math.max(0, Math.min(k, n));
+
+        int[] reperes = new int[k];
+        double[][] depuis = new double[k][];
+        double[][] vers = new double[k][];
+        // Distance (aller + retour) de chaque sommet au repère le plus proche
+        double[] eloignement = new double[n];
+        Arrays.fill(eloignement, Double.MAX_VALUE);
+
+        int courant = k > 0 ? Math.max(0, gc.indice(g.getDepot())) : -1;
+        for (int l = 0; l < k; l++) {
+            reperes[l] = courant;
+            depuis[l] = Dijkstra.distancesDepuis(gc, courant, null);
+            vers[l] = Dijkstra.distancesVers(gc, courant);
+
+            // Sélection du sommet le plus éloigné des repères déjà choisis
+            int suivant = -1;
+            double max = -1;
+            for (int v = 0; v < n; v++) {
+                double aller = depuis[l][v] < Double.MAX_VALUE ? depuis[l][v] : 0.0;
+                double retour = vers[l][v] < Double.MAX_VALUE ? vers[l][v] : 0.0;
+                eloignement[v] = Math.min(eloignement[v], aller + retour);
+                if (eloignement[v] > max) {
+                    max = eloignement[v];
+                    suivant = v;
+                }
+            }
+            courant = suivant;
+        }
+
+        PretraitementALT alt = new PretraitementALT(gc, reperes, depuis, vers);
+        alt.dureePretraitementMs = System.currentTimeMillis() - debut;
+        return alt;
+    }
+
+    /**
+     * Vérifie que les tables correspondent toujours au graphe (aucune
+     * modification depuis le prétraitement).
+     *
+     * @param g Le graphe.
+     * @return True si les tables sont utilisables.
+     */
+    public boolean estAJour(Graphe g) {
+        return g.compacter() == gc;
+    }
+
+    /**
+     * Distance entre deux sommets, calculée par A* guidé par les repères.
+     *
+     * @return La distance, ou Double.MAX_VALUE si inaccessible.
+     */
+    public double distance(Sommet depart, Sommet arrivee) {
+        int s = gc.indice(depart), t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return Double.MAX_VALUE;
+        if (s == t)
+            return 0.0;
+        return Dijkstra.aEtoile(gc, s, t, potentiel(t)).distance(t);
+    }
+
+    /**
+     * Plus court chemin entre deux sommets, calculé par A* guidé par les
+     * repères.
+     *
+     * @return Le chemin, vide si inaccessible.
+     */
+    public List<Sommet> chemin(Sommet depart, Sommet arrivee) {
+        int s = gc.indice(depart), t = gc.indice(arrivee);
+        if (s < 0 || t < 0)
+            return List.of();
+        if (s == t)
+            return List.of(depart);
+        return gc.versSommets(Dijkstra.aEtoile(gc, s, t, potentiel(t)).chemin(s, t));
+    }
+
+    /**
+     * Minorant ALT de la distance d'un sommet vers la cible. Les termes
+     * faisant intervenir une distance infinie sont ignorés.
+     */
+    Dijkstra.Potentiel potentiel(int cible) {
+        return v -> {
+            double borne = 0.0;
+            for (int l = 0; l < reperes.length; l++) {
+                double[] dep = depuis[l], ver = vers[l];
+                if (dep[cible] < Double.MAX_VALUE && dep[v] < Double.MAX_VALUE)
+                    borne = Math.max(borne, dep[cible] - dep[v]);
+                if (ver[v] < Double.MAX_VALUE && ver[cible] < Double.MAX_VALUE)
+                    borne = Math.max(borne, ver[v] - ver[cible]);
+            }
+            return borne;
+        };
+    }
+
+    public int nombreReperes() {
+        return reperes.length;
+    }
+
+    public List<Sommet> getReperes() {
+        return gc.versSommets(reperes);
+    }
+
+    public long getDureePretraitementMs() {
+        return dureePretraitementMs;
+    }
+
+    /**
+     * Mémoire occupée par les tables (deux tableaux de n doubles par repère).
+     *
+     * @return Le nombre d'octets.
+     */
+    public long memoireOctets() {
+        return 2L * 8L * gc.nombreSommets() * reperes.length;
+    }
+
+    /**
+     * Affiche le coût du prétraitement.
+     */
+    public void afficherRapport() {
+        System.out.println("Prétraitement ALT : " + reperes.length + " repères sur "
+                + gc.nombreSommets() + " sommets");
+        System.out.printf("   Durée totale      : %d ms (%.1f ms par repère)%n", dureePretraitementMs,
+                reperes.length == 0 ? 0.0 : (double) dureePretraitementMs / reperes.length);
+        System.out.printf("   Mémoire des tables : %.2f Mo (%.2f Mo par repère)%n",
+                memoireOctets() / (1024.0 * 1024.0),
+                reperes.length == 0 ? 0.0 : memoireOctets() / (1024.0 * 1024.0) / reperes.length);
+        System.out.print("   Repères           :");
+        for (int r : reperes)
+            System.out.print(" " + gc.sommet(r).getId());
+        System.out.println();
+    }
+
+    // ==================== SAUVEGARDE ====================
+
+    /**
+     * Sauvegarde les tables dans un fichier binaire. Les sommets sont
+     * identifiés par leur ID, et une empreinte des arcs permet de détecter un
+     * plan routier différent au rechargement.
+     *
+     * @param fichier Le fichier de destination.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void sauvegarder(Path fichier) throws IOException {
+        int n = gc.nombreSommets();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(fichier)))) {
+            out.writeInt(FORMAT);
+            out.writeInt(n);
+            out.writeInt(gc.nombreArcs());
+            out.writeDouble(empreinte(gc));
+            for (int v = 0; v < n; v++)
+                out.writeUTF(gc.sommet(v).getId());
+            out.writeInt(reperes.length);
+            for (int l = 0; l < reperes.length; l++) {
+                out.writeInt(reperes[l]);
+                for (int v = 0; v < n; v++)
+                    out.writeDouble(depuis[l][v]);
+                for (int v = 0; v < n; v++)
+                    out.writeDouble(vers[l][v]);
+            }
+        }
+    }
+
+    /**
+     * Recharge des tables sauvegardées pour un graphe.
+     *
+     * @param fichier Le fichier source.
+     * @param g       Le graphe auquel les tables se rapportent.
+     * @return Le prétraitement rechargé.
+     * @throws IOException Si le fichier est illisible ou ne correspond pas au
+     *                     graphe.
+     */
+    public static PretraitementALT charger(Path fichier, Graphe g) throws IOException {
+        GrapheCompact gc = g.compacter();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (in.readInt() != FORMAT)
+                throw new IOException("Fichier ALT invalide : " + fichier);
+            int n = in.readInt();
+            int nbArcs = in.readInt();
+            double emp = in.readDouble();
+            if (n != gc.nombreSommets() || nbArcs != gc.nombreArcs() || Math.abs(emp - empreinte(gc)) > 1e-6)
+                throw new IOException("Les tables ALT ne correspondent pas au plan routier chargé.");
+
+            // Indice sauvegardé --> indice dans le graphe courant
+            int[] correspondance = new int[n];
+            for (int i = 0; i < n; i++) {
+                String id = in.readUTF();
+                int v = gc.indice(g.getSommetParId(id));
+                if (v < 0)
+                    throw new IOException("Sommet inconnu dans les tables ALT : " + id);
+                correspondance[i] = v;
+            }
+
+            int k = in.readInt();
+            int[] reperes = new int[k];
+            double[][] depuis = new double[k][n];
+            double[][] vers = new double[k][n];
+            for (int l = 0; l < k; l++) {
+                reperes[l] = correspondance[in.readInt()];
+                for (int i = 0; i < n; i++)
+                    depuis[l][correspondance[i]] = in.readDouble();
+                for (int i = 0; i < n; i++)
+                    vers[l][correspondance[i]] = in.readDouble();
+            }
+            return new PretraitementALT(gc, reperes, depuis, vers);
+        }
+    }
+
+    // Somme des longueurs des arcs : détecte un plan modifié
+    private static double empreinte(GrapheCompact gc) {
+        double total = 0.0;
+        for (int k = 0; k < gc.nombreArcs(); k++)
+            total += gc.longueur(k);
+        return total;
+    }
+}
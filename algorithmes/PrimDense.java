@@ -0,0 +1,204 @@
+package algorithmes;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Arbre couvrant minimal par Prim en O(n²) directement sur une matrice de
+ * distances plate (n x n), sans objet par arête ni tas : sur une matrice
+ * dense, un simple balayage des clés à chaque étape est optimal.
+ * Au-delà de quelques milliers de sommets, la mise à jour des clés et la
+ * recherche du minimum de chaque étape sont réparties par blocs sur un
+ * ForkJoinPool.
+ * Partagé par ApprocheMST, Christofides et le découpage en secteurs.
+ */
+public class PrimDense {
+
+    // En dessous, le coût des tâches dépasse le gain du parallélisme
+    private static final int SEUIL_PARALLELE = 2048;
+    private static final int TAILLE_BLOC = 512;
+
+    /**
+     * Arbre obtenu (composante du sommet racine uniquement).
+     */
+    public static class Arbre {
+        public int[] parent; // -1 pour la racine et les sommets non atteints
+        public int[] ordre; // sommets dans leur ordre d'entrée dans l'arbre
+        public int taille; // nombre de sommets atteints
+        public double poids;
+
+        /**
+         * Parcours en profondeur préfixe depuis la racine, les fils étant
+         * visités dans leur ordre d'entrée dans l'arbre (circuit « MST +
+         * raccourcis »).
+         */
+        public int[] parcoursPrefixe() {
+            int n = parent.length;
+            // Fils de chaque sommet, rangés de façon contiguë
+            int[] debut = new int[n + 1];
+            for (int k = 1; k < taille; k++)
+                debut[parent[ordre[k]] + 1]++;
+            for (int v = 0; v < n; v++)
+                debut[v + 1] += debut[v];
+            int[] fils = new int[Math.max(0, taille - 1)];
+            int[] curseur = new int[n];
+            System.arraycopy(debut, 0, curseur, 0, n);
+            for (int k = 1; k < taille; k++) {
+                int v = ordre[k];
+                fils[curseur[parent[v]]++] = v;
+            }
+
+            int[] prefixe = new int[taille];
+            int[] pile = new int[taille];
+            int hauteur = 0, p = 0;
+            if (taille > 0)
+                pile[hauteur++] = ordre[0];
+            while (hauteur > 0) {
+                int v = pile[--hauteur];
+                prefixe[p++] = v;
+                // Empilés à l'envers pour sortir dans l'ordre
+                for (int k = debut[v + 1] - 1; k >= debut[v]; k--)
+                    pile[hauteur++] = fils[k];
+            }
+            return prefixe;
+        }
+    }
+
+    /**
+     * Arbre couvrant de tous les sommets (racine 0, triangle supérieur).
+     */
+    public static Arbre calculer(double[] d, int n) {
+        return calculer(d, n, 0, false, 0);
+    }
+
+    /**
+     * Calcule l'arbre couvrant minimal des sommets premier..n-1.
+     *
+     * @param d            Matrice plate n x n (Double.MAX_VALUE si
+     *                     inaccessible).
+     * @param n            Taille de la matrice.
+     * @param premier      Premier sommet pris en compte, racine de l'arbre
+     *                     (1 pour exclure un dépôt placé en 0).
+     * @param moyenne      false : poids d[min(i,j)][max(i,j)] (triangle
+     *                     supérieur) ; true : moyenne des deux sens.
+     * @param parallelisme Nombre de threads (0 = nombre de cœurs).
+     * @return L'arbre de la composante de la racine.
+     */
+    public static Arbre calculer(double[] d, int n, int premier, boolean moyenne, int parallelisme) {
+        Etat e = new Etat(d, n, moyenne);
+        Arbre a = new Arbre();
+        a.parent = e.parent;
+        a.ordre = new int[Math.max(0, n - premier)];
+        if (premier >= n)
+            return a;
+
+        int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = threads > 1 && n - premier >= SEUIL_PARALLELE ? new ForkJoinPool(threads) : null;
+        try {
+            int u = premier;
+            e.cle[u] = 0.0;
+            while (u >= 0) {
+                e.dansArbre[u] = true;
+                a.ordre[a.taille++] = u;
+                a.poids += e.cle[u];
+                u = pool == null ? e.relacher(u, premier, n) : pool.invoke(new TacheEtape(e, u, premier, n));
+                if (u >= 0 && e.cle[u] >= Double.MAX_VALUE)
+                    u = -1; // reste du graphe inaccessible
+            }
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+        return a;
+    }
+
+    /**
+     * Tableaux de travail de Prim.
+     */
+    private static final class Etat {
+        final double[] d;
+        final int n;
+        final boolean moyenne;
+        final double[] cle;
+        final int[] parent;
+        final boolean[] dansArbre;
+
+        Etat(double[] d, int n, boolean moyenne) {
+            this.d = d;
+            this.n = n;
+            this.moyenne = moyenne;
+            cle = new double[n];
+            parent = new int[n];
+            dansArbre = new boolean[n];
+            Arrays.fill(cle, Double.MAX_VALUE);
+            Arrays.fill(parent, -1);
+        }
+
+        double poids(int i, int j) {
+            if (!moyenne)
+                return i < j ? d[i * n + j] : d[j * n + i];
+            double x = d[i * n + j], y = d[j * n + i];
+            if (x >= Double.MAX_VALUE / 2 || y >= Double.MAX_VALUE / 2)
+                return Double.MAX_VALUE;
+            return x / 2 + y / 2;
+        }
+
+        /**
+         * Met à jour les clés de [debut, fin) après l'entrée de u, et renvoie
+         * le sommet hors de l'arbre de plus petite clé (-1 si aucun).
+         */
+        int relacher(int u, int debut, int fin) {
+            int meilleur = -1;
+            for (int v = debut; v < fin; v++) {
+                if (dansArbre[v])
+                    continue;
+                double w = poids(u, v);
+                if (w < cle[v]) {
+                    cle[v] = w;
+                    parent[v] = u;
+                }
+                if (meilleur < 0 || cle[v] < cle[meilleur])
+                    meilleur = v;
+            }
+            return meilleur;
+        }
+
+        int plusPetit(int a, int b) {
+            if (a < 0)
+                return b;
+            if (b < 0)
+                return a;
+            // À clé égale, le plus petit indice (résultat indépendant du découpage)
+            return cle[b] < cle[a] || (cle[b] == cle[a] && b < a) ? b : a;
+        }
+    }
+
+    /**
+     * Une étape de Prim répartie par blocs (réduction du minimum).
+     */
+    private static final class TacheEtape extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Etat e;
+        private final int u, debut, fin;
+
+        TacheEtape(Etat e, int u, int debut, int fin) {
+            this.e = e;
+            this.u = u;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (fin - debut <= TAILLE_BLOC)
+                return e.relacher(u, debut, fin);
+            int milieu = (debut + fin) >>> 1;
+            TacheEtape gauche = new TacheEtape(e, u, debut, milieu);
+            gauche.fork();
+            int droite = new TacheEtape(e, u, milieu, fin).compute();
+            return e.plusPetit(gauche.join(), droite);
+        }
+    }
+}
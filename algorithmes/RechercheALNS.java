@@ -0,0 +1,720 @@
+package algorithmes;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import modele.*;
+
+/**
+ * Recherche adaptative à grand voisinage (ALNS, Ropke et Pisinger) pour les
+ * tournées avec capacité (Thème 2), à partir de tournées existantes (MST,
+ * plus proche voisin...).
+ * À chaque itération, un opérateur de destruction retire q points
+ * (aléatoire, pires gains, points voisins) et un opérateur de réparation les
+ * réinsère (insertion la moins chère, regret-2). La nouvelle solution est
+ * acceptée par recuit simulé ; les opérateurs sont tirés selon des poids
+ * adaptés à leurs succès récents.
+ * Les tournées sont des listes doublement chaînées de points dont la charge
+ * et le coût sont tenus à jour : insérer ou retirer un point, et évaluer ce
+ * coup, se font en O(1). Un coup refusé est défait à partir d'un journal des
+ * opérations, sans copier la solution. Les insertions ne testent que les
+ * tournées des voisins les plus proches du point (plus une nouvelle tournée).
+ * Plusieurs recherches indépendantes tournent en parallèle pendant la durée
+ * donnée ; la meilleure solution est partagée (élite) et une recherche
+ * distancée repart périodiquement de celle-ci.
+ */
+public class RechercheALNS {
+
+    public static final long DUREE_PAR_DEFAUT_MS = 10_000;
+
+    // Voisins les plus proches retenus par point pour les insertions
+    private static final int VOISINS = 20;
+    // Scores des opérateurs : nouvelle meilleure, amélioration, acceptée
+    private static final double SCORE_MEILLEURE = 33, SCORE_AMELIORE = 9, SCORE_ACCEPTE = 13;
+    private static final int SEGMENT = 100; // itérations entre deux mises à jour des poids
+    private static final double REACTION = 0.1;
+    private static final int ECHANGES = 20; // échanges d'élite sur la durée
+    private static final int NB_DESTRUCTIONS = 3, NB_REPARATIONS = 2;
+
+    /**
+     * Résultat de la recherche.
+     */
+    public static class ResultatALNS {
+        public List<Tournee> tournees = new ArrayList<>();
+        public double distanceInitiale;
+        public double distance;
+        public long iterations;
+        public int threads;
+        public long dureeMs;
+        // Convergence : {temps en ms, meilleure distance} à chaque amélioration
+        public List<double[]> trace = new ArrayList<>();
+    }
+
+    public static ResultatALNS optimiser(Graphe g, Sommet depot, List<Tournee> initiales, double capaciteCamion) {
+        return optimiser(g, depot, initiales, capaciteCamion, DUREE_PAR_DEFAUT_MS, 0);
+    }
+
+    /**
+     * Améliore des tournées par ALNS.
+     *
+     * @param initiales    Solution de départ (tous les points à collecter).
+     * @param dureeMs      Budget de temps.
+     * @param parallelisme Nombre de recherches parallèles (0 = nombre de
+     *                     cœurs).
+     * @return Les meilleures tournées trouvées et la trace de convergence.
+     */
+    public static ResultatALNS optimiser(Graphe g, Sommet depot, List<Tournee> initiales, double capaciteCamion,
+            long dureeMs, int parallelisme) {
+        ResultatALNS res = new ResultatALNS();
+        List<Sommet> tous = new ArrayList<>();
+        tous.add(depot);
+        for (Tournee t : initiales)
+            tous.addAll(t.getPointsVisites());
+        int n = tous.size() - 1;
+        for (Tournee t : initiales)
+            res.distanceInitiale += t.getDistanceParcourue();
+        res.distance = res.distanceInitiale;
+        res.tournees = initiales;
+        if (n == 0)
+            return res;
+
+        // Distances en float : moitié moins de mémoire pour les grandes communes
+        Instance ins = new Instance(MatriceDistances.matriceParalleleFloat(g, tous, parallelisme), n,
+                capaciteCamion);
+        for (int c = 1; c <= n; c++) {
+            ins.quantite[c] = tous.get(c).getQuantiteDechets();
+            if (ins.d(0, c) >= Float.MAX_VALUE || ins.d(c, 0) >= Float.MAX_VALUE) {
+                System.out.println("ALNS impossible : " + tous.get(c).getId() + " non joignable depuis le dépôt.");
+                return res;
+            }
+        }
+        ins.calculerVoisins();
+
+        Solution depart = new Solution(ins);
+        int c = 1;
+        for (Tournee t : initiales) {
+            Route r = null;
+            for (int k = 0; k < t.getPointsVisites().size(); k++, c++)
+                r = depart.inserer(r, c, r == null ? 0 : r.queue);
+        }
+        res.distanceInitiale = depart.cout;
+
+        int threads = parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors();
+        Elite elite = new Elite(depart, System.currentTimeMillis());
+        List<Callable<Long>> recherches = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long graine = 12345L + 7919L * t;
+            recherches.add(() -> new Recherche(ins, depart.copie(), elite, dureeMs, graine).executer());
+        }
+        long debut = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (var f : pool.invokeAll(recherches))
+                res.iterations += f.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Recherche ALNS interrompue", e);
+        } finally {
+            pool.shutdown();
+        }
+        res.dureeMs = System.currentTimeMillis() - debut;
+        res.threads = threads;
+        res.trace = elite.trace;
+
+        // Conversion en tournées
+        res.tournees = new ArrayList<>();
+        res.distance = 0.0;
+        for (Route r : elite.meilleure.routes) {
+            Tournee t = new Tournee(res.tournees.size() + 1, depot);
+            int precedent = 0;
+            for (int x = r.tete; x != 0; x = elite.meilleure.suivant[x]) {
+                t.ajouterPoint(tous.get(x), ins.d(precedent, x));
+                precedent = x;
+            }
+            t.ajouterRetourDepot(ins.d(precedent, 0));
+            res.tournees.add(t);
+            res.distance += t.getDistanceParcourue();
+        }
+        return res;
+    }
+
+    /**
+     * Affiche les tournées, le gain et la convergence.
+     */
+    public static void afficherResultat(ResultatALNS r) {
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("             RÉSULTATS FINAUX - ALNS");
+        System.out.println("=".repeat(80));
+        for (Tournee t : r.tournees)
+            t.afficher();
+        System.out.printf("%nCamions nécessaires       : %d%n", r.tournees.size());
+        System.out.printf("Distance totale parcourue : %.2f km (départ %.2f km, gain %.2f km)%n", r.distance,
+                r.distanceInitiale, r.distanceInitiale - r.distance);
+        System.out.printf("Itérations : %d sur %d recherche(s) en %d ms%n", r.iterations, r.threads, r.dureeMs);
+        System.out.println("Convergence (temps --> meilleure distance) :");
+        // Au plus une dizaine de points de la trace
+        int pas = Math.max(1, r.trace.size() / 10);
+        for (int i = 0; i < r.trace.size(); i++)
+            if (i % pas == 0 || i == r.trace.size() - 1)
+                System.out.printf("   %6.0f ms --> %.2f km%n", r.trace.get(i)[0], r.trace.get(i)[1]);
+        System.out.println("=".repeat(80));
+    }
+
+    /**
+     * Données partagées (lecture seule) : matrice dépôt (0) + points 1..n.
+     */
+    private static final class Instance {
+        final float[] d;
+        final int n, m;
+        final double capacite;
+        final double[] quantite;
+        int[][] voisins;
+
+        Instance(float[] d, int n, double capacite) {
+            this.d = d;
+            this.n = n;
+            this.m = n + 1;
+            this.capacite = capacite;
+            this.quantite = new double[m];
+        }
+
+        double d(int i, int j) {
+            return d[i * m + j];
+        }
+
+        /**
+         * Les VOISINS points les plus proches de chaque point (insertion
+         * dans un petit tableau trié).
+         */
+        void calculerVoisins() {
+            int k = Math.min(VOISINS, n - 1);
+            voisins = new int[m][];
+            double[] dv = new double[k];
+            for (int i = 1; i <= n; i++) {
+                int[] v = new int[k];
+                int nb = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (j == i)
+                        continue;
+                    double dij = Math.min(d(i, j), d(j, i));
+                    if (nb == k && dij >= dv[k - 1])
+                        continue;
+                    int p = nb < k ? nb++ : k - 1;
+                    while (p > 0 && dv[p - 1] > dij) {
+                        dv[p] = dv[p - 1];
+                        v[p] = v[p - 1];
+                        p--;
+                    }
+                    dv[p] = dij;
+                    v[p] = j;
+                }
+                voisins[i] = v;
+            }
+        }
+    }
+
+    /**
+     * Une tournée : premier et dernier point, charge et coût tenus à jour.
+     * Les points sont chaînés dans Solution.suivant / Solution.precedent.
+     */
+    private static final class Route {
+        int tete, queue; // 0 : tournée vide
+        int taille;
+        double charge, cout;
+        int indice = -1; // place dans Solution.routes (-1 : hors solution)
+        int marque; // dernière évaluation qui l'a déjà examinée
+
+        Route copie() {
+            Route r = new Route();
+            r.tete = tete;
+            r.queue = queue;
+            r.taille = taille;
+            r.charge = charge;
+            r.cout = cout;
+            r.indice = indice;
+            return r;
+        }
+    }
+
+    /**
+     * Journal des opérations depuis ouvrirJournal() : un coup refusé est
+     * défait à l'envers au lieu de copier la solution à chaque itération.
+     */
+    private static final class Journal {
+        int taille;
+        int[] point = new int[16], precedent = new int[16];
+        Route[] route = new Route[16];
+        double[] cout = new double[16], charge = new double[16]; // de la tournée, avant l'opération
+        boolean[] insertion = new boolean[16];
+        double coutSolution;
+
+        void noter(boolean estInsertion, int c, int avant, Route r) {
+            if (taille == point.length) {
+                int t = 2 * taille;
+                point = Arrays.copyOf(point, t);
+                precedent = Arrays.copyOf(precedent, t);
+                route = Arrays.copyOf(route, t);
+                cout = Arrays.copyOf(cout, t);
+                charge = Arrays.copyOf(charge, t);
+                insertion = Arrays.copyOf(insertion, t);
+            }
+            insertion[taille] = estInsertion;
+            point[taille] = c;
+            precedent[taille] = avant;
+            route[taille] = r;
+            cout[taille] = r.cout;
+            charge[taille] = r.charge;
+            taille++;
+        }
+    }
+
+    /**
+     * Une solution : tournées, chaînage des points (0 = dépôt) et tournée de
+     * chaque point (null si retiré). Insertion et retrait en O(1).
+     */
+    private static final class Solution {
+        final Instance ins;
+        final ArrayList<Route> routes = new ArrayList<>();
+        final Route[] routeDe;
+        final int[] suivant, precedent;
+        double cout;
+        Journal journal; // null : opérations non journalisées
+
+        Solution(Instance ins) {
+            this.ins = ins;
+            this.routeDe = new Route[ins.m];
+            this.suivant = new int[ins.m];
+            this.precedent = new int[ins.m];
+        }
+
+        Solution copie() {
+            Solution s = new Solution(ins);
+            System.arraycopy(suivant, 0, s.suivant, 0, ins.m);
+            System.arraycopy(precedent, 0, s.precedent, 0, ins.m);
+            for (Route r : routes) {
+                Route c = r.copie();
+                s.routes.add(c);
+                for (int x = c.tete; x != 0; x = suivant[x])
+                    s.routeDe[x] = c;
+            }
+            s.cout = cout;
+            return s;
+        }
+
+        /**
+         * Point qui suit la position « après p » de r (0 : dépôt).
+         */
+        int apres(Route r, int p) {
+            return p == 0 ? r.tete : suivant[p];
+        }
+
+        /**
+         * Surcoût de l'insertion de c juste après p dans r (p = 0 : en tête).
+         */
+        double coutInsertion(Route r, int c, int p) {
+            int s = apres(r, p);
+            return ins.d(p, c) + ins.d(c, s) - ins.d(p, s);
+        }
+
+        /**
+         * Insère c juste après p dans r (null : nouvelle tournée).
+         *
+         * @return La tournée qui a reçu c.
+         */
+        Route inserer(Route r, int c, int p) {
+            if (r == null) {
+                r = new Route();
+                p = 0;
+            }
+            if (r.indice < 0) {
+                r.indice = routes.size();
+                routes.add(r);
+            }
+            if (journal != null)
+                journal.noter(true, c, p, r);
+            double delta = coutInsertion(r, c, p);
+            int s = apres(r, p);
+            precedent[c] = p;
+            suivant[c] = s;
+            if (p == 0)
+                r.tete = c;
+            else
+                suivant[p] = c;
+            if (s == 0)
+                r.queue = c;
+            else
+                precedent[s] = c;
+            r.taille++;
+            r.charge += ins.quantite[c];
+            r.cout += delta;
+            cout += delta;
+            routeDe[c] = r;
+            return r;
+        }
+
+        /**
+         * Gain du retrait de c.
+         */
+        double gainRetrait(int c) {
+            int p = precedent[c], s = suivant[c];
+            return ins.d(p, c) + ins.d(c, s) - ins.d(p, s);
+        }
+
+        void retirer(int c) {
+            Route r = routeDe[c];
+            int p = precedent[c], s = suivant[c];
+            if (journal != null)
+                journal.noter(false, c, p, r);
+            double gain = gainRetrait(c);
+            if (p == 0)
+                r.tete = s;
+            else
+                suivant[p] = s;
+            if (s == 0)
+                r.queue = p;
+            else
+                precedent[s] = p;
+            r.taille--;
+            r.charge -= ins.quantite[c];
+            r.cout -= gain;
+            cout -= gain;
+            routeDe[c] = null;
+            if (r.taille == 0) {
+                cout -= r.cout; // arrondis
+                r.cout = 0.0;
+                // Retrait par échange avec la dernière tournée
+                Route derniere = routes.remove(routes.size() - 1);
+                if (derniere != r) {
+                    routes.set(r.indice, derniere);
+                    derniere.indice = r.indice;
+                }
+                r.indice = -1;
+            }
+        }
+
+        void ouvrirJournal() {
+            if (journal == null)
+                journal = new Journal();
+            journal.taille = 0;
+            journal.coutSolution = cout;
+        }
+
+        /**
+         * Défait toutes les opérations depuis ouvrirJournal() ; charges et
+         * coûts retrouvent exactement leurs valeurs.
+         */
+        void annuler() {
+            Journal j = journal;
+            journal = null;
+            for (int k = j.taille - 1; k >= 0; k--) {
+                Route r = j.route[k];
+                if (j.insertion[k])
+                    retirer(j.point[k]);
+                else
+                    inserer(r, j.point[k], j.precedent[k]);
+                r.cout = j.cout[k];
+                r.charge = j.charge[k];
+            }
+            cout = j.coutSolution;
+            j.taille = 0;
+            journal = j;
+        }
+    }
+
+    /**
+     * Meilleure insertion trouvée pour un point.
+     */
+    private static final class Insertion {
+        Route route; // null : nouvelle tournée
+        int position; // point après lequel insérer (0 : en tête)
+        double cout, regret;
+    }
+
+    /**
+     * Meilleure solution partagée entre les recherches, et trace de
+     * convergence.
+     */
+    private static final class Elite {
+        Solution meilleure;
+        final long debut;
+        final List<double[]> trace = new ArrayList<>();
+
+        Elite(Solution depart, long debut) {
+            this.meilleure = depart.copie();
+            this.debut = debut;
+            trace.add(new double[] { 0, depart.cout });
+        }
+
+        synchronized void proposer(Solution s) {
+            if (s.cout < meilleure.cout - 1e-9) {
+                meilleure = s.copie();
+                trace.add(new double[] { System.currentTimeMillis() - debut, s.cout });
+            }
+        }
+
+        synchronized Solution copieSiMeilleure(double cout) {
+            return meilleure.cout < cout - 1e-9 ? meilleure.copie() : null;
+        }
+    }
+
+    /**
+     * Une recherche ALNS (un thread).
+     */
+    private static final class Recherche {
+        final Instance ins;
+        final Elite elite;
+        final long dureeMs;
+        final Random alea;
+        Solution courante, meilleure;
+        final double[] poidsD = new double[NB_DESTRUCTIONS], scoreD = new double[NB_DESTRUCTIONS];
+        final double[] poidsR = new double[NB_REPARATIONS], scoreR = new double[NB_REPARATIONS];
+        final int[] usagesD = new int[NB_DESTRUCTIONS], usagesR = new int[NB_REPARATIONS];
+        int marque = 0;
+
+        Recherche(Instance ins, Solution depart, Elite elite, long dureeMs, long graine) {
+            this.ins = ins;
+            this.elite = elite;
+            this.dureeMs = dureeMs;
+            this.alea = new Random(graine);
+            this.courante = depart;
+            this.meilleure = depart.copie();
+            Arrays.fill(poidsD, 1.0);
+            Arrays.fill(poidsR, 1.0);
+        }
+
+        long executer() {
+            long debut = System.currentTimeMillis();
+            // Température initiale : une dégradation de 5 % d'une tournée
+            // moyenne acceptée une fois sur deux ; décroissance géométrique
+            // jusqu'au millième sur la durée
+            double t0 = 0.05 * courante.cout / Math.max(1, courante.routes.size()) / Math.log(2);
+            long prochainEchange = dureeMs / ECHANGES;
+            long iterations = 0;
+            int qMin = Math.min(ins.n, 4);
+            int qMax = Math.min(ins.n, Math.max(qMin, Math.min(60, ins.n / 5)));
+            long ecoule;
+            while ((ecoule = System.currentTimeMillis() - debut) < dureeMs) {
+                iterations++;
+                double temperature = t0 * Math.pow(1e-3, (double) ecoule / dureeMs);
+                int q = qMin + alea.nextInt(qMax - qMin + 1);
+                int od = tirer(poidsD), or = tirer(poidsR);
+                usagesD[od]++;
+                usagesR[or]++;
+
+                // Le coup est joué sur la solution courante, puis défait s'il
+                // est refusé
+                double avant = courante.cout;
+                courante.ouvrirJournal();
+                int[] retires = switch (od) {
+                    case 0 -> detruireAleatoire(courante, q);
+                    case 1 -> detruirePires(courante, q);
+                    default -> detruireVoisins(courante, q);
+                };
+                if (or == 0)
+                    reparerGlouton(courante, retires);
+                else
+                    reparerRegret(courante, retires);
+
+                double score = 0;
+                if (courante.cout < meilleure.cout - 1e-9) {
+                    meilleure = courante.copie();
+                    elite.proposer(meilleure);
+                    score = SCORE_MEILLEURE;
+                } else if (courante.cout < avant - 1e-9) {
+                    score = SCORE_AMELIORE;
+                } else if (alea.nextDouble() < Math.exp((avant - courante.cout) / temperature)) {
+                    score = SCORE_ACCEPTE;
+                } else {
+                    courante.annuler();
+                }
+                scoreD[od] += score;
+                scoreR[or] += score;
+                if (iterations % SEGMENT == 0) {
+                    adapter(poidsD, scoreD, usagesD);
+                    adapter(poidsR, scoreR, usagesR);
+                }
+
+                // Échange d'élite : repartir de la meilleure solution globale
+                if (ecoule >= prochainEchange) {
+                    prochainEchange += dureeMs / ECHANGES;
+                    Solution s = elite.copieSiMeilleure(meilleure.cout);
+                    if (s != null) {
+                        meilleure = s;
+                        courante = s.copie();
+                    }
+                }
+            }
+            return iterations;
+        }
+
+        int tirer(double[] poids) {
+            double total = 0;
+            for (double p : poids)
+                total += p;
+            double x = alea.nextDouble() * total;
+            for (int i = 0; i < poids.length - 1; i++) {
+                x -= poids[i];
+                if (x < 0)
+                    return i;
+            }
+            return poids.length - 1;
+        }
+
+        static void adapter(double[] poids, double[] score, int[] usages) {
+            for (int i = 0; i < poids.length; i++) {
+                if (usages[i] > 0)
+                    poids[i] = (1 - REACTION) * poids[i] + REACTION * score[i] / usages[i];
+                poids[i] = Math.max(poids[i], 0.05);
+                score[i] = 0;
+                usages[i] = 0;
+            }
+        }
+
+        // ==================== DESTRUCTION ====================
+
+        int[] detruireAleatoire(Solution s, int q) {
+            int[] retires = new int[q];
+            for (int k = 0; k < q; k++) {
+                int c;
+                do
+                    c = 1 + alea.nextInt(ins.n);
+                while (s.routeDe[c] == null);
+                s.retirer(c);
+                retires[k] = c;
+            }
+            return retires;
+        }
+
+        /**
+         * Retire les points qui coûtent le plus à leur tournée, avec un tirage
+         * biaisé (puissance 3) pour varier.
+         */
+        int[] detruirePires(Solution s, int q) {
+            Integer[] ordre = new Integer[ins.n];
+            double[] gain = new double[ins.m];
+            for (int c = 1; c <= ins.n; c++) {
+                ordre[c - 1] = c;
+                gain[c] = s.gainRetrait(c);
+            }
+            Arrays.sort(ordre, (a, b) -> Double.compare(gain[b], gain[a]));
+            int[] retires = new int[q];
+            int nb = 0;
+            while (nb < q) {
+                int c = ordre[(int) (Math.pow(alea.nextDouble(), 3) * ins.n)];
+                if (s.routeDe[c] == null)
+                    continue;
+                s.retirer(c);
+                retires[nb++] = c;
+            }
+            return retires;
+        }
+
+        /**
+         * Retire un point au hasard puis, de proche en proche, ses voisins
+         * (points proches, faciles à échanger entre tournées).
+         */
+        int[] detruireVoisins(Solution s, int q) {
+            int[] retires = new int[q];
+            int nb = 0;
+            retires[nb++] = 1 + alea.nextInt(ins.n);
+            s.retirer(retires[0]);
+            while (nb < q) {
+                int graine = retires[alea.nextInt(nb)];
+                int c = -1;
+                for (int v : ins.voisins[graine]) {
+                    if (s.routeDe[v] != null) {
+                        c = v;
+                        break;
+                    }
+                }
+                if (c < 0) {
+                    do
+                        c = 1 + alea.nextInt(ins.n);
+                    while (s.routeDe[c] == null);
+                }
+                s.retirer(c);
+                retires[nb++] = c;
+            }
+            return retires;
+        }
+
+        // ==================== RÉPARATION ====================
+
+        /**
+         * Meilleure et deuxième meilleure insertion de c, parmi les tournées
+         * de ses voisins et une nouvelle tournée.
+         */
+        void evaluer(Solution s, int c, Insertion res) {
+            res.route = null;
+            res.position = 0;
+            res.cout = ins.d(0, c) + ins.d(c, 0);
+            double second = Double.MAX_VALUE;
+            marque++;
+            for (int v : ins.voisins[c]) {
+                Route r = s.routeDe[v];
+                if (r == null || r.marque == marque)
+                    continue;
+                r.marque = marque;
+                if (r.charge + ins.quantite[c] > ins.capacite + 1e-9)
+                    continue;
+                // Toutes les places de la tournée : en tête, puis après chaque point
+                double meilleur = s.coutInsertion(r, c, 0);
+                int pos = 0;
+                for (int p = r.tete; p != 0; p = s.suivant[p]) {
+                    double x = s.coutInsertion(r, c, p);
+                    if (x < meilleur) {
+                        meilleur = x;
+                        pos = p;
+                    }
+                }
+                if (meilleur < res.cout) {
+                    second = res.cout;
+                    res.cout = meilleur;
+                    res.route = r;
+                    res.position = pos;
+                } else if (meilleur < second) {
+                    second = meilleur;
+                }
+            }
+            res.regret = second == Double.MAX_VALUE ? 0.0 : second - res.cout;
+        }
+
+        void reparerGlouton(Solution s, int[] retires) {
+            for (int i = retires.length - 1; i > 0; i--) {
+                int j = alea.nextInt(i + 1);
+                int x = retires[i];
+                retires[i] = retires[j];
+                retires[j] = x;
+            }
+            Insertion choix = new Insertion();
+            for (int c : retires) {
+                evaluer(s, c, choix);
+                s.inserer(choix.route, c, choix.position);
+            }
+        }
+
+        /**
+         * Regret-2 : on insère d'abord le point qui perdrait le plus à ne
+         * pas obtenir sa meilleure place.
+         */
+        void reparerRegret(Solution s, int[] retires) {
+            int restants = retires.length;
+            Insertion courant = new Insertion(), choix = new Insertion();
+            while (restants > 0) {
+                int meilleur = -1;
+                for (int i = 0; i < restants; i++) {
+                    evaluer(s, retires[i], courant);
+                    if (meilleur < 0 || courant.regret > choix.regret
+                            || (courant.regret == choix.regret && courant.cout < choix.cout)) {
+                        meilleur = i;
+                        choix.route = courant.route;
+                        choix.position = courant.position;
+                        choix.cout = courant.cout;
+                        choix.regret = courant.regret;
+                    }
+                }
+                s.inserer(choix.route, retires[meilleur], choix.position);
+                retires[meilleur] = retires[--restants];
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Heuristique de qualité pour les grandes tournées à un seul camion
+ * (encombrants en grand nombre, circuit MST avant découpage).
+ * Recherche locale itérée dans l'esprit de Lin-Kernighan :
+ * 1. circuit initial par plus proche voisin ;
+ * 2. descente avec 2-opt, Or-opt et échanges de segments (3-opt séquentiel
+ * sans inversion, critère de gain positif), limitée aux K plus proches
+ * voisins de chaque point ;
+ * 3. perturbation « double pont » locale puis nouvelle descente autour des
+ * arcs modifiés ; le résultat est gardé s'il raccourcit le circuit. On
+ * s'arrête à l'échéance ou après une longue série d'essais sans progrès.
+ * Les mouvements sont évalués sur la matrice orientée : les sens uniques
+ * sont respectés. Sur de petites instances, le résultat se compare
+ * directement à TSPPetit.
+ */
+public class TSPLinKernighan {
+
+    public static final long DUREE_PAR_DEFAUT_MS = 5000;
+
+    // Candidats par point, et longueur maximale des segments du double pont
+    private static final int K_CANDIDATS = 10;
+    private static final int SEGMENT_PERTURBATION = 50;
+    // Arrêt anticipé après 50 perturbations par point sans progrès
+    private static final int STAGNATION_PAR_POINT = 50;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Résultat de l'heuristique.
+     */
+    public static class ResultatLK {
+        public List<Sommet> circuit = new ArrayList<>();
+        public double distance;
+        public double distanceInitiale; // plus proche voisin
+        public int iterations; // perturbations essayées
+        public int ameliorations; // perturbations retenues
+        public long dureeMs;
+    }
+
+    /**
+     * Résout avec la durée par défaut.
+     */
+    public static ResultatLK resoudre(Graphe g, Sommet depot, List<Sommet> points) {
+        return resoudre(g, depot, points, DUREE_PAR_DEFAUT_MS);
+    }
+
+    /**
+     * Calcule une tournée courte passant par tous les points.
+     *
+     * @param g        Le graphe.
+     * @param depot    Le dépôt (départ et arrivée).
+     * @param points   Les points à visiter.
+     * @param limiteMs Durée maximale (calcul de la matrice non compris).
+     * @return La tournée (circuit vide si un point est inaccessible).
+     */
+    public static ResultatLK resoudre(Graphe g, Sommet depot, List<Sommet> points, long limiteMs) {
+        long debut = System.currentTimeMillis();
+        ResultatLK res = new ResultatLK();
+        List<Sommet> tous = new ArrayList<>();
+        tous.add(depot);
+        if (points != null)
+            for (Sommet s : points)
+                if (!s.equals(depot) && !tous.contains(s))
+                    tous.add(s);
+        int m = tous.size();
+        if (m == 1) {
+            res.circuit.add(depot);
+            return res;
+        }
+
+        double[] d = MatriceDistances.matriceParallele(g, tous, 0);
+        int[] ordre = plusProcheVoisin(d, m);
+        if (ordre == null) {
+            res.dureeMs = System.currentTimeMillis() - debut;
+            return res;
+        }
+
+        AmeliorationLocale.Recherche r = nouvelleRecherche(d, m, ordre);
+        res.distanceInitiale = r.longueur();
+        ameliorer(r, System.nanoTime() + limiteMs * 1_000_000L, new Random(1), res);
+
+        for (int k = 0; k < m; k++)
+            res.circuit.add(tous.get(r.t[k]));
+        r.recalculer();
+        res.distance = r.longueur();
+        res.dureeMs = System.currentTimeMillis() - debut;
+        return res;
+    }
+
+    /**
+     * Améliore un ordre de visite sur une matrice donnée (dépôt en 0).
+     *
+     * @param d        Matrice plate m x m.
+     * @param m        Nombre de sommets (dépôt compris).
+     * @param ordre    Ordre de départ, ordre[0] = 0.
+     * @param limiteMs Durée maximale.
+     * @return Le nouvel ordre (ordre[0] = 0), ou l'ordre donné si le circuit
+     *         contient un arc impossible.
+     */
+    static int[] ameliorerOrdre(double[] d, int m, int[] ordre, long limiteMs) {
+        if (m < 4)
+            return ordre;
+        AmeliorationLocale.Recherche r = nouvelleRecherche(d, m, ordre);
+        if (r.longueur() >= Double.MAX_VALUE)
+            return ordre;
+        ameliorer(r, System.nanoTime() + limiteMs * 1_000_000L, new Random(1), new ResultatLK());
+        return Arrays.copyOf(r.t, m);
+    }
+
+    private static AmeliorationLocale.Recherche nouvelleRecherche(double[] d, int m, int[] ordre) {
+        AmeliorationLocale.Recherche r = new AmeliorationLocale.Recherche(d, m, ordre,
+                AmeliorationLocale.listesVoisins(d, m, K_CANDIDATS));
+        r.echangeSegments = true;
+        return r;
+    }
+
+    /**
+     * Descente puis perturbations jusqu'à l'échéance.
+     */
+    private static void ameliorer(AmeliorationLocale.Recherche r, long echeance, Random alea, ResultatLK res) {
+        int m = r.m;
+        r.optimiser(echeance, Integer.MAX_VALUE);
+        if (m < 8)
+            return; // trop petit pour un double pont
+
+        int[] meilleur = r.sauvegarde();
+        double meilleureLongueur = r.longueur();
+        int stagnation = Math.max(1000, STAGNATION_PAR_POINT * m);
+        int sansProgres = 0;
+        while (sansProgres < stagnation && System.nanoTime() < echeance) {
+            res.iterations++;
+            // Double pont local : trois coupes rapprochées p < q < r
+            int fenetre = Math.min(SEGMENT_PERTURBATION, (m - 2) / 3);
+            int p = alea.nextInt(m - 2 * fenetre - 1);
+            int q = p + 1 + alea.nextInt(fenetre);
+            int s = q + 1 + alea.nextInt(fenetre);
+            int[] touches = r.echanger(p, q, s);
+            r.optimiser(touches, echeance, Integer.MAX_VALUE);
+
+            if (r.longueur() < meilleureLongueur - EPSILON) {
+                r.sauvegarder(meilleur);
+                r.recalculer(); // repart de sommes exactes
+                meilleureLongueur = r.longueur();
+                res.ameliorations++;
+                sansProgres = 0;
+            } else {
+                r.restaurer(meilleur);
+                sansProgres++;
+            }
+        }
+    }
+
+    /**
+     * Plus proche voisin depuis le dépôt.
+     *
+     * @return L'ordre de visite, ou null si un point est inaccessible.
+     */
+    private static int[] plusProcheVoisin(double[] d, int m) {
+        int[] ordre = new int[m];
+        boolean[] pris = new boolean[m];
+        pris[0] = true;
+        for (int k = 1; k < m; k++) {
+            int dernier = ordre[k - 1], choix = -1;
+            for (int v = 1; v < m; v++)
+                if (!pris[v] && d[dernier * m + v] < Double.MAX_VALUE
+                        && (choix < 0 || d[dernier * m + v] < d[dernier * m + choix]))
+                    choix = v;
+            if (choix < 0)
+                return null;
+            ordre[k] = choix;
+            pris[choix] = true;
+        }
+        return d[ordre[m - 1] * m] < Double.MAX_VALUE ? ordre : null;
+    }
+
+    /**
+     * Affiche la tournée (même présentation que TSPPetit) et les
+     * statistiques de la recherche.
+     */
+    public static void afficherResultat(ResultatLK res, Graphe g) {
+        List<Object> liste = new ArrayList<>();
+        liste.add(res.circuit);
+        liste.add(res.distance);
+        TSPPetit.afficherResultat(liste, g);
+
+        if (res.circuit.size() <= 1)
+            return;
+        System.out.println("HEURISTIQUE LIN-KERNIGHAN :");
+        System.out.printf("   Plus proche voisin : %.2f km --> %.2f km après optimisation%n",
+                res.distanceInitiale, res.distance);
+        System.out.printf("   Perturbations      : %d essayées, %d retenues en %d ms%n",
+                res.iterations, res.ameliorations, res.dureeMs);
+        System.out.println("=".repeat(90));
+    }
+}
@@ -2,23 +2,75 @@ package algorithmes;
 
 import modele.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * classe pour résoudre le TSP exact .
- * Utilisé pour le Thème 1.a – Ramassage des encombrants (≤12 points).
+ * Utilisé pour le Thème 1.a – Ramassage des encombrants (jusqu'à MAX_POINTS
+ * points).
+ * Held-Karp « tiré » : dp(S, j) = min sur i de S \ {j} de dp(S \ {j}, i) + d(i, j).
+ * Les sous-ensembles sont traités couche par couche (par nombre de points),
+ * chaque couche en parallèle : les états d'une couche ne dépendent que de la
+ * couche précédente. Seuls les états atteignables (j dans S) sont stockés,
+ * en float, avec un prédécesseur sur un octet.
  */
 public class TSPPetit {
 
+    // Limite de mémoire, pas d'indices (ils tiendraient en int jusqu'à 27
+    // points) : la table compte n * 2^(n-1) états de 5 octets, environ
+    // 0,25 Go pour 22 points et le double à chaque point ajouté
+    public static final int MAX_POINTS = 22;
+
+    // Budget mémoire par défaut de la table de programmation dynamique (512 Mo)
+    public static final long BUDGET_PAR_DEFAUT = 512L * 1024 * 1024;
+
+    private static long budgetMemoire = BUDGET_PAR_DEFAUT;
+
+    // En dessous, une couche est traitée sans découpage parallèle
+    private static final int SEUIL_PARALLELE = 2048;
+
+    /**
+     * Modifie le budget mémoire du solveur exact.
+     *
+     * @param octets Le nouveau budget en octets.
+     */
+    public static void setBudgetMemoire(long octets) {
+        budgetMemoire = octets;
+    }
+
+    public static long getBudgetMemoire() {
+        return budgetMemoire;
+    }
+
+    /**
+     * Estime la mémoire nécessaire pour n points : n * 2^(n-1) états de
+     * 5 octets (float + prédécesseur), les décalages par sous-ensemble et la
+     * plus grande couche.
+     *
+     * @param n Le nombre de points (hors dépôt).
+     * @return Le nombre d'octets estimé.
+     */
+    public static long estimerMemoire(int n) {
+        if (n <= 0)
+            return 0;
+        long etats = (long) n << (n - 1);
+        long decalages = 4L * ((1L << n) + 1);
+        long couche = 4L * coefficientBinomial(n, n / 2);
+        return 5L * etats + decalages + couche;
+    }
+
     /**
-     * Résout le TSP exact de façon itérative (algorithme de Held-Karp simplifié).
+     * Résout le TSP exact de façon itérative (algorithme de Held-Karp).
      * 
      * @param g      Le graphe.
      * @param depot  Le dépôt (point de départ et d'arrivée).
-     * @param points Les points à visiter (max 12).
+     * @param points Les points à visiter (max MAX_POINTS).
      * @return Liste contenant : [0] = circuit optimal, [1] = distance totale
+     * @throws IllegalArgumentException Si plus de MAX_POINTS points.
+     * @throws IllegalStateException    Si la table dépasse le budget mémoire
+     *                                  (le message donne l'estimation).
      */
-    // REMPLACE LA MÉTHODE resoudreTSPExact PAR CECI
-
     public static List<Object> resoudreTSPExact(Graphe g, Sommet depot, List<Sommet> points) {
         if (points == null || points.isEmpty()) {
             List<Object> res = new ArrayList<>();
@@ -28,57 +80,64 @@ public class TSPPetit {
         }
 
         int n = points.size();
+        if (n > MAX_POINTS)
+            throw new IllegalArgumentException(
+                    "TSP exact limité à " + MAX_POINTS + " points (" + n + " demandés)");
+        long memoire = estimerMemoire(n);
+        if (memoire > budgetMemoire)
+            throw new IllegalStateException(String.format(
+                    "TSP exact sur %d points : environ %.1f Mo nécessaires pour un budget de %.1f Mo",
+                    n, memoire / (1024.0 * 1024.0), budgetMemoire / (1024.0 * 1024.0)));
+
         List<Sommet> tous = new ArrayList<>();
         tous.add(depot);
         tous.addAll(points);
 
-        // Matrice des distances
-        double[][] dist = new double[n + 1][n + 1];
-        for (int i = 0; i <= n; i++) {
-            for (int j = 0; j <= n; j++) {
-                if (i == j) {
-                    dist[i][j] = 0;
-                } else {
-                    double d = Dijkstra.calculerDistance(g, tous.get(i), tous.get(j));
-                    dist[i][j] = (d >= Double.MAX_VALUE) ? Double.MAX_VALUE : d;
-                }
-            }
+        // Matrice des distances : un arbre de plus courts chemins par ligne,
+        // gardé en cache pour afficherResultat et les autres planificateurs
+        double[][] dist = MatriceDistances.pour(g).matrice(tous);
+
+        // Distances entre points en float (le dépôt est traité à part)
+        float[] d = new float[n * n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                d[i * n + j] = versFloat(dist[i + 1][j + 1]);
+
+        // Décalage de chaque sous-ensemble dans la table : l'état (S, j) est
+        // rangé à decalage[S] + rang de j parmi les points de S
+        int nbMasques = 1 << n;
+        int[] decalage = new int[nbMasques + 1];
+        for (int mask = 0; mask < nbMasques; mask++)
+            decalage[mask + 1] = decalage[mask] + Integer.bitCount(mask);
+        float[] dp = new float[decalage[nbMasques]];
+        byte[] pred = new byte[dp.length];
+
+        // Couche 1 : dépôt --> j
+        for (int j = 0; j < n; j++) {
+            dp[decalage[1 << j]] = versFloat(dist[0][j + 1]);
+            pred[decalage[1 << j]] = -1;
         }
 
-        // DP
-        double[][] dp = new double[1 << n][n + 1];
-        int[][] pred = new int[1 << n][n + 1];
-        for (double[] row : dp)
-            Arrays.fill(row, Double.MAX_VALUE);
-        dp[0][0] = 0.0;
-
-        for (int mask = 0; mask < (1 << n); mask++) {
-            for (int i = 0; i <= n; i++) {
-                if (dp[mask][i] >= Double.MAX_VALUE)
-                    continue;
-                for (int j = 1; j <= n; j++) {
-                    if ((mask & (1 << (j - 1))) != 0)
-                        continue;
-                    int newMask = mask | (1 << (j - 1));
-                    double cost = dp[mask][i] + dist[i][j];
-                    if (cost < dp[newMask][j]) {
-                        dp[newMask][j] = cost;
-                        pred[newMask][j] = i;
-                    }
-                }
+        int[] couche = new int[(int) coefficientBinomial(n, n / 2)];
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for (int k = 2; k <= n; k++) {
+                int taille = sousEnsembles(n, k, couche);
+                pool.invoke(new TacheCouche(n, d, decalage, dp, pred, couche, 0, taille));
             }
+        } finally {
+            pool.shutdown();
         }
 
         // Meilleur retour
-        double meilleure = Double.MAX_VALUE;
+        int fullMask = nbMasques - 1;
+        float meilleure = Float.POSITIVE_INFINITY;
         int meilleurDernier = -1;
-        int fullMask = (1 << n) - 1;
-
-        for (int i = 1; i <= n; i++) {
-            double totale = dp[fullMask][i] + dist[i][0];
+        for (int j = 0; j < n; j++) {
+            float totale = dp[decalage[fullMask] + j] + versFloat(dist[j + 1][0]);
             if (totale < meilleure) {
                 meilleure = totale;
-                meilleurDernier = i;
+                meilleurDernier = j;
             }
         }
 
@@ -93,21 +152,118 @@ public class TSPPetit {
         List<Sommet> circuit = new ArrayList<>();
         circuit.add(depot);
 
+        // Distance recalculée en double le long du circuit (retour au dépôt
+        // d'abord, puis en remontant les prédécesseurs)
+        double total = dist[meilleurDernier + 1][0];
         int courant = meilleurDernier;
         int mask = fullMask;
-        while (courant != 0) {
-            circuit.add(1, tous.get(courant));
-            int prev = pred[mask][courant];
-            mask &= ~(1 << (courant - 1));
+        while (courant >= 0) {
+            circuit.add(1, points.get(courant));
+            int prev = pred[decalage[mask] + rang(mask, courant)];
+            total += dist[prev + 1][courant + 1];
+            mask &= ~(1 << courant);
             courant = prev;
         }
 
         List<Object> resultat = new ArrayList<>();
         resultat.add(circuit);
-        resultat.add(meilleure);
+        resultat.add(total);
         return resultat;
     }
 
+    /**
+     * Calcule une tranche d'une couche de sous-ensembles.
+     */
+    private static final class TacheCouche extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int n;
+        private final float[] d;
+        private final int[] decalage;
+        private final float[] dp;
+        private final byte[] pred;
+        private final int[] couche;
+        private final int debut, fin;
+
+        TacheCouche(int n, float[] d, int[] decalage, float[] dp, byte[] pred, int[] couche, int debut, int fin) {
+            this.n = n;
+            this.d = d;
+            this.decalage = decalage;
+            this.dp = dp;
+            this.pred = pred;
+            this.couche = couche;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut > SEUIL_PARALLELE) {
+                int milieu = (debut + fin) >>> 1;
+                invokeAll(new TacheCouche(n, d, decalage, dp, pred, couche, debut, milieu),
+                        new TacheCouche(n, d, decalage, dp, pred, couche, milieu, fin));
+                return;
+            }
+            for (int c = debut; c < fin; c++) {
+                int mask = couche[c];
+                int etat = decalage[mask];
+                // Les points j de S, dans l'ordre croissant (donc de rang croissant)
+                for (int restants = mask; restants != 0; restants &= restants - 1, etat++) {
+                    int j = Integer.numberOfTrailingZeros(restants);
+                    int precedent = mask & ~(1 << j);
+                    int base = decalage[precedent];
+                    float meilleur = Float.POSITIVE_INFINITY;
+                    int arg = 0;
+                    int r = 0;
+                    for (int autres = precedent; autres != 0; autres &= autres - 1, r++) {
+                        int i = Integer.numberOfTrailingZeros(autres);
+                        float cout = dp[base + r] + d[i * n + j];
+                        if (cout < meilleur) {
+                            meilleur = cout;
+                            arg = i;
+                        }
+                    }
+                    dp[etat] = meilleur;
+                    pred[etat] = (byte) arg;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remplit couche avec les sous-ensembles de k points parmi n, par ordre
+     * croissant (astuce de Gosper).
+     *
+     * @return Le nombre de sous-ensembles.
+     */
+    private static int sousEnsembles(int n, int k, int[] couche) {
+        int taille = 0;
+        int limite = 1 << n;
+        for (int mask = (1 << k) - 1; mask < limite;) {
+            couche[taille++] = mask;
+            int c = mask & -mask;
+            int r = mask + c;
+            mask = (((r ^ mask) >>> 2) / c) | r;
+        }
+        return taille;
+    }
+
+    // Rang de j parmi les points de mask
+    private static int rang(int mask, int j) {
+        return Integer.bitCount(mask & ((1 << j) - 1));
+    }
+
+    private static float versFloat(double distance) {
+        return distance >= Double.MAX_VALUE ? Float.POSITIVE_INFINITY : (float) distance;
+    }
+
+    private static long coefficientBinomial(int n, int k) {
+        long c = 1;
+        for (int i = 1; i <= k; i++)
+            c = c * (n - k + i) / i;
+        return c;
+    }
+
     /**
      * Affiche le résultat du TSP.
      */
@@ -143,13 +299,14 @@ public class TSPPetit {
         System.out.println("CHEMIN RÉEL EMPRUNTÉ PAR LE CAMION :");
         System.out.print("   ");
         double totalReel = 0.0;
+        MatriceDistances md = MatriceDistances.pour(g);
 
         for (int i = 0; i < circuit.size(); i++) {
             Sommet depart = circuit.get(i);
             Sommet arrivee = circuit.get((i + 1) % circuit.size());
 
-            List<Sommet> segment = Dijkstra.cheminLePlusCourt(g, depart, arrivee);
-            double distSegment = Dijkstra.calculerDistance(g, depart, arrivee);
+            List<Sommet> segment = md.chemin(depart, arrivee);
+            double distSegment = md.distance(depart, arrivee);
             totalReel += distSegment;
 
             for (int j = 0; j < segment.size(); j++) {
@@ -0,0 +1,497 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * TSP exact par séparation et évaluation (branch-and-bound), pour les
+ * tournées d'encombrants trop grandes pour Held-Karp (25 à 40 adresses).
+ * Parcours en profondeur : le circuit est construit depuis le dépôt, les
+ * prolongements étant essayés du plus proche au plus lointain. La meilleure
+ * solution connue (plus proche voisin amélioré par déplacements) sert de
+ * borne supérieure initiale.
+ * Évaluation d'un noeud : le reste du circuit est un chemin hamiltonien du
+ * dernier point vers le dépôt. On en prend deux minorants :
+ * - degrés : chaque point restant doit être quitté et atteint une fois ;
+ * - 1-arbre de Held-Karp avec pénalités lagrangiennes (sous-gradient), sur
+ * les distances symétrisées min(d(i,j), d(j,i)), le dernier point et le
+ * dépôt étant fusionnés. Les sens uniques rendent la matrice asymétrique,
+ * mais ce minorant reste valable.
+ * Avec une limite de temps, on renvoie la meilleure tournée trouvée et
+ * l'écart prouvé avec l'optimum.
+ */
+public class TSPSeparationEvaluation {
+
+    public static final long DUREE_PAR_DEFAUT_MS = 30_000;
+
+    // Itérations de sous-gradient à la racine, puis à chaque noeud (les
+    // pénalités du parent servent de point de départ)
+    private static final int ITERATIONS_RACINE = 300;
+    private static final int ITERATIONS_NOEUD = 8;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Résultat de la séparation et évaluation.
+     */
+    public static class ResultatSeparation {
+        public List<Sommet> circuit = new ArrayList<>();
+        public double distance;
+        public double borneInferieure; // minorant prouvé de l'optimum
+        public boolean optimal; // recherche terminée avant la limite de temps
+        public long noeuds;
+        public long dureeMs;
+
+        /**
+         * Écart relatif prouvé entre la tournée trouvée et l'optimum.
+         *
+         * @return L'écart (0.0 si la tournée est optimale).
+         */
+        public double ecart() {
+            if (optimal || distance <= 0.0)
+                return 0.0;
+            return (distance - borneInferieure) / distance;
+        }
+    }
+
+    private final int m; // nombre de sommets, dépôt = 0
+    private final double[] d; // distances orientées, d[i * m + j]
+    private final double[] w; // distances symétrisées
+    private final long echeance;
+
+    private boolean interrompu = false;
+    private double borneAbandonnee = Double.MAX_VALUE; // min des bornes des sous-arbres abandonnés
+    private long noeuds = 0;
+    private double meilleure = Double.MAX_VALUE;
+    private int[] meilleurOrdre;
+
+    // État de la recherche
+    private final int[] ordre; // ordre[0] = dépôt, puis les points visités
+    private final boolean[] visite;
+    private final double[][] penalites; // pénalités lagrangiennes par profondeur
+    private final int[][] enfants; // prolongements triés, par profondeur
+
+    // Tampons de calcul des bornes
+    private final int[] restants;
+    private final double[] cle;
+    private final int[] parent;
+    private final boolean[] dansArbre;
+    private final int[] degre;
+
+    private TSPSeparationEvaluation(double[] d, int m, long echeance) {
+        this.m = m;
+        this.d = d;
+        this.echeance = echeance;
+        this.w = new double[m * m];
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < m; j++)
+                w[i * m + j] = Math.min(d[i * m + j], d[j * m + i]);
+        this.ordre = new int[m];
+        this.visite = new boolean[m];
+        this.penalites = new double[m + 1][m];
+        this.enfants = new int[m + 1][m];
+        this.restants = new int[m];
+        this.cle = new double[m];
+        this.parent = new int[m];
+        this.dansArbre = new boolean[m];
+        this.degre = new int[m];
+    }
+
+    /**
+     * Résout le TSP exact avec la limite de temps par défaut.
+     */
+    public static ResultatSeparation resoudre(Graphe g, Sommet depot, List<Sommet> points) {
+        return resoudre(g, depot, points, DUREE_PAR_DEFAUT_MS);
+    }
+
+    /**
+     * Résout le TSP exact par séparation et évaluation.
+     *
+     * @param g        Le graphe.
+     * @param depot    Le dépôt (point de départ et d'arrivée).
+     * @param points   Les points à visiter.
+     * @param limiteMs Durée maximale de la recherche en millisecondes.
+     * @return La meilleure tournée trouvée, avec la borne inférieure prouvée.
+     */
+    public static ResultatSeparation resoudre(Graphe g, Sommet depot, List<Sommet> points, long limiteMs) {
+        long debut = System.currentTimeMillis();
+        ResultatSeparation res = new ResultatSeparation();
+        if (points == null || points.isEmpty()) {
+            res.circuit.add(depot);
+            res.optimal = true;
+            return res;
+        }
+
+        List<Sommet> tous = new ArrayList<>();
+        tous.add(depot);
+        tous.addAll(points);
+        int m = tous.size();
+        double[] d = MatriceDistances.matriceParallele(g, tous, 0);
+
+        TSPSeparationEvaluation bb = new TSPSeparationEvaluation(d, m, System.nanoTime() + limiteMs * 1_000_000L);
+        bb.initialiser();
+        double borneRacine = bb.borne(0, 0, 0.0, ITERATIONS_RACINE);
+        bb.visite[0] = true;
+        bb.explorer(0, 1, 0.0);
+
+        res.noeuds = bb.noeuds;
+        res.optimal = !bb.interrompu;
+        res.dureeMs = System.currentTimeMillis() - debut;
+        if (bb.meilleurOrdre == null) {
+            res.circuit.clear();
+            return res;
+        }
+        res.circuit.add(depot);
+        for (int k = 1; k < m; k++)
+            res.circuit.add(tous.get(bb.meilleurOrdre[k]));
+        res.distance = bb.meilleure;
+        res.borneInferieure = res.optimal ? bb.meilleure
+                : Math.min(bb.meilleure, Math.max(borneRacine, bb.borneAbandonnee));
+        return res;
+    }
+
+    // ==================== BORNE SUPÉRIEURE ====================
+
+    /**
+     * Plus proche voisin depuis le dépôt, puis inversions de segment (2-opt)
+     * et déplacements de segments de 1 à 3 points (Or-opt) tant que la
+     * tournée raccourcit. Chaque candidat est réévalué en entier (O(n)) :
+     * simple, valable sur distances asymétriques, et suffisant pour quelques
+     * dizaines de points.
+     */
+    private void initialiser() {
+        int[] tour = new int[m];
+        boolean[] pris = new boolean[m];
+        pris[0] = true;
+        for (int k = 1; k < m; k++) {
+            int dernier = tour[k - 1], choix = -1;
+            for (int v = 1; v < m; v++)
+                if (!pris[v] && d[dernier * m + v] < Double.MAX_VALUE
+                        && (choix < 0 || d[dernier * m + v] < d[dernier * m + choix]))
+                    choix = v;
+            if (choix < 0)
+                return; // point inaccessible : pas de borne initiale
+            tour[k] = choix;
+            pris[choix] = true;
+        }
+
+        double total = longueur(tour);
+        int[] candidat = new int[m];
+        boolean ameliore = true;
+        while (ameliore) {
+            ameliore = false;
+            // 2-opt : inversion de tour[i..j]
+            for (int i = 1; i < m; i++) {
+                for (int j = i + 1; j < m; j++) {
+                    System.arraycopy(tour, 0, candidat, 0, m);
+                    for (int a = i, b = j; a < b; a++, b--) {
+                        candidat[a] = tour[b];
+                        candidat[b] = tour[a];
+                    }
+                    double l = longueur(candidat);
+                    if (l < total - EPSILON) {
+                        System.arraycopy(candidat, 0, tour, 0, m);
+                        total = l;
+                        ameliore = true;
+                    }
+                }
+            }
+            // Or-opt : tour[i..i+lg-1] réinséré avant la position j du reste
+            for (int lg = 1; lg <= 3; lg++) {
+                for (int i = 1; i + lg <= m; i++) {
+                    for (int j = 1; j <= m - lg; j++) {
+                        if (j == i)
+                            continue;
+                        int k = 0;
+                        for (int x = 0; x < m; x++) {
+                            if (x >= i && x < i + lg)
+                                continue;
+                            if (k == j)
+                                for (int y = i; y < i + lg; y++)
+                                    candidat[k++] = tour[y];
+                            candidat[k++] = tour[x];
+                        }
+                        if (k == j)
+                            for (int y = i; y < i + lg; y++)
+                                candidat[k++] = tour[y];
+                        double l = longueur(candidat);
+                        if (l < total - EPSILON) {
+                            System.arraycopy(candidat, 0, tour, 0, m);
+                            total = l;
+                            ameliore = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (total < Double.MAX_VALUE) {
+            meilleure = total;
+            meilleurOrdre = tour;
+        }
+    }
+
+    private double longueur(int[] tour) {
+        double total = 0.0;
+        for (int k = 0; k < m; k++) {
+            double arc = d[tour[k] * m + tour[(k + 1) % m]];
+            if (arc >= Double.MAX_VALUE)
+                return Double.MAX_VALUE;
+            total += arc;
+        }
+        return total;
+    }
+
+    // ==================== RECHERCHE ====================
+
+    /**
+     * Explore les prolongements du chemin ordre[0..profondeur-1].
+     *
+     * @param dernier    Le dernier point du chemin.
+     * @param profondeur Le nombre de sommets du chemin (dépôt compris).
+     * @param cout       La longueur du chemin.
+     */
+    private void explorer(int dernier, int profondeur, double cout) {
+        noeuds++;
+        if ((noeuds & 255) == 0 && System.nanoTime() > echeance)
+            interrompu = true;
+
+        if (profondeur == m) {
+            double total = cout + d[dernier * m];
+            if (total < meilleure) {
+                meilleure = total;
+                meilleurOrdre = ordre.clone();
+            }
+            return;
+        }
+
+        System.arraycopy(penalites[profondeur - 1], 0, penalites[profondeur], 0, m);
+        double b = cout + borne(dernier, profondeur, cout, interrompu ? 1 : ITERATIONS_NOEUD);
+        if (interrompu) {
+            // Sous-arbre abandonné : sa borne entre dans le minorant final
+            borneAbandonnee = Math.min(borneAbandonnee, b);
+            return;
+        }
+        if (b >= meilleure - EPSILON)
+            return;
+
+        // Prolongements du plus proche au plus lointain
+        int[] liste = enfants[profondeur];
+        int nb = 0;
+        for (int v = 1; v < m; v++) {
+            if (visite[v] || d[dernier * m + v] >= Double.MAX_VALUE)
+                continue;
+            int k = nb++;
+            while (k > 0 && d[dernier * m + liste[k - 1]] > d[dernier * m + v]) {
+                liste[k] = liste[k - 1];
+                k--;
+            }
+            liste[k] = v;
+        }
+
+        for (int k = 0; k < nb; k++) {
+            int v = liste[k];
+            ordre[profondeur] = v;
+            visite[v] = true;
+            explorer(v, profondeur + 1, cout + d[dernier * m + v]);
+            visite[v] = false;
+        }
+    }
+
+    // ==================== BORNES ====================
+
+    /**
+     * Minorant de la longueur du chemin restant (dernier --> points non
+     * visités --> dépôt). Met à jour penalites[profondeur].
+     */
+    private double borne(int dernier, int profondeur, double cout, int iterations) {
+        int r = 0;
+        for (int v = 1; v < m; v++)
+            if (!visite[v] && v != dernier)
+                restants[r++] = v;
+
+        // Petits cas : énumération directe
+        if (r == 0)
+            return d[dernier * m];
+        if (r == 1)
+            return somme(d[dernier * m + restants[0]], d[restants[0] * m]);
+        if (r == 2) {
+            int a = restants[0], b = restants[1];
+            return Math.min(somme(somme(d[dernier * m + a], d[a * m + b]), d[b * m]),
+                    somme(somme(d[dernier * m + b], d[b * m + a]), d[a * m]));
+        }
+
+        double borneDegres = borneDegres(dernier, r);
+        if (borneDegres >= Double.MAX_VALUE)
+            return Double.MAX_VALUE;
+        return Math.max(borneDegres, borneLagrangienne(dernier, r, penalites[profondeur],
+                meilleure < Double.MAX_VALUE ? meilleure - cout : Double.MAX_VALUE, iterations));
+    }
+
+    /**
+     * Chaque point restant et le dépôt doivent être atteints une fois, et
+     * chaque point restant et le dernier doivent être quittés une fois.
+     */
+    private double borneDegres(int dernier, int r) {
+        double entrees = 0.0, sorties = 0.0;
+
+        double minDepot = Double.MAX_VALUE, minDernier = Double.MAX_VALUE;
+        for (int a = 0; a < r; a++) {
+            int v = restants[a];
+            minDepot = Math.min(minDepot, d[v * m]);
+            minDernier = Math.min(minDernier, d[dernier * m + v]);
+
+            double entree = d[dernier * m + v], sortie = d[v * m];
+            for (int b = 0; b < r; b++) {
+                if (a == b)
+                    continue;
+                int u = restants[b];
+                entree = Math.min(entree, d[u * m + v]);
+                sortie = Math.min(sortie, d[v * m + u]);
+            }
+            entrees = somme(entrees, entree);
+            sorties = somme(sorties, sortie);
+        }
+        return Math.max(somme(entrees, minDepot), somme(sorties, minDernier));
+    }
+
+    /**
+     * Borne du 1-arbre de Held-Karp : arbre couvrant minimal des points
+     * restants + les deux arêtes les moins chères vers le sommet fusionné
+     * {dernier, dépôt}, avec pénalités pi ajustées par sous-gradient.
+     */
+    private double borneLagrangienne(int dernier, int r, double[] pi, double borneSup, int iterations) {
+        double meilleureBorne = 0.0;
+        double lambda = iterations > ITERATIONS_NOEUD ? 2.0 : 1.0;
+        int sansProgres = 0;
+
+        for (int it = 0; it < iterations; it++) {
+            double l = unArbre(dernier, r, pi);
+            if (l >= Double.MAX_VALUE)
+                return Double.MAX_VALUE;
+            if (l > meilleureBorne + EPSILON) {
+                meilleureBorne = l;
+                sansProgres = 0;
+            } else if (++sansProgres >= 10) {
+                lambda /= 2.0;
+                sansProgres = 0;
+            }
+            if (l >= borneSup - EPSILON)
+                break; // suffisant pour élaguer
+
+            double norme = 0.0;
+            for (int a = 0; a < r; a++) {
+                int g = degre[restants[a]] - 2;
+                norme += g * g;
+            }
+            if (norme == 0.0)
+                break; // le 1-arbre est un cycle : borne atteinte
+            double cible = borneSup < Double.MAX_VALUE ? borneSup : 1.05 * l + 1.0;
+            double pas = lambda * (cible - l) / norme;
+            for (int a = 0; a < r; a++) {
+                int v = restants[a];
+                pi[v] += pas * (degre[v] - 2);
+            }
+        }
+        return meilleureBorne;
+    }
+
+    /**
+     * Coût du 1-arbre pénalisé (Prim en O(r²)) ; remplit degre.
+     */
+    private double unArbre(int dernier, int r, double[] pi) {
+        for (int a = 0; a < r; a++) {
+            int v = restants[a];
+            cle[v] = Double.MAX_VALUE;
+            dansArbre[v] = false;
+            degre[v] = 0;
+        }
+
+        double total = 0.0;
+        int premier = restants[0];
+        cle[premier] = 0.0;
+        parent[premier] = -1;
+        for (int k = 0; k < r; k++) {
+            int u = -1;
+            for (int a = 0; a < r; a++) {
+                int v = restants[a];
+                if (!dansArbre[v] && (u < 0 || cle[v] < cle[u]))
+                    u = v;
+            }
+            if (cle[u] >= Double.MAX_VALUE)
+                return Double.MAX_VALUE;
+            dansArbre[u] = true;
+            total += cle[u];
+            if (parent[u] >= 0) {
+                degre[u]++;
+                degre[parent[u]]++;
+            }
+            for (int a = 0; a < r; a++) {
+                int v = restants[a];
+                if (dansArbre[v] || w[u * m + v] >= Double.MAX_VALUE)
+                    continue;
+                double c = w[u * m + v] + pi[u] + pi[v];
+                if (c < cle[v]) {
+                    cle[v] = c;
+                    parent[v] = u;
+                }
+            }
+        }
+
+        // Les deux arêtes les moins chères vers le sommet fusionné
+        int min1 = -1, min2 = -1;
+        double c1 = Double.MAX_VALUE, c2 = Double.MAX_VALUE;
+        for (int a = 0; a < r; a++) {
+            int v = restants[a];
+            double base = Math.min(w[dernier * m + v], w[v * m]);
+            if (base >= Double.MAX_VALUE)
+                continue;
+            double c = base + pi[v];
+            if (c < c1) {
+                c2 = c1;
+                min2 = min1;
+                c1 = c;
+                min1 = v;
+            } else if (c < c2) {
+                c2 = c;
+                min2 = v;
+            }
+        }
+        if (min2 < 0)
+            return Double.MAX_VALUE;
+        degre[min1]++;
+        degre[min2]++;
+        total += c1 + c2;
+
+        for (int a = 0; a < r; a++)
+            total -= 2.0 * pi[restants[a]];
+        return total;
+    }
+
+    private static double somme(double a, double b) {
+        return a >= Double.MAX_VALUE || b >= Double.MAX_VALUE ? Double.MAX_VALUE : a + b;
+    }
+
+    // ==================== AFFICHAGE ====================
+
+    /**
+     * Affiche la tournée (même présentation que TSPPetit) puis la qualité
+     * prouvée de la solution.
+     */
+    public static void afficherResultat(ResultatSeparation res, Graphe g) {
+        List<Object> liste = new ArrayList<>();
+        liste.add(res.circuit);
+        liste.add(res.distance);
+        TSPPetit.afficherResultat(liste, g);
+
+        if (res.circuit.size() <= 1)
+            return;
+        System.out.println("SÉPARATION ET ÉVALUATION :");
+        System.out.printf("   Noeuds explorés     : %d en %d ms%n", res.noeuds, res.dureeMs);
+        System.out.printf("   Borne inférieure    : %.2f km%n", res.borneInferieure);
+        if (res.optimal)
+            System.out.println("   Optimalité prouvée");
+        else
+            System.out.printf("   Limite de temps atteinte : écart prouvé <= %.2f %%%n", 100.0 * res.ecart());
+        System.out.println("=".repeat(90));
+    }
+}
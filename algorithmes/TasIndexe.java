@@ -0,0 +1,160 @@
+package algorithmes;
+
+import java.util.Arrays;
+
+/**
+ * Tas d-aire indexé (d = 4) sur des éléments entiers 0..capacité-1, avec des
+ * clés double. Supporte la diminution de clé : chaque élément est présent au
+ * plus une fois, contrairement à une PriorityQueue avec suppression
+ * paresseuse. Aucune allocation après dimensionnement.
+ * Utilisé par Dijkstra et les algorithmes dérivés (flot, hiérarchies...).
+ */
+final class TasIndexe {
+    private static final int D = 4;
+
+    private int[] tas = new int[0]; // éléments rangés en tas
+    private int[] position = new int[0]; // élément --> position dans le tas (-1 si absent)
+    private double[] cles = new double[0]; // élément --> clé
+    private int taille = 0;
+
+    /**
+     * S'assure que les éléments 0..n-1 sont utilisables. Vide le tas.
+     *
+     * @param n Nombre d'éléments.
+     */
+    void preparer(int n) {
+        if (position.length < n) {
+            int capacite = Math.max(n, position.length * 2);
+            tas = new int[capacite];
+            position = new int[capacite];
+            cles = new double[capacite];
+            Arrays.fill(position, -1);
+            taille = 0;
+        } else {
+            vider();
+        }
+    }
+
+    /**
+     * Vide le tas en O(taille) (seules les positions occupées sont remises à
+     * zéro).
+     */
+    void vider() {
+        for (int i = 0; i < taille; i++)
+            position[tas[i]] = -1;
+        taille = 0;
+    }
+
+    boolean estVide() {
+        return taille == 0;
+    }
+
+    int taille() {
+        return taille;
+    }
+
+    boolean contient(int element) {
+        return position[element] >= 0;
+    }
+
+    double cleMin() {
+        return cles[tas[0]];
+    }
+
+    int min() {
+        return tas[0];
+    }
+
+    /**
+     * Insère un élément, ou diminue sa clé s'il est déjà présent avec une clé
+     * plus grande.
+     */
+    void insererOuDiminuer(int element, double cle) {
+        int pos = position[element];
+        if (pos < 0) {
+            cles[element] = cle;
+            tas[taille] = element;
+            position[element] = taille;
+            monter(taille++);
+        } else if (cle < cles[element]) {
+            cles[element] = cle;
+            monter(pos);
+        }
+    }
+
+    /**
+     * Insère un élément ou change sa clé, à la hausse comme à la baisse.
+     */
+    void changerCle(int element, double cle) {
+        int pos = position[element];
+        if (pos < 0) {
+            insererOuDiminuer(element, cle);
+        } else if (cle < cles[element]) {
+            cles[element] = cle;
+            monter(pos);
+        } else {
+            cles[element] = cle;
+            descendre(pos);
+        }
+    }
+
+    /**
+     * Retire et renvoie l'élément de clé minimale.
+     */
+    int extraireMin() {
+        int racine = tas[0];
+        position[racine] = -1;
+        taille--;
+        if (taille > 0) {
+            int dernier = tas[taille];
+            tas[0] = dernier;
+            position[dernier] = 0;
+            descendre(0);
+        }
+        return racine;
+    }
+
+    private void monter(int pos) {
+        int element = tas[pos];
+        double cle = cles[element];
+        while (pos > 0) {
+            int parent = (pos - 1) / D;
+            int p = tas[parent];
+            if (cles[p] <= cle)
+                break;
+            tas[pos] = p;
+            position[p] = pos;
+            pos = parent;
+        }
+        tas[pos] = element;
+        position[element] = pos;
+    }
+
+    private void descendre(int pos) {
+        int element = tas[pos];
+        double cle = cles[element];
+        while (true) {
+            int premier = pos * D + 1;
+            if (premier >= taille)
+                break;
+            int dernier = Math.min(premier + D, taille);
+            int meilleur = premier;
+            double cleMeilleure = cles[tas[premier]];
+            for (int f = premier + 1; f < dernier; f++) {
+                double c = cles[tas[f]];
+                if (c < cleMeilleure) {
+                    cleMeilleure = c;
+                    meilleur = f;
+                }
+            }
+            if (cleMeilleure >= cle)
+                break;
+            int m = tas[meilleur];
+            tas[pos] = m;
+            position[m] = pos;
+            pos = meilleur;
+        }
+        tas[pos] = element;
+        position[element] = pos;
+    }
+}
@@ -5,6 +5,9 @@ public class Arete {
     private final Sommet destination;
     private final double longueur;
     private final boolean doubleSens;
+    // Rue à collecter ce jour (false : bacs absents, parcourue seulement si
+    // elle raccourcit la tournée)
+    private boolean requise = true;
 
     // Constructeur principal – double sens PAR DÉFAUT (conforme CDC page 7)
     public Arete(Sommet source, Sommet destination, double longueur) {
@@ -22,4 +25,6 @@ public class Arete {
     public Sommet getDestination() { return destination; }
     public double getLongueur() { return longueur; }
     public boolean estDoubleSens() { return doubleSens; }
+    public boolean estRequise() { return requise; }
+    public void setRequise(boolean requise) { this.requise = requise; }
 }
@@ -14,6 +14,28 @@ public class Graphe {
     private List<Arete> aretes = new ArrayList<>(); // Liste des arêtes
     private String typeGraphe = "Graphe personnalisé"; // par défaut
 
+    // Index d'adjacence maintenu à chaque ajout (évite les parcours de "aretes")
+    private final Map<Sommet, Adjacence> adjacences = new HashMap<>();
+    // Index ID (en minuscules) --> sommet pour getSommetParId
+    private final Map<String, Sommet> index = new HashMap<>();
+    // Incrémentée à chaque modification (invalide les caches dérivés)
+    private long version = 0;
+    // Instantané CSR en cache, reconstruit après modification
+    private GrapheCompact compact;
+
+    /**
+     * Arcs incidents à un sommet.
+     * "sortantes" contient les arêtes empruntables depuis le sommet (arcs dont il
+     * est la source + arêtes double sens dont il est la destination), dans
+     * l'ordre d'insertion ; "entrantes" contient symétriquement celles qui
+     * permettent d'y arriver.
+     */
+    private static class Adjacence {
+        final List<Arete> sortantes = new ArrayList<>();
+        final List<Arete> entrantes = new ArrayList<>();
+        int degre; // nombre d'extrémités d'arêtes sur ce sommet (sens ignoré)
+    }
+
     public void setTypeGraphe(String type) {
         this.typeGraphe = type;
     }
@@ -28,8 +50,12 @@ public class Graphe {
      * @param s Le sommet à ajouter.
      */
     public void ajouterSommet(Sommet s) {
-        if (s != null && !sommets.contains(s))
+        if (s != null && !adjacences.containsKey(s)) {
             sommets.add(s);
+            adjacences.put(s, new Adjacence());
+            index.putIfAbsent(cleIndex(s.getId()), s);
+            modifie();
+        }
     }
 
     /**
@@ -43,9 +69,49 @@ public class Graphe {
             aretes.add(a);
             ajouterSommet(a.getSource());
             ajouterSommet(a.getDestination());
+
+            Adjacence src = adjacences.get(a.getSource());
+            Adjacence dst = adjacences.get(a.getDestination());
+            src.sortantes.add(a);
+            dst.entrantes.add(a);
+            if (a.estDoubleSens()) {
+                dst.sortantes.add(a);
+                src.entrantes.add(a);
+            }
+            src.degre++;
+            dst.degre++;
+            modifie();
         }
     }
 
+    private synchronized void modifie() {
+        version++;
+        compact = null;
+    }
+
+    /**
+     * Récupère le numéro de version du graphe, incrémenté à chaque ajout de
+     * sommet ou d'arête.
+     * 
+     * @return La version courante.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Renvoie un instantané CSR immuable du graphe (indices entiers denses,
+     * tableaux primitifs). L'instantané est mis en cache et reconstruit
+     * uniquement après une modification du graphe.
+     * 
+     * @return L'instantané compact.
+     */
+    public synchronized GrapheCompact compacter() {
+        if (compact == null)
+            compact = new GrapheCompact(this);
+        return compact;
+    }
+
     /**
      * Récupère la liste des sommets (copie pour sécurité).
      * 
@@ -73,10 +139,46 @@ public class Graphe {
     public Sommet getSommetParId(String id) {
         if (id == null)
             return null;
-        return sommets.stream()
-                .filter(s -> id.equalsIgnoreCase(s.getId()))
-                .findFirst()
-                .orElse(null);
+        return index.get(cleIndex(id));
+    }
+
+    private static String cleIndex(String id) {
+        return id == null ? null : id.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Récupère les arêtes empruntables depuis un sommet (respecte les sens
+     * uniques). Une arête double sens apparaît chez ses deux extrémités.
+     * 
+     * @param s Le sommet.
+     * @return Liste non modifiable des arêtes sortantes (vide si inconnu).
+     */
+    public List<Arete> getAretesSortantes(Sommet s) {
+        Adjacence adj = adjacences.get(s);
+        return adj == null ? List.of() : Collections.unmodifiableList(adj.sortantes);
+    }
+
+    /**
+     * Récupère les arêtes permettant d'arriver sur un sommet (respecte les sens
+     * uniques).
+     * 
+     * @param s Le sommet.
+     * @return Liste non modifiable des arêtes entrantes (vide si inconnu).
+     */
+    public List<Arete> getAretesEntrantes(Sommet s) {
+        Adjacence adj = adjacences.get(s);
+        return adj == null ? List.of() : Collections.unmodifiableList(adj.entrantes);
+    }
+
+    /**
+     * Renvoie l'extrémité atteinte en empruntant une arête depuis un sommet.
+     * 
+     * @param a L'arête empruntée.
+     * @param s Le sommet de départ (source, ou destination si double sens).
+     * @return L'autre extrémité.
+     */
+    public static Sommet autreExtremite(Arete a, Sommet s) {
+        return a.getSource().equals(s) ? a.getDestination() : a.getSource();
     }
 
     /**
@@ -121,13 +223,8 @@ public class Graphe {
      */
     public List<Sommet> getVoisins(Sommet s) {
         List<Sommet> voisins = new ArrayList<>();
-        for (Arete a : aretes) {
-            if (a.getSource().equals(s)) {
-                voisins.add(a.getDestination());
-            }
-            if (a.estDoubleSens() && a.getDestination().equals(s)) {
-                voisins.add(a.getSource());
-            }
+        for (Arete a : getAretesSortantes(s)) {
+            voisins.add(autreExtremite(a, s));
         }
         return voisins;
     }
@@ -140,7 +237,7 @@ public class Graphe {
      * @return L'arête ou null si non trouvée.
      */
     public Arete getArete(Sommet u, Sommet v) {
-        for (Arete a : aretes) {
+        for (Arete a : getAretesSortantes(u)) {
             if (a.getSource().equals(u) && a.getDestination().equals(v)) {
                 return a;
             }
@@ -160,19 +257,9 @@ public class Graphe {
     // DANS Graphe.java – REMPLACE TA MÉTHODE getDegre() PAR CECI
 
     public int getDegre(Sommet s) {
-        int degre = 0;
-
-        for (Arete a : aretes) {
-            // Arête sortante
-            if (a.getSource().equals(s)) {
-                degre++;
-            }
-            // Arête entrante (même si sens unique)
-            if (a.getDestination().equals(s)) {
-                degre++;
-            }
-        }
-        return degre;
+        // Arêtes sortantes + entrantes (même si sens unique), tenu à jour à l'ajout
+        Adjacence adj = adjacences.get(s);
+        return adj == null ? 0 : adj.degre;
     }
 
     /**
@@ -217,19 +304,8 @@ public class Graphe {
     }
 
     private int calculerDegreCorrect(Sommet s) {
-        int degre = 0;
-
-        for (Arete a : aretes) {
-            // Si s est source de l'arête → +1
-            if (a.getSource().equals(s)) {
-                degre++;
-            }
-            // Si s est destination ET arête double sens → +1
-            if (a.estDoubleSens() && a.getDestination().equals(s)) {
-                degre++;
-            }
-        }
-        return degre;
+        // Source de l'arête, ou destination d'une arête double sens
+        return getAretesSortantes(s).size();
     }
 
     private void dfs(Sommet courant, Set<Sommet> visites) {
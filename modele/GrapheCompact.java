@@ -0,0 +1,219 @@
+package modele;
+
+import java.util.*;
+
+/**
+ * Instantané immuable d'un Graphe au format CSR (compressed sparse row).
+ * Les sommets reçoivent des indices entiers denses 0..n-1 et les arcs
+ * empruntables sont rangés dans des tableaux primitifs : les arcs sortants du
+ * sommet u occupent les positions debut[u] .. debut[u+1]-1.
+ * Une arête double sens produit deux arcs (un par sens) ; le bitset
+ * doubleSens permet de les reconnaître.
+ * Les algorithmes travaillent sur les indices et ne reviennent aux objets
+ * Sommet qu'à la fin, via sommet(int) et indice(Sommet).
+ * Obtenu par Graphe.compacter().
+ */
+public final class GrapheCompact {
+    private final Sommet[] sommets; // indice --> sommet
+    private final Map<Sommet, Integer> indices; // sommet --> indice
+    private final Arete[] aretes; // arêtes d'origine (ordre de Graphe.getAretes())
+
+    // Arcs sortants
+    private final int[] debut; // taille n + 1
+    private final int[] cibles; // sommet atteint par l'arc
+    private final double[] longueurs; // longueur de l'arc
+    private final int[] areteDeArc; // indice de l'arête d'origine
+    private final BitSet doubleSens; // arc issu d'une arête double sens
+
+    // Arcs entrants (graphe inverse), pour les recherches arrière
+    private final int[] debutInverse;
+    private final int[] origines; // sommet de départ de l'arc entrant
+    private final double[] longueursInverse;
+
+    // Coordonnées (null si au moins un sommet n'en a pas)
+    private final double[] x;
+    private final double[] y;
+
+    private final long version; // version du Graphe au moment de la compaction
+
+    // Rapports minimaux longueur d'arc / vol d'oiseau (calculés à la demande)
+    private double echelleEuclidienne = -1.0;
+    private double echelleHaversine = -1.0;
+
+    /**
+     * Construit l'instantané d'un graphe. Préférer Graphe.compacter(), qui
+     * garde l'instantané en cache tant que le graphe n'est pas modifié.
+     *
+     * @param g Le graphe source.
+     */
+    public GrapheCompact(Graphe g) {
+        List<Sommet> listeSommets = g.getSommets();
+        List<Arete> listeAretes = g.getAretes();
+        int n = listeSommets.size();
+
+        this.version = g.getVersion();
+        this.sommets = listeSommets.toArray(new Sommet[0]);
+        this.indices = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++)
+            indices.put(sommets[i], i);
+
+        this.aretes = listeAretes.toArray(new Arete[0]);
+        Map<Arete, Integer> indiceArete = new IdentityHashMap<>(aretes.length * 2);
+        for (int k = 0; k < aretes.length; k++)
+            indiceArete.put(aretes[k], k);
+
+        int nbArcs = 0;
+        for (Sommet s : sommets)
+            nbArcs += g.getAretesSortantes(s).size();
+
+        this.debut = new int[n + 1];
+        this.cibles = new int[nbArcs];
+        this.longueurs = new double[nbArcs];
+        this.areteDeArc = new int[nbArcs];
+        this.doubleSens = new BitSet(nbArcs);
+
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            debut[u] = k;
+            for (Arete a : g.getAretesSortantes(sommets[u])) {
+                cibles[k] = indices.get(Graphe.autreExtremite(a, sommets[u]));
+                longueurs[k] = a.getLongueur();
+                areteDeArc[k] = indiceArete.get(a);
+                if (a.estDoubleSens())
+                    doubleSens.set(k);
+                k++;
+            }
+        }
+        debut[n] = k;
+
+        this.debutInverse = new int[n + 1];
+        this.origines = new int[nbArcs];
+        this.longueursInverse = new double[nbArcs];
+        k = 0;
+        for (int v = 0; v < n; v++) {
+            debutInverse[v] = k;
+            for (Arete a : g.getAretesEntrantes(sommets[v])) {
+                origines[k] = indices.get(Graphe.autreExtremite(a, sommets[v]));
+                longueursInverse[k] = a.getLongueur();
+                k++;
+            }
+        }
+        debutInverse[n] = k;
+
+        boolean toutesCoordonnees = n > 0;
+        for (Sommet s : sommets)
+            toutesCoordonnees &= s.aCoordonnees();
+        if (toutesCoordonnees) {
+            this.x = new double[n];
+            this.y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = sommets[i].getX();
+                y[i] = sommets[i].getY();
+            }
+        } else {
+            this.x = null;
+            this.y = null;
+        }
+    }
+
+    public int nombreSommets() { return sommets.length; }
+    public int nombreArcs() { return cibles.length; }
+    public int nombreAretes() { return aretes.length; }
+    public long getVersion() { return version; }
+
+    /**
+     * Récupère l'indice dense d'un sommet.
+     *
+     * @param s Le sommet.
+     * @return L'indice, ou -1 si le sommet n'appartient pas au graphe.
+     */
+    public int indice(Sommet s) {
+        if (s == null)
+            return -1;
+        Integer i = indices.get(s);
+        return i == null ? -1 : i;
+    }
+
+    public Sommet sommet(int i) { return sommets[i]; }
+    public boolean aCoordonnees() { return x != null; }
+    public double x(int i) { return x[i]; }
+    public double y(int i) { return y[i]; }
+
+    /**
+     * Distance haversine (km) entre deux points donnés en longitude/latitude.
+     */
+    public static double haversine(double lon1, double lat1, double lon2, double lat2) {
+        final double rayonTerre = 6371.0;
+        double p1 = Math.toRadians(lat1), p2 = Math.toRadians(lat2);
+        double sinDLat = Math.sin((p2 - p1) / 2), sinDLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinDLat * sinDLat + Math.cos(p1) * Math.cos(p2) * sinDLon * sinDLon;
+        return 2 * rayonTerre * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Plus petit rapport longueur d'arc / distance euclidienne entre ses
+     * extrémités, plafonné à 1. La distance euclidienne multipliée par ce
+     * rapport ne dépasse la longueur d'aucun arc, donc (inégalité
+     * triangulaire) d'aucun plus court chemin : c'est un minorant admissible.
+     *
+     * @return Le rapport, 0 sans coordonnées.
+     */
+    public synchronized double echelleEuclidienne() {
+        if (echelleEuclidienne < 0)
+            echelleEuclidienne = echelle(false);
+        return echelleEuclidienne;
+    }
+
+    /**
+     * Même rapport pour la distance haversine (coordonnées GPS).
+     */
+    public synchronized double echelleHaversine() {
+        if (echelleHaversine < 0)
+            echelleHaversine = echelle(true);
+        return echelleHaversine;
+    }
+
+    private double echelle(boolean gps) {
+        if (x == null)
+            return 0.0;
+        double min = 1.0;
+        for (int u = 0; u < sommets.length; u++) {
+            for (int k = debut[u]; k < debut[u + 1]; k++) {
+                int v = cibles[k];
+                double dx = x[v] - x[u], dy = y[v] - y[u];
+                double vol = gps ? haversine(x[u], y[u], x[v], y[v]) : Math.sqrt(dx * dx + dy * dy);
+                if (vol > 0)
+                    min = Math.min(min, longueurs[k] / vol);
+            }
+        }
+        return Math.max(0.0, min);
+    }
+    public Arete arete(int k) { return aretes[k]; }
+
+    // Arcs sortants de u : positions debut(u) .. fin(u) - 1
+    public int debut(int u) { return debut[u]; }
+    public int fin(int u) { return debut[u + 1]; }
+    public int cible(int arc) { return cibles[arc]; }
+    public double longueur(int arc) { return longueurs[arc]; }
+    public int areteDeArc(int arc) { return areteDeArc[arc]; }
+    public boolean estDoubleSens(int arc) { return doubleSens.get(arc); }
+
+    // Arcs entrants de v : positions debutInverse(v) .. finInverse(v) - 1
+    public int debutInverse(int v) { return debutInverse[v]; }
+    public int finInverse(int v) { return debutInverse[v + 1]; }
+    public int origine(int arcInverse) { return origines[arcInverse]; }
+    public double longueurInverse(int arcInverse) { return longueursInverse[arcInverse]; }
+
+    /**
+     * Convertit une suite d'indices en liste de sommets.
+     *
+     * @param chemin Les indices.
+     * @return La liste de sommets correspondante.
+     */
+    public List<Sommet> versSommets(int[] chemin) {
+        List<Sommet> res = new ArrayList<>(chemin.length);
+        for (int i : chemin)
+            res.add(sommets[i]);
+        return res;
+    }
+}
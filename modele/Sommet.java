@@ -11,6 +11,8 @@ public class Sommet {
     private String id; // ID unique du sommet (ex: "A")
     private String nom; // Nom descriptif (ex: "Dépôt central")
     private double quantiteDechets; // Quantité de déchets en tonnes (0.0 si aucun)
+    private double x, y; // Coordonnées facultatives (km, ou longitude/latitude en degrés)
+    private boolean aCoordonnees = false;
 
     /**
      * Constructeur sans quantité de déchets (par défaut 0.0).
@@ -35,6 +37,20 @@ public class Sommet {
         this.quantiteDechets = quantiteDechets;
     }
 
+    /**
+     * Constructeur avec quantité de déchets et coordonnées.
+     * 
+     * @param id              L'ID du sommet.
+     * @param nom             Le nom du sommet.
+     * @param quantiteDechets La quantité de déchets en tonnes.
+     * @param x               Abscisse (km) ou longitude (degrés).
+     * @param y               Ordonnée (km) ou latitude (degrés).
+     */
+    public Sommet(String id, String nom, double quantiteDechets, double x, double y) {
+        this(id, nom, quantiteDechets);
+        setCoordonnees(x, y);
+    }
+
     /**
      * Récupère l'ID du sommet.
      * 
@@ -71,6 +87,37 @@ public class Sommet {
         this.quantiteDechets = q;
     }
 
+    /**
+     * Définit les coordonnées du sommet. Pour A* euclidien, elles doivent être
+     * en km, à la même échelle que les longueurs des arêtes (la distance à vol
+     * d'oiseau ne doit jamais dépasser la longueur de la rue).
+     * 
+     * @param x Abscisse (km) ou longitude (degrés).
+     * @param y Ordonnée (km) ou latitude (degrés).
+     */
+    public void setCoordonnees(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.aCoordonnees = true;
+    }
+
+    /**
+     * Indique si le sommet possède des coordonnées.
+     * 
+     * @return True si les coordonnées sont définies.
+     */
+    public boolean aCoordonnees() {
+        return aCoordonnees;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
     /**
      * Représentation textuelle du sommet (nom, ID, quantité si >0).
      * 
@@ -63,6 +63,54 @@ public class Tournee {
         System.out.println(" --> Dépôt");
     }
 
+    /**
+     * Remplace l'ordre de passage (mêmes points, réordonnés par une
+     * optimisation locale) et la distance correspondante.
+     * 
+     * @param points   Les points dans le nouvel ordre.
+     * @param distance La distance totale du nouvel itinéraire (retour compris).
+     */
+    public void remplacerItineraire(List<Sommet> points, double distance) {
+        this.pointsVisites = new ArrayList<>(points);
+        this.distanceParcourue = distance;
+    }
+
+    /**
+     * Récupère le numéro de la tournée.
+     * 
+     * @return Le numéro.
+     */
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * Renumérote la tournée (fusion de tournées calculées séparément).
+     * 
+     * @param numero Le nouveau numéro.
+     */
+    public void setNumero(int numero) {
+        this.numero = numero;
+    }
+
+    /**
+     * Récupère le dépôt de départ et de retour.
+     * 
+     * @return Le dépôt.
+     */
+    public Sommet getDepot() {
+        return depot;
+    }
+
+    /**
+     * Récupère la charge totale collectée.
+     * 
+     * @return La charge en tonnes.
+     */
+    public double getChargeTotale() {
+        return chargeTotale;
+    }
+
     /**
      * Récupère la distance parcourue.
      * 
@@ -0,0 +1,97 @@
+package algorithmes;
+
+import java.util.*;
+
+/**
+ * CouplageParfait.exact contre l'énumération de tous les couplages parfaits
+ * (k &lt;= 10 : au plus 945 couplages).
+ */
+class VerificationCouplage {
+
+    static void verifier() {
+        Random alea = new Random(17);
+        int instances = 0;
+        for (int essai = 0; essai < 400; essai++) {
+            int k = 2 * (1 + alea.nextInt(5));
+            double[] d = new double[k * k];
+            boolean interdites = essai % 3 == 0;
+            for (int i = 0; i < k; i++)
+                for (int j = i + 1; j < k; j++) {
+                    double w = interdites && alea.nextInt(4) == 0 ? Double.MAX_VALUE
+                            : essai % 2 == 0 ? alea.nextInt(4) : alea.nextDouble() * 10;
+                    d[i * k + j] = w;
+                    d[j * k + i] = w;
+                }
+
+            double reference = meilleur(d, k, new int[k]);
+            int[] partenaire = CouplageParfait.exact(d, k);
+            double poids = CouplageParfait.poids(d, k, partenaire);
+            if (reference < Double.MAX_VALUE) {
+                for (int i = 0; i < k; i++)
+                    Verifications.verifier(partenaire[i] >= 0 && partenaire[partenaire[i]] == i && partenaire[i] != i,
+                            "Couplage exact incohérent (essai %d, sommet %d)", essai, i);
+                // Poids entiers à 1e-6 près dans l'algorithme d'Edmonds
+                Verifications.verifier(Math.abs(poids - reference) <= 1e-5 * k,
+                        "Couplage exact non optimal (essai %d) : %.6f au lieu de %.6f", essai, poids, reference);
+                double glouton = CouplageParfait.poids(d, k, CouplageParfait.glouton(d, k));
+                Verifications.verifier(glouton >= reference - 1e-9, "Couplage glouton sous l'optimum (essai %d)", essai);
+            } else {
+                Verifications.verifier(poids >= Double.MAX_VALUE,
+                        "Couplage exact trouvé alors qu'aucun n'existe (essai %d)", essai);
+            }
+            instances++;
+        }
+        System.out.println("Couplage parfait exact : " + instances + " instances conformes à la force brute");
+
+        // Glouton sur listes de voisins (grands ensembles, sans matrice) :
+        // couplage parfait, au-dessus de l'optimum
+        for (int k : new int[] { 120, 2 * CouplageParfait.SEUIL_EXACT + 2 }) {
+            double[] x = new double[k], y = new double[k];
+            for (int i = 0; i < k; i++) {
+                x[i] = alea.nextDouble() * 100;
+                y[i] = alea.nextDouble() * 100;
+            }
+            int[] partenaire = CouplageParfait.glouton(k,
+                    CouplageParfait.candidats(k, (i, j) -> Math.hypot(x[i] - x[j], y[i] - y[j])));
+            double poids = 0.0;
+            for (int i = 0; i < k; i++) {
+                int j = partenaire[i];
+                Verifications.verifier(j >= 0 && j != i && partenaire[j] == i,
+                        "Couplage glouton incohérent (k = %d, sommet %d)", k, i);
+                if (i < j)
+                    poids += Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+            if (k <= CouplageParfait.SEUIL_EXACT) {
+                double[] d = new double[k * k];
+                for (int i = 0; i < k; i++)
+                    for (int j = 0; j < k; j++)
+                        d[i * k + j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                double optimum = CouplageParfait.poids(d, k, CouplageParfait.exact(d, k));
+                Verifications.verifier(poids >= optimum - 1e-5 * k, "Couplage glouton sous l'optimum (k = %d)", k);
+            }
+        }
+        System.out.println("Couplage glouton sur voisins candidats : couplages parfaits");
+    }
+
+    // Le plus petit sommet libre est apparié à chacun des autres tour à tour
+    private static double meilleur(double[] d, int k, int[] pris) {
+        int i = 0;
+        while (i < k && pris[i] != 0)
+            i++;
+        if (i == k)
+            return 0.0;
+        double minimum = Double.MAX_VALUE;
+        pris[i] = 1;
+        for (int j = i + 1; j < k; j++) {
+            if (pris[j] != 0 || d[i * k + j] >= Double.MAX_VALUE)
+                continue;
+            pris[j] = 1;
+            double reste = meilleur(d, k, pris);
+            if (reste < Double.MAX_VALUE)
+                minimum = Math.min(minimum, d[i * k + j] + reste);
+            pris[j] = 0;
+        }
+        pris[i] = 0;
+        return minimum;
+    }
+}
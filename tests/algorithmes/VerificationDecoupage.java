@@ -0,0 +1,95 @@
+package algorithmes;
+
+import java.util.*;
+
+/**
+ * DecoupageOptimal.decouper (file à double entrée, O(n)) contre la
+ * programmation dynamique directe en O(n²) qui essaie toutes les tournées.
+ */
+class VerificationDecoupage {
+
+    static void verifier() {
+        Random alea = new Random(24);
+        int instances = 0;
+        for (int essai = 0; essai < 2000; essai++) {
+            int n = 1 + alea.nextInt(15), m = n + 1;
+            double[] d = new double[m * m];
+            for (int i = 0; i < m; i++)
+                for (int j = 0; j < m; j++) {
+                    // Liens entre points parfois coupés ; le dépôt reste joignable
+                    boolean coupe = essai % 2 == 0 && i > 0 && j > 0 && alea.nextInt(10) == 0;
+                    d[i * m + j] = i == j ? 0.0 : coupe ? Double.MAX_VALUE : alea.nextDouble() * 10;
+                }
+            double[] quantite = new double[m];
+            for (int i = 1; i < m; i++)
+                quantite[i] = alea.nextDouble() * 4;
+            double capacite = 3 + alea.nextDouble() * 5;
+            int[] ordre = new int[m];
+            List<Integer> points = new ArrayList<>();
+            for (int i = 1; i < m; i++)
+                points.add(i);
+            Collections.shuffle(points, alea);
+            for (int i = 1; i < m; i++)
+                ordre[i] = points.get(i - 1);
+
+            int[] debuts = DecoupageOptimal.decouper(d, m, ordre, quantite, capacite);
+            double cout = cout(d, m, ordre, quantite, capacite, debuts, essai);
+            double reference = reference(d, m, ordre, quantite, capacite);
+            Verifications.verifier(Verifications.egales(cout, reference),
+                    "Découpage non optimal (essai %d) : %.6f au lieu de %.6f", essai, cout, reference);
+            instances++;
+        }
+        System.out.println("Découpage optimal : " + instances + " circuits conformes à la version O(n²)");
+    }
+
+    // p[j] = min sur i < j de p[i] + coût de la tournée i+1..j
+    private static double reference(double[] d, int m, int[] ordre, double[] quantite, double capacite) {
+        int n = m - 1;
+        double[] p = new double[m];
+        Arrays.fill(p, Double.MAX_VALUE);
+        p[0] = 0.0;
+        for (int j = 1; j <= n; j++)
+            for (int i = 0; i < j; i++) {
+                double charge = 0.0, longueur = d[ordre[i + 1]];
+                boolean coupe = false;
+                for (int k = i + 1; k <= j; k++) {
+                    charge += quantite[ordre[k]];
+                    if (k > i + 1) {
+                        double lien = d[ordre[k - 1] * m + ordre[k]];
+                        coupe |= lien >= Double.MAX_VALUE;
+                        longueur += lien;
+                    }
+                }
+                // Un point plus lourd qu'un camion forme seul sa tournée
+                if (coupe || p[i] >= Double.MAX_VALUE || (charge > capacite + 1e-9 && j > i + 1))
+                    continue;
+                p[j] = Math.min(p[j], p[i] + longueur + d[ordre[j] * m]);
+            }
+        return p[n];
+    }
+
+    // Coût du découpage rendu, après contrôle de sa validité
+    private static double cout(double[] d, int m, int[] ordre, double[] quantite, double capacite, int[] debuts,
+            int essai) {
+        int n = m - 1;
+        Verifications.verifier(debuts.length > 0 && debuts[0] == 1, "Découpage sans première tournée (essai %d)", essai);
+        double total = 0.0;
+        for (int r = 0; r < debuts.length; r++) {
+            int fin = r + 1 < debuts.length ? debuts[r + 1] : n + 1;
+            Verifications.verifier(fin > debuts[r], "Tournée vide (essai %d)", essai);
+            double charge = 0.0;
+            int precedent = 0;
+            for (int k = debuts[r]; k < fin; k++) {
+                charge += quantite[ordre[k]];
+                double lien = d[precedent * m + ordre[k]];
+                Verifications.verifier(lien < Double.MAX_VALUE, "Tournée avec un lien coupé (essai %d)", essai);
+                total += lien;
+                precedent = ordre[k];
+            }
+            total += d[precedent * m];
+            Verifications.verifier(charge <= capacite + 1e-9 || fin - debuts[r] == 1,
+                    "Tournée au-delà de la capacité (essai %d)", essai);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,155 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Recherches point à point (A*, bidirectionnelle), repères ALT et hiérarchie
+ * de contraction contre un Dijkstra complet : distances, chemins (arcs
+ * existants, longueur égale à la distance) et matrices, directement puis à
+ * travers MatriceDistances.
+ */
+class VerificationDistances {
+
+    static void verifier() {
+        verifierModes();
+        verifierALT();
+        verifierHierarchie();
+    }
+
+    /**
+     * Tous les modes de Dijkstra, avec des coordonnées alignées sur la grille
+     * puis tirées au hasard : le vol d'oiseau surestime alors les rues, A*
+     * doit rester exact.
+     */
+    private static void verifierModes() {
+        int requetes = 0;
+        for (int graine = 0; graine < 4; graine++) {
+            Graphe g = Verifications.grille(12, 12, graine, graine % 2 == 0 ? 0.0 : 0.3);
+            Random alea = new Random(graine);
+            for (Sommet s : g.getSommets()) {
+                if (graine < 2) {
+                    String[] ij = s.getId().equals("A") ? new String[] { "0", "0" } : s.getId().substring(1).split("_");
+                    s.setCoordonnees(0.1 * Integer.parseInt(ij[0]), 0.1 * Integer.parseInt(ij[1]));
+                } else {
+                    s.setCoordonnees(alea.nextDouble() * 5, alea.nextDouble() * 5);
+                }
+            }
+            List<Sommet> points = points(g, 20, alea);
+            int n = points.size();
+            double[] reference = Verifications.matriceReference(g, points);
+            for (Dijkstra.Mode mode : new Dijkstra.Mode[] { Dijkstra.Mode.A_ETOILE, Dijkstra.Mode.BIDIRECTIONNEL,
+                    Dijkstra.Mode.AUTOMATIQUE })
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < n; j++) {
+                        Sommet u = points.get(i), v = points.get(j);
+                        verifierRequete(mode.toString(), g, u, v, reference[i * n + j],
+                                Dijkstra.calculerDistance(g, u, v, mode), Dijkstra.cheminLePlusCourt(g, u, v, mode));
+                        requetes++;
+                    }
+        }
+        System.out.println("A* et recherche bidirectionnelle : " + requetes + " requêtes conformes à Dijkstra");
+    }
+
+    /**
+     * Repères ALT, directement puis comme guide de MatriceDistances.
+     */
+    private static void verifierALT() {
+        int requetes = 0;
+        for (int graine = 0; graine < 6; graine++) {
+            Graphe g = Verifications.grille(15, 15, graine, graine % 2 == 0 ? 0.0 : 0.3);
+            List<Sommet> points = points(g, 25, new Random(graine));
+            int n = points.size();
+            double[] reference = Verifications.matriceReference(g, points);
+
+            PretraitementALT alt = PretraitementALT.preparer(g, 4);
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++) {
+                    Sommet u = points.get(i), v = points.get(j);
+                    verifierRequete("ALT", g, u, v, reference[i * n + j], alt.distance(u, v), alt.chemin(u, v));
+                    requetes++;
+                }
+
+            MatriceDistances md = MatriceDistances.pour(g);
+            md.utiliserALT(alt);
+            md.vider();
+            for (int i = 0; i < n; i++) {
+                Sommet u = points.get(i), v = points.get((i + 1) % n);
+                verifierRequete("MatriceDistances (ALT)", g, u, v, reference[i * n + (i + 1) % n], md.distance(u, v),
+                        md.chemin(u, v));
+            }
+            md.utiliserALT(null);
+        }
+        System.out.println("Repères ALT : " + requetes + " requêtes conformes à Dijkstra");
+    }
+
+    /**
+     * Hiérarchie de contraction, directement puis derrière les matrices de
+     * MatriceDistances.
+     */
+    private static void verifierHierarchie() {
+        int requetes = 0;
+        for (int graine = 0; graine < 6; graine++) {
+            Graphe g = Verifications.grille(15, 15, graine, graine % 2 == 0 ? 0.0 : 0.3);
+            List<Sommet> points = points(g, 25, new Random(graine));
+            int n = points.size();
+            double[] reference = Verifications.matriceReference(g, points);
+
+            HierarchieContraction ch = HierarchieContraction.construire(g);
+            comparerMatrice("CH", ch.matrice(points, points), reference, n);
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++) {
+                    Sommet u = points.get(i), v = points.get(j);
+                    verifierRequete("CH", g, u, v, reference[i * n + j], ch.distance(u, v), ch.chemin(u, v));
+                    requetes++;
+                }
+
+            // Même contrôle par le service partagé, sans puis avec la hiérarchie
+            MatriceDistances md = MatriceDistances.pour(g);
+            comparerMatrice("matriceParallele", MatriceDistances.matriceParallele(g, points, 1), reference, n);
+            md.utiliserHierarchie(ch);
+            comparerMatrice("matriceParallele (CH)", MatriceDistances.matriceParallele(g, points, 1), reference, n);
+            double[][] groupes = MatriceDistances.matricesParGroupe(g, List.of(points.subList(0, 5), points), 1);
+            comparerMatrice("matricesParGroupe (CH)", groupes[1], reference, n);
+            md.utiliserHierarchie(null);
+        }
+        System.out.println("Hiérarchie de contraction : " + requetes + " requêtes conformes à Dijkstra");
+    }
+
+    /**
+     * Sommets distincts tirés au hasard (joignables ou non).
+     */
+    private static List<Sommet> points(Graphe g, int n, Random alea) {
+        List<Sommet> sommets = g.getSommets();
+        List<Sommet> points = new ArrayList<>();
+        while (points.size() < n) {
+            Sommet s = sommets.get(alea.nextInt(sommets.size()));
+            if (!points.contains(s))
+                points.add(s);
+        }
+        return points;
+    }
+
+    private static void verifierRequete(String methode, Graphe g, Sommet u, Sommet v, double attendue,
+            double distance, List<Sommet> chemin) {
+        Verifications.verifier(Verifications.egales(distance, attendue), "%s : distance %s --> %s = %.6f au lieu de %.6f",
+                methode, u.getId(), v.getId(), distance, attendue);
+        if (attendue >= Double.MAX_VALUE) {
+            Verifications.verifier(chemin.isEmpty(), "%s : chemin %s --> %s inaccessible mais non vide", methode,
+                    u.getId(), v.getId());
+            return;
+        }
+        Verifications.verifier(!chemin.isEmpty() && chemin.get(0).equals(u) && chemin.get(chemin.size() - 1).equals(v),
+                "%s : chemin %s --> %s mal délimité", methode, u.getId(), v.getId());
+        Verifications.verifier(Verifications.egales(Verifications.longueurChemin(g, chemin), attendue),
+                "%s : chemin %s --> %s de mauvaise longueur", methode, u.getId(), v.getId());
+    }
+
+    private static void comparerMatrice(String methode, double[] m, double[] reference, int n) {
+        Verifications.verifier(m.length == n * n, "%s : matrice de taille %d au lieu de %d", methode, m.length, n * n);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                Verifications.verifier(Verifications.egales(m[i * n + j], reference[i * n + j]),
+                        "%s : case (%d, %d) = %.6f au lieu de %.6f", methode, i, j, m[i * n + j], reference[i * n + j]);
+    }
+}
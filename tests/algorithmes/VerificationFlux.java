@@ -0,0 +1,165 @@
+package algorithmes;
+
+import java.util.*;
+
+/**
+ * FluxCoutMinimal contre deux références :
+ * - affectation (capacités unitaires) : énumération des permutations ;
+ * - réseaux aléatoires avec capacités : plus courts chemins successifs par
+ * Bellman-Ford, sans potentiels.
+ * Le flot rendu doit aussi respecter capacités et conservation, et coûter ce
+ * qu'annonce getCoutTotal.
+ */
+class VerificationFlux {
+
+    static void verifier() {
+        Random alea = new Random(31);
+        int instances = 0;
+        for (int essai = 0; essai < 300; essai++) {
+            verifierAffectation(alea, essai);
+            verifierReseau(alea, essai);
+            instances += 2;
+        }
+        System.out.println("Flot de coût minimal : " + instances + " réseaux conformes aux références");
+    }
+
+    // Source 0, ouvriers 1..k, tâches k+1..2k, puits 2k+1
+    private static void verifierAffectation(Random alea, int essai) {
+        int k = 1 + alea.nextInt(6);
+        double[] cout = new double[k * k];
+        for (int i = 0; i < k * k; i++)
+            cout[i] = alea.nextInt(5) == 0 ? Double.MAX_VALUE : alea.nextInt(20);
+
+        FluxCoutMinimal f = new FluxCoutMinimal(2 * k + 2);
+        int puits = 2 * k + 1;
+        for (int i = 0; i < k; i++) {
+            f.ajouterArc(0, 1 + i, 1, 0.0);
+            f.ajouterArc(k + 1 + i, puits, 1, 0.0);
+        }
+        for (int i = 0; i < k; i++)
+            for (int j = 0; j < k; j++)
+                if (cout[i * k + j] < Double.MAX_VALUE)
+                    f.ajouterArc(1 + i, k + 1 + j, 1, cout[i * k + j]);
+        long flot = f.resoudre(0, puits, k);
+
+        int[] tache = new int[k];
+        for (int i = 0; i < k; i++)
+            tache[i] = i;
+        double optimum = permutations(cout, k, tache, 0);
+        if (optimum >= Double.MAX_VALUE) {
+            Verifications.verifier(flot < k, "Affectation complète impossible mais trouvée (essai %d)", essai);
+            return;
+        }
+        Verifications.verifier(flot == k, "Affectation incomplète (essai %d) : %d sur %d", essai, flot, k);
+        Verifications.verifier(Verifications.egales(f.getCoutTotal(), optimum),
+                "Affectation non optimale (essai %d) : %.1f au lieu de %.1f", essai, f.getCoutTotal(), optimum);
+    }
+
+    private static double permutations(double[] cout, int k, int[] tache, int i) {
+        if (i == k)
+            return 0.0;
+        double minimum = Double.MAX_VALUE;
+        for (int j = i; j < k; j++) {
+            int x = tache[i];
+            tache[i] = tache[j];
+            tache[j] = x;
+            double c = cout[i * k + tache[i]];
+            if (c < Double.MAX_VALUE) {
+                double reste = permutations(cout, k, tache, i + 1);
+                if (reste < Double.MAX_VALUE)
+                    minimum = Math.min(minimum, c + reste);
+            }
+            tache[j] = tache[i];
+            tache[i] = x;
+        }
+        return minimum;
+    }
+
+    private static void verifierReseau(Random alea, int essai) {
+        int n = 3 + alea.nextInt(6);
+        int nbArcs = n + alea.nextInt(3 * n);
+        int[] u = new int[nbArcs], v = new int[nbArcs];
+        long[] cap = new long[nbArcs];
+        double[] cout = new double[nbArcs];
+        FluxCoutMinimal f = new FluxCoutMinimal(n);
+        int[] arc = new int[nbArcs];
+        for (int a = 0; a < nbArcs; a++) {
+            u[a] = alea.nextInt(n);
+            v[a] = (u[a] + 1 + alea.nextInt(n - 1)) % n;
+            cap[a] = 1 + alea.nextInt(4);
+            cout[a] = alea.nextInt(10);
+            arc[a] = f.ajouterArc(u[a], v[a], cap[a], cout[a]);
+        }
+        long demande = 1 + alea.nextInt(8);
+        long flot = f.resoudre(0, n - 1, demande);
+
+        double[] reference = bellmanFord(n, u, v, cap, cout, demande);
+        Verifications.verifier(flot == (long) reference[0], "Flot de %d au lieu de %d (essai %d)", flot,
+                (long) reference[0], essai);
+        Verifications.verifier(Verifications.egales(f.getCoutTotal(), reference[1]),
+                "Flot de coût %.1f au lieu de %.1f (essai %d)", f.getCoutTotal(), reference[1], essai);
+
+        // Capacités, conservation et coût du flot rendu
+        long[] bilan = new long[n];
+        double total = 0.0;
+        for (int a = 0; a < nbArcs; a++) {
+            long x = f.flux(arc[a]);
+            Verifications.verifier(x >= 0 && x <= cap[a], "Flux hors capacité (essai %d, arc %d)", essai, a);
+            bilan[u[a]] -= x;
+            bilan[v[a]] += x;
+            total += x * cout[a];
+        }
+        for (int s = 1; s < n - 1; s++)
+            Verifications.verifier(bilan[s] == 0, "Flux non conservé en %d (essai %d)", s, essai);
+        Verifications.verifier(bilan[n - 1] == flot && bilan[0] == -flot, "Bilan source/puits faux (essai %d)", essai);
+        Verifications.verifier(Verifications.egales(total, f.getCoutTotal()), "Coût annoncé faux (essai %d)", essai);
+    }
+
+    /**
+     * Plus courts chemins successifs, Bellman-Ford sur le réseau résiduel.
+     *
+     * @return {flot envoyé, coût}.
+     */
+    private static double[] bellmanFord(int n, int[] u, int[] v, long[] cap, double[] cout, long demande) {
+        int m = u.length;
+        long[] residuel = new long[2 * m]; // 2a : arc a, 2a + 1 : son inverse
+        for (int a = 0; a < m; a++)
+            residuel[2 * a] = cap[a];
+        long flot = 0;
+        double total = 0.0;
+        while (flot < demande) {
+            double[] dist = new double[n];
+            int[] par = new int[n];
+            Arrays.fill(dist, Double.MAX_VALUE);
+            Arrays.fill(par, -1);
+            dist[0] = 0.0;
+            for (int tour = 0; tour < n; tour++)
+                for (int r = 0; r < 2 * m; r++) {
+                    int a = r / 2;
+                    int de = r % 2 == 0 ? u[a] : v[a], vers = r % 2 == 0 ? v[a] : u[a];
+                    double c = r % 2 == 0 ? cout[a] : -cout[a];
+                    if (residuel[r] > 0 && dist[de] < Double.MAX_VALUE && dist[de] + c < dist[vers] - 1e-12) {
+                        dist[vers] = dist[de] + c;
+                        par[vers] = r;
+                    }
+                }
+            if (dist[n - 1] >= Double.MAX_VALUE)
+                break;
+            long envoi = demande - flot;
+            for (int x = n - 1; x != 0;) {
+                int r = par[x];
+                envoi = Math.min(envoi, residuel[r]);
+                x = r % 2 == 0 ? u[r / 2] : v[r / 2];
+            }
+            for (int x = n - 1; x != 0;) {
+                int r = par[x];
+                residuel[r] -= envoi;
+                residuel[r ^ 1] += envoi;
+                x = r % 2 == 0 ? u[r / 2] : v[r / 2];
+            }
+            flot += envoi;
+            total += envoi * dist[n - 1];
+        }
+        return new double[] { flot, total };
+    }
+}
@@ -0,0 +1,196 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * PostierChinoisMixte et PostierRural contre la plus courte tournée couvrant
+ * toutes les rues requises, trouvée par un Dijkstra sur les états (sommet,
+ * rues déjà parcourues) : exact, mais limité à une dizaine de rues.
+ * La tournée rendue doit suivre les rues dans le sens permis, toutes les
+ * couvrir et mesurer la distance annoncée. Elle est optimale quand toutes
+ * les rues sont à double sens ou toutes à sens unique ; sur un réseau mixte,
+ * MIXED1/MIXED2 sont des heuristiques et l'on vérifie seulement l'encadrement
+ * optimum &lt;= distance &lt;= 2 x optimum.
+ */
+class VerificationPostier {
+
+    static void verifier() {
+        Random alea = new Random(45);
+        int instances = 0;
+        for (int essai = 0; essai < 150; essai++) {
+            // 0 : tout à double sens, 1 : tout à sens unique, 2 : mixte
+            int type = essai % 3;
+            Graphe g = reseau(alea, type);
+            List<Arete> rues = g.getAretes();
+            double optimum = optimum(g, rues);
+            PostierChinois.ResultatPostierChinois res = Verifications.silencieux(() -> PostierChinoisMixte.resoudre(g));
+
+            if (optimum >= Double.MAX_VALUE) {
+                Verifications.verifier(res.circuit.isEmpty(), "Tournée trouvée sur un réseau non fortement connexe (essai %d)",
+                        essai);
+                continue;
+            }
+            Verifications.verifier(!res.circuit.isEmpty(), "Aucune tournée trouvée (essai %d)", essai);
+            double longueur = parcourir(g, rues, res.circuit, essai);
+            Verifications.verifier(Verifications.egales(longueur, res.distanceTotale),
+                    "Tournée de %.6f pour une distance annoncée de %.6f (essai %d)", longueur, res.distanceTotale, essai);
+            Verifications.verifier(res.distanceTotale >= optimum - Verifications.EPSILON,
+                    "Tournée plus courte que l'optimum (essai %d)", essai);
+            if (type < 2)
+                Verifications.verifier(Verifications.egales(res.distanceTotale, optimum),
+                        "Tournée non optimale (essai %d) : %.6f au lieu de %.6f", essai, res.distanceTotale, optimum);
+            else
+                Verifications.verifier(res.distanceTotale <= 2 * optimum + Verifications.EPSILON,
+                        "Tournée mixte au-delà de deux fois l'optimum (essai %d)", essai);
+            instances++;
+        }
+        System.out.println("Postier chinois mixte : " + instances + " tournées conformes à l'optimum exact");
+        verifierRural(alea);
+    }
+
+    /**
+     * PostierRural : seules les rues requises doivent être couvertes, les
+     * autres peuvent servir à vide. Heuristique : on vérifie la tournée,
+     * optimum &lt;= distance, la part à vide annoncée et, sur un réseau à
+     * double sens, distance &lt;= 3/2 x optimum (borne de Frederickson).
+     */
+    private static void verifierRural(Random alea) {
+        int instances = 0;
+        for (int essai = 0; essai < 150; essai++) {
+            int type = essai % 3;
+            Graphe g = reseau(alea, type);
+            List<Arete> rues = g.getAretes();
+            double requise = 0.0;
+            int nbRequises = 0;
+            for (int r = 0; r < rues.size(); r++) {
+                boolean estRequise = r > 0 && alea.nextInt(3) > 0;
+                rues.get(r).setRequise(estRequise);
+                if (estRequise) {
+                    requise += rues.get(r).getLongueur();
+                    nbRequises++;
+                }
+            }
+            if (nbRequises == 0)
+                continue;
+            double optimum = optimum(g, rues);
+            PostierChinois.ResultatPostierChinois res = Verifications.silencieux(() -> PostierRural.resoudre(g));
+            if (optimum >= Double.MAX_VALUE) {
+                Verifications.verifier(res.circuit.isEmpty(), "Tournée rurale trouvée alors qu'aucune n'existe (essai %d)",
+                        essai);
+                continue;
+            }
+            Verifications.verifier(!res.circuit.isEmpty(), "Aucune tournée rurale trouvée (essai %d)", essai);
+            double longueur = parcourir(g, rues, res.circuit, essai);
+            Verifications.verifier(Verifications.egales(longueur, res.distanceTotale),
+                    "Tournée rurale de %.6f pour une distance annoncée de %.6f (essai %d)", longueur, res.distanceTotale,
+                    essai);
+            Verifications.verifier(Verifications.egales(res.distanceHautLePied, res.distanceTotale - requise),
+                    "Part à vide de %.6f au lieu de %.6f (essai %d)", res.distanceHautLePied, res.distanceTotale - requise,
+                    essai);
+            Verifications.verifier(res.distanceTotale >= optimum - Verifications.EPSILON,
+                    "Tournée rurale plus courte que l'optimum (essai %d)", essai);
+            if (type == 0)
+                Verifications.verifier(res.distanceTotale <= 1.5 * optimum + Verifications.EPSILON,
+                        "Tournée rurale au-delà de 3/2 x l'optimum (essai %d)", essai);
+            instances++;
+        }
+        System.out.println("Postier rural : " + instances + " tournées valides, au-dessus de l'optimum exact");
+    }
+
+    // Arbre couvrant aléatoire puis quelques rues en plus, sans rues parallèles
+    private static Graphe reseau(Random alea, int type) {
+        int n = 3 + alea.nextInt(4);
+        Graphe g = new Graphe();
+        Sommet[] s = new Sommet[n];
+        for (int i = 0; i < n; i++) {
+            s[i] = new Sommet(String.valueOf((char) ('A' + i)), "S" + i);
+            g.ajouterSommet(s[i]);
+        }
+        Set<Integer> paires = new HashSet<>();
+        int nbRues = Math.min(n * (n - 1) / 2, n + alea.nextInt(4));
+        for (int i = 1; i < n; i++)
+            ajouterRue(g, s, alea.nextInt(i), i, type, alea, paires);
+        while (paires.size() < nbRues) {
+            int a = alea.nextInt(n), b = alea.nextInt(n);
+            if (a != b && !paires.contains(Math.min(a, b) * n + Math.max(a, b)))
+                ajouterRue(g, s, a, b, type, alea, paires);
+        }
+        return g;
+    }
+
+    private static void ajouterRue(Graphe g, Sommet[] s, int a, int b, int type, Random alea, Set<Integer> paires) {
+        paires.add(Math.min(a, b) * s.length + Math.max(a, b));
+        boolean doubleSens = type == 0 || (type == 2 && alea.nextBoolean());
+        if (alea.nextBoolean()) {
+            int x = a;
+            a = b;
+            b = x;
+        }
+        g.ajouterArete(new Arete(s[a], s[b], 1 + alea.nextInt(9), doubleSens));
+    }
+
+    // Plus courte marche fermée depuis le dépôt couvrant toutes les rues
+    // requises (les autres ne changent pas l'état couvert)
+    private static double optimum(Graphe g, List<Arete> rues) {
+        List<Sommet> sommets = g.getSommets();
+        int n = sommets.size(), m = rues.size(), tout = 0;
+        for (int r = 0; r < m; r++)
+            if (rues.get(r).estRequise())
+                tout |= 1 << r;
+        double[] dist = new double[n << m];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        PriorityQueue<double[]> file = new PriorityQueue<>(Comparator.comparingDouble(e -> e[0]));
+        int depart = sommets.indexOf(g.getDepot());
+        dist[depart << m] = 0.0;
+        file.add(new double[] { 0.0, depart << m });
+        while (!file.isEmpty()) {
+            double[] e = file.poll();
+            int etat = (int) e[1], v = etat >>> m, couvert = etat & ((1 << m) - 1);
+            if (e[0] > dist[etat])
+                continue;
+            if (v == depart && couvert == tout)
+                return e[0];
+            for (int r = 0; r < m; r++) {
+                Arete a = rues.get(r);
+                int src = sommets.indexOf(a.getSource()), dst = sommets.indexOf(a.getDestination());
+                for (int sens = 0; sens < (a.estDoubleSens() ? 2 : 1); sens++) {
+                    int de = sens == 0 ? src : dst, vers = sens == 0 ? dst : src;
+                    if (de != v)
+                        continue;
+                    int suivant = (vers << m) | couvert | ((1 << r) & tout);
+                    double d = e[0] + a.getLongueur();
+                    if (d < dist[suivant]) {
+                        dist[suivant] = d;
+                        file.add(new double[] { d, suivant });
+                    }
+                }
+            }
+        }
+        return Double.MAX_VALUE;
+    }
+
+    // Longueur de la tournée, après contrôle des sens et de la couverture
+    private static double parcourir(Graphe g, List<Arete> rues, List<Sommet> circuit, int essai) {
+        Verifications.verifier(circuit.get(0).equals(g.getDepot()) && circuit.get(circuit.size() - 1).equals(g.getDepot()),
+                "Tournée qui ne part pas du dépôt ou n'y revient pas (essai %d)", essai);
+        boolean[] couverte = new boolean[rues.size()];
+        double total = 0.0;
+        for (int k = 0; k + 1 < circuit.size(); k++) {
+            Sommet u = circuit.get(k), v = circuit.get(k + 1);
+            int trouvee = -1;
+            for (int r = 0; r < rues.size(); r++) {
+                Arete a = rues.get(r);
+                if ((a.getSource().equals(u) && a.getDestination().equals(v))
+                        || (a.estDoubleSens() && a.getSource().equals(v) && a.getDestination().equals(u)))
+                    trouvee = r;
+            }
+            Verifications.verifier(trouvee >= 0, "Passage %s --> %s interdit (essai %d)", u.getId(), v.getId(), essai);
+            couverte[trouvee] = true;
+            total += rues.get(trouvee).getLongueur();
+        }
+        for (int r = 0; r < rues.size(); r++)
+            Verifications.verifier(couverte[r] || !rues.get(r).estRequise(), "Rue %d non parcourue (essai %d)", r, essai);
+        return total;
+    }
+}
@@ -0,0 +1,85 @@
+package algorithmes;
+
+import java.util.*;
+import modele.*;
+
+/**
+ * Held-Karp (TSPPetit) et séparation et évaluation (TSPSeparationEvaluation)
+ * contre l'énumération de toutes les permutations (au plus 8 points), sur
+ * des graphes avec sens uniques.
+ */
+class VerificationTSP {
+
+    static void verifier() {
+        int instances = 0;
+        for (int graine = 0; graine < 30; graine++) {
+            Graphe g = Verifications.grille(8, 8, 100 + graine, graine % 3 == 0 ? 0.0 : 0.3);
+            Random alea = new Random(graine);
+            Sommet depot = g.getDepot();
+            List<Sommet> points = Verifications.tirerPoints(g, 1 + alea.nextInt(8), alea);
+            List<Sommet> tous = new ArrayList<>();
+            tous.add(depot);
+            tous.addAll(points);
+            double[] d = Verifications.matriceReference(g, tous);
+            int m = tous.size();
+
+            int[] ordre = new int[m - 1];
+            for (int k = 0; k < ordre.length; k++)
+                ordre[k] = k + 1;
+            double optimum = permutations(d, m, ordre, 0);
+
+            List<Object> petit = TSPPetit.resoudreTSPExact(g, depot, points);
+            @SuppressWarnings("unchecked")
+            List<Sommet> circuit = (List<Sommet>) petit.get(0);
+            verifierCircuit("TSPPetit", circuit, (double) petit.get(1), tous, d, optimum, graine);
+
+            TSPSeparationEvaluation.ResultatSeparation se = TSPSeparationEvaluation.resoudre(g, depot, points, 10_000);
+            Verifications.verifier(se.optimal, "TSPSeparationEvaluation interrompu (graine %d)", graine);
+            verifierCircuit("TSPSeparationEvaluation", se.circuit, se.distance, tous, d, optimum, graine);
+            instances++;
+        }
+        System.out.println("TSP exacts (Held-Karp, séparation et évaluation) : " + instances + " tournées conformes à la force brute");
+    }
+
+    // Plus courte tournée dépôt --> ordre[0..] --> dépôt, par échanges récursifs
+    private static double permutations(double[] d, int m, int[] ordre, int k) {
+        if (k == ordre.length) {
+            double total = 0.0;
+            int precedent = 0;
+            for (int v : ordre) {
+                total += d[precedent * m + v];
+                precedent = v;
+            }
+            return total + d[precedent * m];
+        }
+        double minimum = Double.MAX_VALUE;
+        for (int i = k; i < ordre.length; i++) {
+            echanger(ordre, k, i);
+            minimum = Math.min(minimum, permutations(d, m, ordre, k + 1));
+            echanger(ordre, k, i);
+        }
+        return minimum;
+    }
+
+    private static void echanger(int[] t, int i, int j) {
+        int x = t[i];
+        t[i] = t[j];
+        t[j] = x;
+    }
+
+    // Le circuit part du dépôt, visite chaque point une fois et mesure ce qu'il annonce
+    private static void verifierCircuit(String methode, List<Sommet> circuit, double distance, List<Sommet> tous,
+            double[] d, double optimum, int graine) {
+        int m = tous.size();
+        Verifications.verifier(Verifications.egales(distance, optimum), "%s non optimal (graine %d) : %.6f au lieu de %.6f",
+                methode, graine, distance, optimum);
+        Verifications.verifier(circuit.size() == m && circuit.get(0).equals(tous.get(0))
+                && new HashSet<>(circuit).equals(new HashSet<>(tous)), "%s : circuit incomplet (graine %d)", methode,
+                graine);
+        double longueur = 0.0;
+        for (int k = 0; k < m; k++)
+            longueur += d[tous.indexOf(circuit.get(k)) * m + tous.indexOf(circuit.get((k + 1) % m))];
+        Verifications.verifier(Verifications.egales(longueur, distance),
+                "%s : circuit de %.6f pour une distance annoncée de %.6f (graine %d)", methode, longueur, distance, graine);
+    }
+}
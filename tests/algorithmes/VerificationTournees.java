@@ -0,0 +1,196 @@
+package algorithmes;
+
+import java.util.*;
+import java.util.regex.*;
+import modele.*;
+
+/**
+ * Planificateurs de tournées avec capacité (Thème 2) sur des grilles avec
+ * sens uniques : chaque point à collecter l'est une seule fois, aucun camion
+ * n'est surchargé et chaque tournée mesure la somme des plus courts chemins
+ * entre ses arrêts, dépôt compris.
+ */
+class VerificationTournees {
+
+    private static final double CAPACITE = 10.0;
+
+    static void verifier() {
+        verifierPlusProcheVoisin();
+        verifierClarkeWright();
+        verifierALNS();
+        verifierSecteurs();
+    }
+
+    /**
+     * Plus proche voisin : doublons et points absents du plan sont comptés à
+     * part, sans fausser le nombre de points collectés.
+     */
+    private static void verifierPlusProcheVoisin() {
+        int instances = 0;
+        for (int graine = 0; graine < 6; graine++) {
+            Graphe g = Verifications.grille(10, 10, 200 + graine, graine % 2 == 0 ? 0.0 : 0.3);
+            Random alea = new Random(graine);
+            List<Sommet> points = Verifications.tirerPoints(g, 20 + alea.nextInt(30), alea);
+            List<Sommet> saisis = new ArrayList<>(points);
+            saisis.add(points.get(0));
+            saisis.add(points.get(points.size() - 1));
+            saisis.add(new Sommet("INCONNU", "hors plan", 1.0));
+
+            StringBuilder sortie = new StringBuilder();
+            List<Tournee> tournees = Verifications.capturer(
+                    () -> ApprochePointsCollecte.approcheAvecCapacite(g, g.getDepot(), saisis, CAPACITE), sortie);
+            controler("Plus proche voisin", g, tournees, points);
+            Matcher m = Pattern.compile("Points collectés\\s*: (\\d+) / (\\d+)").matcher(sortie);
+            Verifications.verifier(m.find() && Integer.parseInt(m.group(1)) == points.size()
+                    && Integer.parseInt(m.group(2)) == points.size(), "Plus proche voisin : bilan faux (graine %d)", graine);
+            Verifications.verifier(sortie.toString().matches("(?s).*Points en double ignorés\\s*: 2\\R.*")
+                    && sortie.toString().matches("(?s).*Points absents du plan\\s*: 1\\R.*"),
+                    "Plus proche voisin : doublons ou points inconnus mal comptés (graine %d)", graine);
+            instances++;
+        }
+        System.out.println("Plus proche voisin : " + instances + " plans de tournées valides");
+    }
+
+    /**
+     * Économies de Clarke et Wright sur tous les sommets du plan : seuls les
+     * points joignables dans les deux sens sont retenus, et les fusions ne
+     * font jamais pire qu'un aller-retour par point.
+     */
+    private static void verifierClarkeWright() {
+        int instances = 0;
+        for (int graine = 0; graine < 6; graine++) {
+            Graphe g = Verifications.grille(8 + graine, 9, 300 + graine, graine % 2 == 0 ? 0.0 : 0.3);
+            List<Sommet> attendus = Verifications.tirerPoints(g, Integer.MAX_VALUE, new Random(graine));
+            int threads = 1 + graine % 2;
+            List<Tournee> tournees = Verifications.silencieux(
+                    () -> ClarkeWright.resoudre(g, g.getDepot(), g.getSommets(), CAPACITE, 100, threads));
+            double total = controler("Clarke-Wright", g, tournees, attendus);
+
+            List<Sommet> arrets = new ArrayList<>(attendus);
+            arrets.add(0, g.getDepot());
+            double[] d = Verifications.matriceReference(g, arrets);
+            int m = arrets.size();
+            double allersRetours = 0.0;
+            for (int k = 1; k < m; k++)
+                allersRetours += d[k] + d[k * m];
+            Verifications.verifier(total <= allersRetours + Verifications.EPSILON,
+                    "Clarke-Wright : %.6f, plus que les allers-retours (%.6f), graine %d", total, allersRetours, graine);
+            instances++;
+        }
+        System.out.println("Clarke-Wright : " + instances + " plans de tournées valides");
+    }
+
+    /**
+     * ALNS depuis les tournées de l'arbre couvrant, sur un budget court : la
+     * solution reste valide, ne se dégrade jamais et sa distance annoncée est
+     * celle de ses tournées.
+     */
+    private static void verifierALNS() {
+        int instances = 0;
+        for (int graine = 0; graine < 4; graine++) {
+            Graphe g = Verifications.grille(10, 10, 400 + graine, graine % 2 == 0 ? 0.0 : 0.3);
+            Random alea = new Random(graine);
+            List<Sommet> points = Verifications.tirerPoints(g, 30 + alea.nextInt(30), alea);
+            List<Tournee> initiales = ApprocheMST.tourneesInitiales(g, g.getDepot(), points, CAPACITE);
+            double depart = controler("Tournées initiales", g, initiales, points);
+
+            int threads = 1 + graine % 2;
+            RechercheALNS.ResultatALNS r = Verifications.silencieux(
+                    () -> RechercheALNS.optimiser(g, g.getDepot(), initiales, CAPACITE, 200, threads));
+            double total = controler("ALNS", g, r.tournees, points);
+            Verifications.verifier(Verifications.egales(r.distanceInitiale, depart),
+                    "ALNS : distance initiale %.6f au lieu de %.6f (graine %d)", r.distanceInitiale, depart, graine);
+            Verifications.verifier(Verifications.egales(r.distance, total),
+                    "ALNS : distance annoncée %.6f pour des tournées de %.6f (graine %d)", r.distance, total, graine);
+            Verifications.verifier(total <= depart + Verifications.EPSILON,
+                    "ALNS : %.6f, pire que le départ (%.6f), graine %d", total, depart, graine);
+            double precedente = Double.MAX_VALUE;
+            for (double[] point : r.trace) {
+                Verifications.verifier(point[1] <= precedente + Verifications.EPSILON,
+                        "ALNS : trace de convergence croissante (graine %d)", graine);
+                precedente = point[1];
+            }
+            instances++;
+        }
+        System.out.println("ALNS : " + instances + " recherches valides, jamais pires que leur départ");
+    }
+
+    /**
+     * Secteurs d'abord, par balayage (plan avec coordonnées) ou par médoïdes
+     * (sans) : les secteurs partagent les points sans en perdre, et les
+     * tournées de l'ensemble restent valides.
+     */
+    private static void verifierSecteurs() {
+        int instances = 0;
+        for (int graine = 0; graine < 4; graine++) {
+            Graphe g = Verifications.grille(16, 16, 500 + graine, graine < 2 ? 0.0 : 0.3);
+            if (graine % 2 == 1)
+                for (Sommet s : g.getSommets()) {
+                    String[] ij = s.getId().equals("A") ? new String[] { "0", "0" } : s.getId().substring(1).split("_");
+                    s.setCoordonnees(Integer.parseInt(ij[0]), Integer.parseInt(ij[1]));
+                }
+            List<Sommet> attendus = Verifications.tirerPoints(g, Integer.MAX_VALUE, new Random(graine));
+
+            List<List<Sommet>> secteurs = DecoupageSecteurs.secteurs(g, g.getDepot(), attendus,
+                    DecoupageSecteurs.TOURNEES_PAR_SECTEUR * CAPACITE, 1);
+            Set<Sommet> reunion = new HashSet<>();
+            int effectif = 0;
+            for (List<Sommet> secteur : secteurs) {
+                Verifications.verifier(!secteur.isEmpty(), "Secteurs : secteur vide (graine %d)", graine);
+                reunion.addAll(secteur);
+                effectif += secteur.size();
+            }
+            Verifications.verifier(secteurs.size() > 1 && effectif == attendus.size()
+                    && reunion.equals(new HashSet<>(attendus)),
+                    "Secteurs : %d secteurs ne partageant pas les %d points (graine %d)", secteurs.size(),
+                    attendus.size(), graine);
+
+            int threads = 1 + graine % 2;
+            List<Tournee> tournees = Verifications.silencieux(
+                    () -> DecoupageSecteurs.resoudre(g, g.getDepot(), g.getSommets(), CAPACITE, threads));
+            controler("Secteurs", g, tournees, attendus);
+            for (int t = 0; t < tournees.size(); t++)
+                Verifications.verifier(tournees.get(t).getNumero() == t + 1,
+                        "Secteurs : tournée #%d au rang %d (graine %d)", tournees.get(t).getNumero(), t + 1, graine);
+            instances++;
+        }
+        System.out.println("Secteurs : " + instances + " découpages et plans de tournées valides");
+    }
+
+    /**
+     * Contrôle commun des tournées d'un planificateur.
+     *
+     * @param attendus Les points qui doivent être collectés (une fois).
+     * @return La distance totale.
+     */
+    static double controler(String methode, Graphe g, List<Tournee> tournees, List<Sommet> attendus) {
+        Sommet depot = g.getDepot();
+        Set<Sommet> vus = new HashSet<>();
+        double total = 0.0;
+        for (Tournee t : tournees) {
+            List<Sommet> arrets = new ArrayList<>();
+            arrets.add(depot);
+            arrets.addAll(t.getPointsVisites());
+            double charge = 0.0;
+            for (Sommet s : t.getPointsVisites()) {
+                Verifications.verifier(vus.add(s), "%s : point %s collecté deux fois", methode, s.getId());
+                charge += s.getQuantiteDechets();
+            }
+            Verifications.verifier(charge <= CAPACITE + 1e-9, "%s : tournée #%d surchargée (%.2f t)", methode,
+                    t.getNumero(), charge);
+
+            double[] d = Verifications.matriceReference(g, arrets);
+            int m = arrets.size();
+            double longueur = 0.0;
+            for (int k = 0; k < m; k++)
+                longueur += d[k * m + (k + 1) % m];
+            Verifications.verifier(Verifications.egales(longueur, t.getDistanceParcourue()),
+                    "%s : tournée #%d de %.6f pour une distance annoncée de %.6f", methode, t.getNumero(), longueur,
+                    t.getDistanceParcourue());
+            total += longueur;
+        }
+        Verifications.verifier(vus.equals(new HashSet<>(attendus)), "%s : %d points collectés sur %d", methode,
+                vus.size(), attendus.size());
+        return total;
+    }
+}
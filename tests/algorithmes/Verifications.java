@@ -0,0 +1,173 @@
+package algorithmes;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import modele.*;
+
+/**
+ * Vérifications des algorithmes exacts et accélérés contre des références
+ * naïves (force brute, Dijkstra simple), sur de petites instances
+ * aléatoires à graine fixe.
+ * Lancement depuis la racine du projet (utils/Utils n'a pas d'extension :
+ * javac le lit sous son nom .java, copié dans out/) :
+ * mkdir -p out/src/utils
+ * cp utils/Utils out/src/utils/Utils.java
+ * javac -encoding UTF-8 -d out -sourcepath .:out/src:tests tests/algorithmes/Verifications.java
+ * java -cp out algorithmes.Verifications
+ * La première vérification qui échoue lève une IllegalStateException.
+ */
+public class Verifications {
+
+    static final double EPSILON = 1e-6;
+
+    public static void main(String[] args) {
+        // Les planificateurs interactifs attendent Entrée en fin de calcul
+        System.setIn(new ByteArrayInputStream("\n".repeat(10_000).getBytes()));
+        long debut = System.currentTimeMillis();
+        VerificationCouplage.verifier();
+        VerificationDistances.verifier();
+        VerificationTSP.verifier();
+        VerificationFlux.verifier();
+        VerificationPostier.verifier();
+        VerificationTournees.verifier();
+        VerificationDecoupage.verifier();
+        System.out.printf("Toutes les vérifications sont passées (%d ms)%n", System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * @throws IllegalStateException Si la condition est fausse.
+     */
+    static void verifier(boolean condition, String message, Object... arguments) {
+        if (!condition)
+            throw new IllegalStateException(String.format(message, arguments));
+    }
+
+    /**
+     * Égalité à EPSILON près (relatif au-delà de 1), Double.MAX_VALUE ne
+     * valant qu'elle-même.
+     */
+    static boolean egales(double a, double b) {
+        if (a >= Double.MAX_VALUE || b >= Double.MAX_VALUE)
+            return a >= Double.MAX_VALUE && b >= Double.MAX_VALUE;
+        return Math.abs(a - b) <= EPSILON * Math.max(1.0, Math.abs(a));
+    }
+
+    /**
+     * Exécute un calcul sans son affichage console.
+     */
+    static <T> T silencieux(Supplier<T> calcul) {
+        PrintStream sortie = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return calcul.get();
+        } finally {
+            System.setOut(sortie);
+        }
+    }
+
+    /**
+     * Exécute un calcul en recueillant son affichage console.
+     */
+    static <T> T capturer(Supplier<T> calcul, StringBuilder sortie) {
+        PrintStream console = System.out;
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(tampon, true, StandardCharsets.UTF_8));
+        try {
+            return calcul.get();
+        } finally {
+            System.setOut(console);
+            sortie.append(tampon.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Grille de rues aux longueurs aléatoires, dont une part à sens unique
+     * (sens tiré au hasard). Le dépôt « A » est dans un coin.
+     */
+    static Graphe grille(int largeur, int hauteur, long graine, double partSensUnique) {
+        Random alea = new Random(graine);
+        Graphe g = new Graphe();
+        Sommet[][] s = new Sommet[largeur][hauteur];
+        for (int i = 0; i < largeur; i++)
+            for (int j = 0; j < hauteur; j++) {
+                String id = i == 0 && j == 0 ? "A" : "S" + i + "_" + j;
+                s[i][j] = new Sommet(id, id, 1 + alea.nextInt(5));
+                g.ajouterSommet(s[i][j]);
+            }
+        for (int i = 0; i < largeur; i++)
+            for (int j = 0; j < hauteur; j++) {
+                if (i + 1 < largeur)
+                    g.ajouterArete(rue(s[i][j], s[i + 1][j], alea, partSensUnique));
+                if (j + 1 < hauteur)
+                    g.ajouterArete(rue(s[i][j], s[i][j + 1], alea, partSensUnique));
+            }
+        return g;
+    }
+
+    private static Arete rue(Sommet u, Sommet v, Random alea, double partSensUnique) {
+        double longueur = 0.1 * (1 + alea.nextDouble());
+        if (alea.nextDouble() >= partSensUnique)
+            return new Arete(u, v, longueur, true);
+        return alea.nextBoolean() ? new Arete(u, v, longueur, false) : new Arete(v, u, longueur, false);
+    }
+
+    /**
+     * Points distincts tirés au hasard, hors dépôt, joignables depuis et vers
+     * le dépôt.
+     */
+    static List<Sommet> tirerPoints(Graphe g, int n, Random alea) {
+        GrapheCompact gc = g.compacter();
+        int depot = gc.indice(g.getDepot());
+        double[] aller = Dijkstra.distancesDepuis(gc, depot, null);
+        double[] retour = Dijkstra.distancesVers(gc, depot);
+        List<Integer> candidats = new ArrayList<>();
+        for (int v = 0; v < gc.nombreSommets(); v++)
+            if (v != depot && aller[v] < Double.MAX_VALUE && retour[v] < Double.MAX_VALUE)
+                candidats.add(v);
+        Collections.shuffle(candidats, alea);
+        List<Sommet> points = new ArrayList<>();
+        for (int k = 0; k < Math.min(n, candidats.size()); k++)
+            points.add(gc.sommet(candidats.get(k)));
+        return points;
+    }
+
+    /**
+     * Matrice de référence : un Dijkstra complet par ligne.
+     */
+    static double[] matriceReference(Graphe g, List<Sommet> points) {
+        GrapheCompact gc = g.compacter();
+        int n = points.size();
+        double[] m = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            double[] dist = Dijkstra.distancesDepuis(gc, gc.indice(points.get(i)), null);
+            for (int j = 0; j < n; j++)
+                m[i * n + j] = i == j ? 0.0 : dist[gc.indice(points.get(j))];
+        }
+        return m;
+    }
+
+    /**
+     * Longueur d'un chemin du graphe (arc le plus court entre deux sommets
+     * consécutifs).
+     *
+     * @throws IllegalStateException Si deux sommets consécutifs ne sont reliés
+     *                               par aucun arc.
+     */
+    static double longueurChemin(Graphe g, List<Sommet> chemin) {
+        GrapheCompact gc = g.compacter();
+        double total = 0.0;
+        for (int k = 0; k + 1 < chemin.size(); k++) {
+            int u = gc.indice(chemin.get(k)), v = gc.indice(chemin.get(k + 1));
+            double meilleur = Double.MAX_VALUE;
+            for (int a = gc.debut(u); a < gc.fin(u); a++)
+                if (gc.cible(a) == v)
+                    meilleur = Math.min(meilleur, gc.longueur(a));
+            verifier(meilleur < Double.MAX_VALUE, "Chemin invalide : aucun arc %s --> %s", chemin.get(k).getId(),
+                    chemin.get(k + 1).getId());
+            total += meilleur;
+        }
+        return total;
+    }
+}